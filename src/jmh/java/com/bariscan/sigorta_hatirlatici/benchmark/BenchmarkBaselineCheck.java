@@ -0,0 +1,125 @@
+package com.bariscan.sigorta_hatirlatici.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file with the stored baseline and fails when a benchmark got slower,
+ * or allocates more per operation, by more than the given threshold. A missing baseline file or a
+ * benchmark without a baseline entry fails the check as well. With {@code -Djmh.baseline.update=true}
+ * the current results are written into the baseline instead, replacing the entries they cover.
+ */
+public final class BenchmarkBaselineCheck {
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private BenchmarkBaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: BenchmarkBaselineCheck <result.json> <baseline.json> <threshold>");
+        }
+        File resultFile = new File(args[0]);
+        File baselineFile = new File(args[1]);
+        double threshold = Double.parseDouble(args[2]);
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+        Map<String, ObjectNode> current = summarize(objectMapper, objectMapper.readTree(resultFile));
+        Map<String, JsonNode> baseline = new LinkedHashMap<>();
+        if (baselineFile.exists()) {
+            objectMapper.readTree(baselineFile).forEach(node -> baseline.put(node.get("key").asText(), node));
+        }
+        if (Boolean.getBoolean("jmh.baseline.update")) {
+            baseline.putAll(current);
+            baselineFile.getParentFile().mkdirs();
+            ArrayNode updated = objectMapper.createArrayNode();
+            baseline.values().forEach(updated::add);
+            objectMapper.writeValue(baselineFile, updated);
+            System.out.println("Benchmark baseline written to " + baselineFile);
+            return;
+        }
+        if (!baselineFile.exists()) {
+            System.err.println("BASELINE MISSING " + baselineFile
+                    + ", record it with -Djmh.baseline.update=true and commit it");
+            System.exit(1);
+        }
+
+        List<String> regressions = new ArrayList<>();
+        for (ObjectNode result : current.values()) {
+            JsonNode previous = baseline.get(result.get("key").asText());
+            if (previous == null) {
+                regressions.add("NO BASELINE " + result.get("key").asText()
+                        + ", record it with -Djmh.baseline.update=true and commit baseline.json");
+                continue;
+            }
+            boolean higherIsBetter = result.get("mode").asText().equals("thrpt");
+            double score = result.get("score").asDouble();
+            double previousScore = previous.get("score").asDouble();
+            double change = higherIsBetter ? (previousScore - score) / previousScore : (score - previousScore) / previousScore;
+            report(regressions, result, "score", previousScore, score, change, threshold);
+            if (result.has("allocBytesPerOp") && previous.has("allocBytesPerOp")) {
+                double allocation = result.get("allocBytesPerOp").asDouble();
+                double previousAllocation = previous.get("allocBytesPerOp").asDouble();
+                if (previousAllocation > 0) {
+                    report(regressions, result, "allocation", previousAllocation, allocation,
+                            (allocation - previousAllocation) / previousAllocation, threshold);
+                }
+            }
+        }
+        if (!regressions.isEmpty()) {
+            regressions.forEach(System.err::println);
+            System.exit(1);
+        }
+    }
+
+    private static void report(List<String> regressions, JsonNode result, String metric,
+                               double previous, double current, double change, double threshold) {
+        String line = String.format("%s %s: %.3f -> %.3f (%+.1f%%)",
+                result.get("key").asText(), metric, previous, current, change * 100);
+        System.out.println(line);
+        if (change > threshold) {
+            regressions.add("REGRESSION " + line);
+        }
+    }
+
+    private static Map<String, ObjectNode> summarize(ObjectMapper objectMapper, JsonNode results) {
+        Map<String, ObjectNode> summary = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText());
+            JsonNode params = result.get("params");
+            if (params != null) {
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> param = fields.next();
+                    key.append(':').append(param.getKey()).append('=').append(param.getValue().asText());
+                }
+            }
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("key", key.toString());
+            node.put("mode", result.get("mode").asText());
+            node.put("score", result.get("primaryMetric").get("score").asDouble());
+            node.put("unit", result.get("primaryMetric").get("scoreUnit").asText());
+            JsonNode secondary = result.get("secondaryMetrics");
+            if (secondary != null) {
+                secondary.fields().forEachRemaining(metric -> {
+                    if (metric.getKey().replace("·", "").equals(ALLOCATION_METRIC)) {
+                        node.put("allocBytesPerOp", metric.getValue().get("score").asDouble());
+                    }
+                });
+            }
+            summary.put(key.toString(), node);
+        }
+        return summary;
+    }
+}
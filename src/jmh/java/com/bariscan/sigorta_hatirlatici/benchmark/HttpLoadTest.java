@@ -0,0 +1,161 @@
+package com.bariscan.sigorta_hatirlatici.benchmark;
+
+import com.bariscan.sigorta_hatirlatici.OtomobilSigortaOdemeHatirlaticisiApplication;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserDto;
+import com.bariscan.sigorta_hatirlatici.service.UserService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed loop HTTP load test: {@code users} clients repeatedly list users through
+ * {@code GET /users} with basic authentication, so every request does a credential lookup, a bcrypt
+ * check and a keyset query. Run once per mode and compare the printed throughput and p99:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec@load-test -Dloadtest.mode=platform
+ * mvn -Pbenchmark,jdk21 test-compile exec:exec@load-test -Dloadtest.mode=virtual
+ * </pre>
+ * By default the application runs with the {@code prod} profile against the PostgreSQL database
+ * of {@code DB_URL}, because driver pinning does not show up on H2; {@code datasource=h2} runs
+ * against an in-memory H2 instead. The JVM runs with {@code -Djdk.tracePinnedThreads=short}, so
+ * virtual threads that block while pinned to their carrier are reported on stdout.
+ */
+public class HttpLoadTest {
+    private static final String PASSWORD = "123456789";
+    private static final int SEEDED_USERS = 500;
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "platform";
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        Duration warmup = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 10);
+        Duration measurement = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 60);
+        String datasource = args.length > 4 ? args[4] : "prod";
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(OtomobilSigortaOdemeHatirlaticisiApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "app.security.hashing.bcrypt-strength=4",
+                        "app.scheduling.enabled=false",
+                        "app.reminder.wheel.enabled=false",
+                        "app.audit.file=target/loadtest-audit.log");
+        List<String> profiles = new ArrayList<>();
+        if ("h2".equals(datasource)) {
+            builder.properties("spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+        } else {
+            profiles.add("prod");
+        }
+        if ("virtual".equals(mode)) {
+            profiles.add("virtual-threads");
+        }
+        builder.profiles(profiles.toArray(new String[0]));
+        // a real database keeps the users of earlier runs, so every run seeds its own
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        String email = "loadtest-" + run + "@test.com";
+        try (ConfigurableApplicationContext context = builder.run()) {
+            UserService userService = context.getBean(UserService.class);
+            userService.createNewUser(userDto(email));
+            for (int i = 0; i < SEEDED_USERS; i++) {
+                userService.createNewUser(userDto("lt-" + run + "-" + i + "@test.com"));
+            }
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            Result result = run(URI.create("http://localhost:" + port + "/users?size=50"), email, users, warmup, measurement);
+            System.out.printf("mode=%s datasource=%s users=%d requests=%d errors=%d throughput=%.1f req/s p50=%.2f ms p99=%.2f ms p999=%.2f ms max=%.2f ms%n",
+                    mode, datasource, users, result.histogram.getTotalCount(), result.errors,
+                    result.histogram.getTotalCount() / (double) measurement.toSeconds(),
+                    millis(result.histogram.getValueAtPercentile(50)),
+                    millis(result.histogram.getValueAtPercentile(99)),
+                    millis(result.histogram.getValueAtPercentile(99.9)),
+                    millis(result.histogram.getMaxValue()));
+        }
+    }
+
+    private static Result run(URI uri, String email, int users, Duration warmup, Duration measurement)
+            throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((email + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", authorization)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        Histogram histogram = new ConcurrentHistogram(TimeUnit.SECONDS.toNanos(60), 3);
+        LongAdder errors = new LongAdder();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + measurement.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(users);
+        List<Runnable> loops = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            loops.add(() -> {
+                while (true) {
+                    long start = System.nanoTime();
+                    if (start >= measureUntil) {
+                        return;
+                    }
+                    boolean ok;
+                    try {
+                        ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    long end = System.nanoTime();
+                    if (start >= measureFrom && end <= measureUntil) {
+                        if (ok) {
+                            histogram.recordValue(Math.min(end - start, histogram.getHighestTrackableValue()));
+                        } else {
+                            errors.increment();
+                        }
+                    }
+                }
+            });
+        }
+        loops.forEach(clients::execute);
+        clients.shutdown();
+        clients.awaitTermination(warmup.plus(measurement).toSeconds() + 60, TimeUnit.SECONDS);
+        return new Result(histogram, errors.sum());
+    }
+
+    private static UserDto userDto(String email) {
+        return UserDto.builder()
+                .firstName("Load")
+                .lastName("Test")
+                .email(email)
+                .password(PASSWORD)
+                .build();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Result {
+        private final Histogram histogram;
+        private final long errors;
+
+        private Result(Histogram histogram, long errors) {
+            this.histogram = histogram;
+            this.errors = errors;
+        }
+    }
+}
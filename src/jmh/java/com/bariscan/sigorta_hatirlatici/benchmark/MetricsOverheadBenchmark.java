@@ -0,0 +1,86 @@
+package com.bariscan.sigorta_hatirlatici.benchmark;
+
+import com.bariscan.sigorta_hatirlatici.metrics.QueryCountingStatementInspector;
+import com.bariscan.sigorta_hatirlatici.metrics.ServiceQueryMetricsAspect;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@code @Timed} instrumentation on a trivial service method: a direct call, the same
+ * call through the Spring AOP proxy with the timer and query count aspects recording into a
+ * {@link SimpleMeterRegistry}, and into a {@link PrometheusMeterRegistry} with percentile
+ * histograms enabled as in {@code application.properties}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    @Param({"none", "simple", "prometheus"})
+    private String registry;
+
+    private InstrumentedService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InstrumentedService target = new InstrumentedService();
+        if ("none".equals(registry)) {
+            service = target;
+            return;
+        }
+        MeterRegistry meterRegistry = "simple".equals(registry)
+                ? new SimpleMeterRegistry()
+                : new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(io.micrometer.core.instrument.Meter.Id id,
+                                                         DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .percentiles(0.5, 0.95, 0.99)
+                        .build()
+                        .merge(config);
+            }
+        });
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceQueryMetricsAspect(meterRegistry));
+        factory.addAspect(new TimedAspect(meterRegistry));
+        service = factory.getProxy();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long singleThread() {
+        return service.save();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long fourThreads() {
+        return service.save();
+    }
+
+    public static class InstrumentedService {
+        private final QueryCountingStatementInspector inspector = new QueryCountingStatementInspector();
+
+        @Timed("app.service")
+        public long save() {
+            inspector.inspect("insert into users values (?)");
+            return QueryCountingStatementInspector.currentCount();
+        }
+    }
+}
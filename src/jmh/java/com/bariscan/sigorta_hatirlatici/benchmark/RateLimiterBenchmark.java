@@ -0,0 +1,66 @@
+package com.bariscan.sigorta_hatirlatici.benchmark;
+
+import com.bariscan.sigorta_hatirlatici.ratelimit.TokenBucketLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@link TokenBucketLimiter#tryAcquire} check with eight threads hammering either a
+ * single key or their own set of keys. {@code granting} buckets never run dry, so every check ends
+ * in a compare-and-set on the shared bucket; {@code throttling} buckets hold one permit, so almost
+ * every check is the rejection path a brute force attack takes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RateLimiterBenchmark {
+    private static final int KEYS_PER_THREAD = 1_024;
+
+    @Param({"granting", "throttling"})
+    private String limit;
+
+    private TokenBucketLimiter<Long> limiter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        limiter = "granting".equals(limit)
+                ? new TokenBucketLimiter<>(Integer.MAX_VALUE, Duration.ofDays(1), 100_000, System::currentTimeMillis)
+                : new TokenBucketLimiter<>(1, Duration.ofDays(1), 100_000, System::currentTimeMillis);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+        private final Long[] keys = new Long[KEYS_PER_THREAD];
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            long base = ThreadLocalRandom.current().nextLong(1L << 40) * KEYS_PER_THREAD;
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = base + i;
+            }
+        }
+
+        Long next() {
+            next = (next + 1) & (KEYS_PER_THREAD - 1);
+            return keys[next];
+        }
+    }
+
+    @Benchmark
+    public boolean sharedKey() {
+        return limiter.tryAcquire(1L);
+    }
+
+    @Benchmark
+    public boolean distinctKeys(ThreadKeys threadKeys) {
+        return limiter.tryAcquire(threadKeys.next());
+    }
+}
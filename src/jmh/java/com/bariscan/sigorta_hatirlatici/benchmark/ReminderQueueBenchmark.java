@@ -0,0 +1,124 @@
+package com.bariscan.sigorta_hatirlatici.benchmark;
+
+import com.bariscan.sigorta_hatirlatici.service.reminder.HierarchicalTimingWheel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reminder timing wheel with a binary heap ({@link PriorityQueue}) and with
+ * {@link ScheduledThreadPoolExecutor}, which is backed by a heap as well, for loading a horizon of
+ * reminders, firing all of them and rescheduling single reminders.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReminderQueueBenchmark {
+    private static final long TICK_MILLIS = 100;
+    private static final long HORIZON_MILLIS = TimeUnit.HOURS.toMillis(6);
+
+    @Param({"10000", "100000"})
+    private int pending;
+
+    private long[] deadlines;
+    private HierarchicalTimingWheel<Long> loadedWheel;
+    private PriorityQueue<Reminder> loadedQueue;
+    private Reminder[] queuedReminders;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        deadlines = new long[pending];
+        for (int i = 0; i < pending; i++) {
+            deadlines[i] = random.nextLong(HORIZON_MILLIS);
+        }
+        loadedWheel = new HierarchicalTimingWheel<>(TICK_MILLIS, 8, 3, 0);
+        loadedQueue = new PriorityQueue<>(pending, Comparator.comparingLong(reminder -> reminder.deadline));
+        queuedReminders = new Reminder[pending];
+        for (int i = 0; i < pending; i++) {
+            loadedWheel.schedule(i, deadlines[i], (long) i);
+            queuedReminders[i] = new Reminder(i, deadlines[i]);
+            loadedQueue.add(queuedReminders[i]);
+        }
+    }
+
+    @Benchmark
+    public int timingWheelLoadAndFire(Blackhole blackhole) {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, 8, 3, 0);
+        for (int i = 0; i < pending; i++) {
+            wheel.schedule(i, deadlines[i], (long) i);
+        }
+        int fired = 0;
+        for (long now = 0; now <= HORIZON_MILLIS; now += 1_000) {
+            fired += wheel.advanceTo(now, blackhole::consume);
+        }
+        return fired;
+    }
+
+    @Benchmark
+    public int priorityQueueLoadAndFire(Blackhole blackhole) {
+        PriorityQueue<Reminder> queue = new PriorityQueue<>(pending, Comparator.comparingLong(reminder -> reminder.deadline));
+        for (int i = 0; i < pending; i++) {
+            queue.add(new Reminder(i, deadlines[i]));
+        }
+        int fired = 0;
+        for (long now = 0; now <= HORIZON_MILLIS; now += 1_000) {
+            while (!queue.isEmpty() && queue.peek().deadline <= now) {
+                blackhole.consume(queue.poll());
+                fired++;
+            }
+        }
+        return fired;
+    }
+
+    @Benchmark
+    public int scheduledExecutorLoadAndCancel() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        ScheduledFuture<?>[] futures = new ScheduledFuture<?>[pending];
+        for (int i = 0; i < pending; i++) {
+            futures[i] = executor.schedule(() -> { }, deadlines[i], TimeUnit.MILLISECONDS);
+        }
+        for (ScheduledFuture<?> future : futures) {
+            future.cancel(false);
+        }
+        executor.shutdownNow();
+        return futures.length;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void timingWheelReschedule() {
+        int key = random.nextInt(pending);
+        loadedWheel.schedule(key, random.nextLong(HORIZON_MILLIS), (long) key);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void priorityQueueReschedule() {
+        Reminder reminder = queuedReminders[random.nextInt(pending)];
+        loadedQueue.remove(reminder);
+        reminder.deadline = random.nextLong(HORIZON_MILLIS);
+        loadedQueue.add(reminder);
+    }
+
+    private static final class Reminder {
+        private final long id;
+        private long deadline;
+
+        private Reminder(long id, long deadline) {
+            this.id = id;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.bariscan.sigorta_hatirlatici.benchmark;
+
+import com.bariscan.sigorta_hatirlatici.OtomobilSigortaOdemeHatirlaticisiApplication;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.ChangePassDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserDto;
+import com.bariscan.sigorta_hatirlatici.entity.Privilege;
+import com.bariscan.sigorta_hatirlatici.entity.Role;
+import com.bariscan.sigorta_hatirlatici.entity.User;
+import com.bariscan.sigorta_hatirlatici.service.PrivilegeService;
+import com.bariscan.sigorta_hatirlatici.service.RoleService;
+import com.bariscan.sigorta_hatirlatici.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service layer benchmarks against the full application context and an in-memory H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceH2Benchmark {
+    private static final String PASSWORD = "123456789";
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private RoleService roleService;
+    private PrivilegeService privilegeService;
+    private ChangePassDto changePassDto;
+    private List<Privilege> privileges;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(OtomobilSigortaOdemeHatirlaticisiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "app.security.hashing.bcrypt-strength=4",
+                        "app.scheduling.enabled=false",
+                        "app.reminder.wheel.enabled=false",
+                        "app.audit.file=target/jmh-audit.log",
+                        "app.rate-limit.enabled=false")
+                .run();
+        userService = context.getBean(UserService.class);
+        roleService = context.getBean(RoleService.class);
+        privilegeService = context.getBean(PrivilegeService.class);
+
+        User user = userService.createNewUser(userDto("benchmark@test.com"));
+        changePassDto = ChangePassDto.builder()
+                .id(user.getId())
+                .password(PASSWORD)
+                .newPass(PASSWORD)
+                .newPassAgain(PASSWORD)
+                .build();
+        privileges = List.of(privilegeService.createPrivilegeIfNotFound("READ_PRIVILEGE"));
+        roleService.createRoleIfNotFound("ROLE_USER", privileges);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User createNewUser() {
+        return userService.createNewUser(userDto("user" + sequence.incrementAndGet() + "@test.com"));
+    }
+
+    @Benchmark
+    public String changePassword() {
+        return userService.changePassword(changePassDto);
+    }
+
+    @Benchmark
+    public Role createRoleIfNotFound_existing() {
+        return roleService.createRoleIfNotFound("ROLE_USER", privileges);
+    }
+
+    @Benchmark
+    public Privilege createPrivilegeIfNotFound_existing() {
+        return privilegeService.createPrivilegeIfNotFound("READ_PRIVILEGE");
+    }
+
+    @Benchmark
+    public Privilege createPrivilegeIfNotFound_new() {
+        return privilegeService.createPrivilegeIfNotFound("PRIVILEGE_" + sequence.incrementAndGet());
+    }
+
+    private static UserDto userDto(String email) {
+        return UserDto.builder()
+                .firstName("Bariscan")
+                .lastName("Gungor")
+                .email(email)
+                .password(PASSWORD)
+                .build();
+    }
+}
@@ -0,0 +1,156 @@
+package com.bariscan.sigorta_hatirlatici.benchmark;
+
+import com.bariscan.sigorta_hatirlatici.audit.AuditLog;
+import com.bariscan.sigorta_hatirlatici.cache.BoundedCache;
+import com.bariscan.sigorta_hatirlatici.cache.VersionedCache;
+import com.bariscan.sigorta_hatirlatici.cache.ReferenceDataCache;
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeOutbox;
+import com.bariscan.sigorta_hatirlatici.config.AuditProperties;
+import com.bariscan.sigorta_hatirlatici.config.CacheProperties;
+import com.bariscan.sigorta_hatirlatici.config.PasswordHashingProperties;
+import com.bariscan.sigorta_hatirlatici.config.RateLimitProperties;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.ChangePassDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserDto;
+import com.bariscan.sigorta_hatirlatici.entity.Privilege;
+import com.bariscan.sigorta_hatirlatici.entity.Role;
+import com.bariscan.sigorta_hatirlatici.entity.User;
+import com.bariscan.sigorta_hatirlatici.ratelimit.AttemptRateLimiter;
+import com.bariscan.sigorta_hatirlatici.repository.ChangeEventRepository;
+import com.bariscan.sigorta_hatirlatici.repository.PrivilegeRepository;
+import com.bariscan.sigorta_hatirlatici.repository.RoleRepository;
+import com.bariscan.sigorta_hatirlatici.repository.UserRepository;
+import com.bariscan.sigorta_hatirlatici.service.AuthorityService;
+import com.bariscan.sigorta_hatirlatici.service.PasswordHashingService;
+import com.bariscan.sigorta_hatirlatici.service.PrivilegeService;
+import com.bariscan.sigorta_hatirlatici.service.ReferenceDataInserter;
+import com.bariscan.sigorta_hatirlatici.service.RoleService;
+import com.bariscan.sigorta_hatirlatici.service.UserAuthenticationService;
+import com.bariscan.sigorta_hatirlatici.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service layer benchmarks with stub-only Mockito repositories, isolating service and hashing cost
+ * from the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceMockBenchmark {
+    private static final String PASSWORD = "123456789";
+
+    @Param({"4", "10"})
+    private int bcryptStrength;
+
+    private UserService userService;
+    private RoleService roleService;
+    private PrivilegeService privilegeService;
+    private PasswordHashingService passwordHashingService;
+    private AuditLog auditLog;
+    private UserDto userDto;
+    private ChangePassDto changePassDto;
+    private List<Privilege> privileges;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(bcryptStrength);
+        UserRepository userRepository = Mockito.mock(UserRepository.class, Mockito.withSettings().stubOnly());
+        RoleRepository roleRepository = Mockito.mock(RoleRepository.class, Mockito.withSettings().stubOnly());
+        PrivilegeRepository privilegeRepository = Mockito.mock(PrivilegeRepository.class, Mockito.withSettings().stubOnly());
+
+        User user = User.builder()
+                .id(1L)
+                .firstName("Bariscan")
+                .lastName("Gungor")
+                .email("bariscan@test.com")
+                .password(passwordEncoder.encode(PASSWORD))
+                .enabled(true)
+                .build();
+        Mockito.when(userRepository.save(Mockito.any(User.class))).then(AdditionalAnswers.returnsFirstArg());
+        Mockito.when(userRepository.findById(Mockito.any(Long.class))).thenReturn(Optional.of(user));
+        Mockito.when(roleRepository.findByName(Mockito.any(String.class))).thenReturn(Optional.empty());
+        Mockito.when(roleRepository.save(Mockito.any(Role.class))).then(AdditionalAnswers.returnsFirstArg());
+        Mockito.when(privilegeRepository.findByName(Mockito.any(String.class))).thenReturn(Optional.empty());
+        Mockito.when(privilegeRepository.save(Mockito.any(Privilege.class))).then(AdditionalAnswers.returnsFirstArg());
+
+        PasswordHashingProperties hashingProperties = new PasswordHashingProperties();
+        hashingProperties.setBcryptStrength(bcryptStrength);
+        passwordHashingService = new PasswordHashingService(passwordEncoder, hashingProperties);
+        AuthorityService authorityService = new AuthorityService(userRepository, new CacheProperties());
+        ChangeOutbox changeOutbox = new ChangeOutbox(
+                Mockito.mock(ChangeEventRepository.class, Mockito.withSettings().stubOnly()), new ObjectMapper(), Clock.systemUTC());
+        RateLimitProperties rateLimitProperties = new RateLimitProperties();
+        rateLimitProperties.setEnabled(false);
+        AttemptRateLimiter attemptRateLimiter = new AttemptRateLimiter(rateLimitProperties, Clock.systemUTC());
+        UserAuthenticationService userAuthenticationService = new UserAuthenticationService(
+                userRepository, new BoundedCache<>(1_000), new CacheProperties(), Clock.systemUTC(), attemptRateLimiter);
+        AuditProperties auditProperties = new AuditProperties();
+        auditProperties.setFile("target/jmh-audit.log");
+        auditLog = new AuditLog(auditProperties, Clock.systemUTC());
+        userService = new UserService(userRepository, passwordEncoder, authorityService, passwordHashingService,
+                userAuthenticationService, auditLog, new VersionedCache<>(1_000), attemptRateLimiter, changeOutbox,
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class, Mockito.withSettings().stubOnly())));
+        ReferenceDataCache referenceDataCache = Mockito.mock(ReferenceDataCache.class, Mockito.withSettings().stubOnly());
+        roleService = new RoleService(roleRepository, authorityService, new BoundedCache<>(1_000), auditLog,
+                referenceDataCache, new ReferenceDataInserter(), new VersionedCache<>(1_000), changeOutbox);
+        privilegeService = new PrivilegeService(privilegeRepository, authorityService, new BoundedCache<>(1_000), auditLog,
+                referenceDataCache, new ReferenceDataInserter(), roleService, changeOutbox);
+
+        userDto = UserDto.builder()
+                .firstName("Bariscan")
+                .lastName("Gungor")
+                .email("bariscan@test.com")
+                .password(PASSWORD)
+                .build();
+        changePassDto = ChangePassDto.builder()
+                .id(1L)
+                .password(PASSWORD)
+                .newPass(PASSWORD)
+                .newPassAgain(PASSWORD)
+                .build();
+        privileges = List.of(privilegeService.createPrivilegeIfNotFound("READ_PRIVILEGE"));
+        roleService.createRoleIfNotFound("ROLE_USER", privileges);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordHashingService.shutdown();
+        auditLog.shutdown();
+    }
+
+    @Benchmark
+    public User createNewUser() {
+        return userService.createNewUser(userDto);
+    }
+
+    @Benchmark
+    public String changePassword() {
+        return userService.changePassword(changePassDto);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Role createRoleIfNotFound() {
+        return roleService.createRoleIfNotFound("ROLE_USER", privileges);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Privilege createPrivilegeIfNotFound() {
+        return privilegeService.createPrivilegeIfNotFound("READ_PRIVILEGE");
+    }
+}
@@ -0,0 +1,185 @@
+package com.bariscan.sigorta_hatirlatici.benchmark;
+
+import com.bariscan.sigorta_hatirlatici.OtomobilSigortaOdemeHatirlaticisiApplication;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserDto;
+import com.bariscan.sigorta_hatirlatici.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the packaged application in a fresh JVM. {@code readiness} is the time from
+ * launching the process until {@code /actuator/health} answers, which is when a pod starts taking
+ * traffic. {@code firstRequest} goes on to send one authenticated {@code GET /users} and requires
+ * a 200, so work that lazy initialization moved out of startup is counted too. The user it logs in
+ * as is created once per trial in an H2 file database that every launch opens.
+ * <p>
+ * {@code launch=jar} starts the repackaged jar with the default configuration,
+ * {@code launch=faststart} starts the layout of the {@code faststart} Maven profile with its
+ * class-data sharing archive and Spring profile. The paths come from {@code -Dstartup.jar} and
+ * {@code -Dstartup.faststart}, which the {@code benchmark} profile sets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final String EMAIL = "startup@test.com";
+    private static final String PASSWORD = "123456789";
+    private static final String AUTHORIZATION = "Basic " + Base64.getEncoder()
+            .encodeToString((EMAIL + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+
+    @Param({"jar", "faststart"})
+    private String launch;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private List<String> command;
+    private File workingDirectory;
+    private File output;
+    private int port;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        command = new ArrayList<>();
+        command.add(java);
+        if ("faststart".equals(launch)) {
+            workingDirectory = new File(System.getProperty("startup.faststart", "target/faststart"));
+            requireFile(new File(workingDirectory, "launch.args"), "run with -Pfaststart,benchmark");
+            command.add("@launch.args");
+        } else {
+            File jar = new File(System.getProperty("startup.jar", ""));
+            requireFile(jar, "run the benchmark profile through at least the package phase");
+            workingDirectory = jar.getAbsoluteFile().getParentFile();
+            command.add("-jar");
+            command.add(jar.getAbsolutePath());
+        }
+        File database = new File(workingDirectory, "startup-" + launch + "-db").getAbsoluteFile();
+        FileSystemUtils.deleteRecursively(database);
+        String url = "jdbc:h2:file:" + new File(database, "sigorta").getPath();
+        seedUser(url);
+        command.add("--spring.datasource.url=" + url);
+        command.add("--spring.datasource.username=sa");
+        command.add("--spring.datasource.password=");
+        command.add("--spring.jpa.database=h2");
+        command.add("--app.audit.file=startup-audit.log");
+        output = new File(workingDirectory, "startup-" + launch + ".log");
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+    }
+
+    @Benchmark
+    public int readiness() throws Exception {
+        return start();
+    }
+
+    @Benchmark
+    public int firstRequest() throws Exception {
+        start();
+        HttpRequest request = HttpRequest.newBuilder(uri("/users?size=1"))
+                .header("Authorization", AUTHORIZATION)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("First request answered " + status + ", see " + output);
+        }
+        return status;
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process == null) {
+            return;
+        }
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+        process = null;
+    }
+
+    private int start() throws Exception {
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        process = new ProcessBuilder(arguments)
+                .directory(workingDirectory)
+                .redirectErrorStream(true)
+                .redirectOutput(output)
+                .start();
+        HttpRequest health = HttpRequest.newBuilder(uri("/actuator/health"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + output);
+            }
+            try {
+                int status = client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    return status;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Application did not become ready within " + STARTUP_TIMEOUT + ", see " + output);
+    }
+
+    private void seedUser(String url) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OtomobilSigortaOdemeHatirlaticisiApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + url,
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.database=h2",
+                        "app.scheduling.enabled=false",
+                        "app.reminder.wheel.enabled=false",
+                        "app.audit.file=" + new File(workingDirectory, "startup-seed-audit.log").getPath())
+                .run()) {
+            context.getBean(UserService.class).createNewUser(UserDto.builder()
+                    .firstName("Startup")
+                    .lastName("Benchmark")
+                    .email(EMAIL)
+                    .password(PASSWORD)
+                    .build());
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static void requireFile(File file, String hint) {
+        if (!file.isFile()) {
+            throw new IllegalStateException(file + " does not exist, " + hint);
+        }
+    }
+}
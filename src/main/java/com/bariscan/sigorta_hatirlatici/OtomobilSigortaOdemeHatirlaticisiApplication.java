@@ -1,13 +1,24 @@
 package com.bariscan.sigorta_hatirlatici;
 
+import com.bariscan.sigorta_hatirlatici.service.RoleSeedService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.Bean;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class OtomobilSigortaOdemeHatirlaticisiApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(OtomobilSigortaOdemeHatirlaticisiApplication.class, args);
     }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.seed.enabled", havingValue = "true", matchIfMissing = true)
+    public CommandLineRunner roleSeeder(RoleSeedService roleSeedService) {
+        return args -> roleSeedService.seed();
+    }
 }
@@ -0,0 +1,43 @@
+package com.bariscan.sigorta_hatirlatici.audit;
+
+import lombok.Getter;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+
+import java.time.Instant;
+
+/**
+ * Audit record captured on the calling thread. The message template is only formatted by the
+ * background appender, so arguments must be immutable values (ids, emails, names), not entities.
+ */
+@Getter
+public final class AuditEvent {
+    private final long timestamp;
+    private final String action;
+    private final String template;
+    private final Object[] arguments;
+    private final boolean rolledBack;
+
+    public AuditEvent(long timestamp, String action, String template, Object[] arguments) {
+        this(timestamp, action, template, arguments, false);
+    }
+
+    private AuditEvent(long timestamp, String action, String template, Object[] arguments, boolean rolledBack) {
+        this.timestamp = timestamp;
+        this.action = action;
+        this.template = template;
+        this.arguments = arguments;
+        this.rolledBack = rolledBack;
+    }
+
+    public AuditEvent asRolledBack() {
+        return new AuditEvent(timestamp, action, template, arguments, true);
+    }
+
+    public void appendTo(StringBuilder line) {
+        line.append(Instant.ofEpochMilli(timestamp))
+                .append('\t').append(action)
+                .append('\t').append(rolledBack ? "ROLLED_BACK" : "OK")
+                .append('\t').append(ParameterizedMessage.format(template, arguments).replace('\n', ' '))
+                .append('\n');
+    }
+}
@@ -0,0 +1,143 @@
+package com.bariscan.sigorta_hatirlatici.audit;
+
+import com.bariscan.sigorta_hatirlatici.config.AuditProperties;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Non blocking audit trail for service mutations. Callers only allocate an {@link AuditEvent} and
+ * offer it to a lock-free ring buffer; a single background appender formats and writes batches to
+ * a rolling file. Events recorded inside a transaction are published when it completes and are
+ * marked when it rolls back. A full buffer drops events instead of stalling the caller.
+ */
+@Component
+@Log4j2
+public class AuditLog {
+    private final boolean enabled;
+    private final Clock clock;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final RollingAuditWriter writer;
+    private final int batchSize;
+    private final long idleWaitNanos;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Thread appender;
+    private volatile boolean running = true;
+
+    public AuditLog(AuditProperties properties, Clock clock) {
+        this.enabled = properties.isEnabled();
+        this.clock = clock;
+        this.batchSize = properties.getBatchSize();
+        this.idleWaitNanos = properties.getIdleWait().toNanos();
+        if (!enabled) {
+            this.buffer = null;
+            this.writer = null;
+            this.appender = null;
+            return;
+        }
+        this.buffer = new AuditRingBuffer<>(properties.getBufferSize());
+        try {
+            this.writer = new RollingAuditWriter(Path.of(properties.getFile()),
+                    properties.getMaxFileSize().toBytes(), properties.getMaxHistory(), properties.isDurable());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Audit file " + properties.getFile() + " could not be opened", e);
+        }
+        this.appender = new Thread(this::drain, "audit-appender");
+        this.appender.setDaemon(true);
+        this.appender.start();
+    }
+
+    public void record(String action, String template, Object... arguments) {
+        if (!enabled) {
+            return;
+        }
+        AuditEvent event = new AuditEvent(clock.millis(), action, template, arguments);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                publish(status == STATUS_COMMITTED ? event : event.asRolledBack());
+            }
+        });
+    }
+
+    public long writtenCount() {
+        return written.sum();
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public long failedCount() {
+        return failed.sum();
+    }
+
+    public int pendingCount() {
+        return enabled ? buffer.size() : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(appender);
+        try {
+            appender.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publish(AuditEvent event) {
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            AuditEvent event;
+            while (batch.size() < batchSize && (event = buffer.poll()) != null) {
+                batch.add(event);
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(idleWaitNanos);
+                continue;
+            }
+            try {
+                writer.write(batch);
+                written.add(batch.size());
+            } catch (IOException | RuntimeException e) {
+                failed.add(batch.size());
+                log.error("Writing {} audit events failed", batch.size(), e);
+            }
+            batch.clear();
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.error("Closing audit file failed", e);
+        }
+    }
+}
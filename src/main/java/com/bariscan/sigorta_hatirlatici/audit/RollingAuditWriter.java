@@ -0,0 +1,90 @@
+package com.bariscan.sigorta_hatirlatici.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends formatted audit batches to a local file and rolls it to {@code file.1 .. file.N} once it
+ * exceeds the size limit. In durable mode every batch is forced to disk before the next one.
+ */
+public class RollingAuditWriter implements Closeable {
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxHistory;
+    private final boolean durable;
+    private final StringBuilder line = new StringBuilder(256);
+    private FileChannel channel;
+    private long size;
+
+    public RollingAuditWriter(Path file, long maxFileSize, int maxHistory, boolean durable) throws IOException {
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.maxHistory = maxHistory;
+        this.durable = durable;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        open();
+    }
+
+    public void write(List<AuditEvent> events) throws IOException {
+        line.setLength(0);
+        for (AuditEvent event : events) {
+            event.appendTo(line);
+        }
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        if (size > 0 && size + bytes.length > maxFileSize) {
+            roll();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            size += channel.write(buffer);
+        }
+        if (durable) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (durable) {
+            channel.force(false);
+        }
+        channel.close();
+    }
+
+    private void roll() throws IOException {
+        channel.close();
+        if (maxHistory > 0) {
+            Files.deleteIfExists(history(maxHistory));
+            for (int i = maxHistory - 1; i >= 1; i--) {
+                Path source = history(i);
+                if (Files.exists(source)) {
+                    Files.move(source, history(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, history(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+        open();
+    }
+
+    private Path history(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+    }
+}
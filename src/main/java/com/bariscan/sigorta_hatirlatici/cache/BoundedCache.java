@@ -0,0 +1,90 @@
+package com.bariscan.sigorta_hatirlatici.cache;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Size bounded, thread safe key/value cache. When the size limit is exceeded an arbitrary
+ * set of entries is evicted (ConcurrentHashMap iteration order), which keeps puts lock free.
+ */
+public class BoundedCache<K, V> {
+    private final ConcurrentMap<K, V> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+    }
+
+    public Optional<V> get(K key) {
+        V value = entries.get(key);
+        if (value == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(value);
+    }
+
+    public Optional<V> getOrLoad(K key, Function<K, Optional<V>> loader) {
+        Optional<V> cached = get(key);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        Optional<V> loaded = loader.apply(key);
+        loaded.ifPresent(value -> put(key, value));
+        return loaded;
+    }
+
+    public void put(K key, V value) {
+        if (entries.put(key, value) == null && entries.size() > maxSize) {
+            evictOverflow();
+        }
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private void evictOverflow() {
+        Iterator<K> iterator = entries.keySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.bariscan.sigorta_hatirlatici.cache;
+
+public final class CacheRegions {
+    public static final String ROLE = "role";
+    public static final String ROLE_PRIVILEGES = "role.privileges";
+    public static final String PRIVILEGE = "privilege";
+    public static final String ROLE_BY_NAME = "query.roleByName";
+    public static final String PRIVILEGE_BY_NAME = "query.privilegeByName";
+    public static final String DEFAULT_QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private CacheRegions() {
+    }
+}
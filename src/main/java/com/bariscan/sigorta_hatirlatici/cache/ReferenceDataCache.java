@@ -0,0 +1,64 @@
+package com.bariscan.sigorta_hatirlatici.cache;
+
+import com.bariscan.sigorta_hatirlatici.entity.Privilege;
+import com.bariscan.sigorta_hatirlatici.entity.Role;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.function.Consumer;
+
+/**
+ * Explicit second level cache eviction for role and privilege deletes. Hibernate does not evict
+ * the inverse side of a many-to-many, so removing a privilege has to drop every cached
+ * {@code Role.privileges} collection. Evictions run immediately and again once the transaction
+ * completes, so a concurrent reader cannot re-cache the deleted row in between.
+ */
+@Component
+public class ReferenceDataCache {
+    private static final String ROLE_PRIVILEGES_COLLECTION = Role.class.getName() + ".privileges";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ReferenceDataCache(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void evictRole(Long roleId) {
+        evictNowAndAfterCompletion(cache -> {
+            cache.evictEntityData(Role.class, roleId);
+            cache.evictCollectionData(ROLE_PRIVILEGES_COLLECTION, roleId);
+            cache.evictQueryRegion(CacheRegions.ROLE_BY_NAME);
+        });
+    }
+
+    public void evictPrivilege(Long privilegeId) {
+        evictNowAndAfterCompletion(cache -> {
+            cache.evictEntityData(Privilege.class, privilegeId);
+            cache.evictCollectionData(ROLE_PRIVILEGES_COLLECTION);
+            cache.evictQueryRegion(CacheRegions.PRIVILEGE_BY_NAME);
+            cache.evictQueryRegion(CacheRegions.ROLE_BY_NAME);
+        });
+    }
+
+    public void evictAll() {
+        evictNowAndAfterCompletion(Cache::evictAllRegions);
+    }
+
+    private void evictNowAndAfterCompletion(Consumer<Cache> eviction) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        eviction.accept(cache);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                eviction.accept(cache);
+            }
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package com.bariscan.sigorta_hatirlatici.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Id, version and modification time of a row, read without hydrating the entity. Backs the
+ * ETag and Last-Modified headers of the read endpoints.
+ */
+@Getter
+@AllArgsConstructor
+public class VersionStamp {
+    private final Long id;
+    private final long version;
+    private final Instant updatedAt;
+
+    public String eTag() {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    public long lastModified() {
+        return updatedAt == null ? 0 : updatedAt.toEpochMilli();
+    }
+}
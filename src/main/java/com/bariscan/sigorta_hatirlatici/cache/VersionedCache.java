@@ -0,0 +1,57 @@
+package com.bariscan.sigorta_hatirlatici.cache;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Response cache keyed by entity id and version. Only the latest version seen for an id is kept,
+ * so a write never has to evict anything: the next read asks for the new version, misses and
+ * replaces the stale entry.
+ */
+public class VersionedCache<V> {
+    private final BoundedCache<Long, Entry<V>> entries;
+
+    public VersionedCache(int maxSize) {
+        this.entries = new BoundedCache<>(maxSize);
+    }
+
+    public Optional<V> get(Long id, long version) {
+        return entries.get(id)
+                .filter(entry -> entry.version == version)
+                .map(entry -> entry.value);
+    }
+
+    /**
+     * The version is usually read in an earlier transaction than the value, so a concurrent write
+     * can land in between. The loaded value is therefore cached under its own version, never under
+     * the requested one.
+     */
+    public V getOrLoad(Long id, long version, Supplier<V> loader, ToLongFunction<V> versionOf) {
+        Optional<V> cached = get(id, version);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        V loaded = loader.get();
+        entries.put(id, new Entry<>(versionOf.applyAsLong(loaded), loaded));
+        return loaded;
+    }
+
+    public void remove(Long id) {
+        entries.remove(id);
+    }
+
+    public BoundedCache<Long, ?> entries() {
+        return entries;
+    }
+
+    private static final class Entry<V> {
+        private final long version;
+        private final V value;
+
+        private Entry(long version, V value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.bariscan.sigorta_hatirlatici.changefeed;
+
+import com.bariscan.sigorta_hatirlatici.dto.changeDtos.ChangeEventDto;
+
+import java.io.IOException;
+
+/**
+ * Receives the events of one subscription in offset order, never from two threads at once.
+ */
+@FunctionalInterface
+public interface ChangeEventSink {
+    void send(ChangeEventDto event) throws IOException;
+}
@@ -0,0 +1,212 @@
+package com.bariscan.sigorta_hatirlatici.changefeed;
+
+import com.bariscan.sigorta_hatirlatici.config.ChangeFeedProperties;
+import com.bariscan.sigorta_hatirlatici.dto.changeDtos.ChangeEventDto;
+import com.bariscan.sigorta_hatirlatici.entity.ChangeEvent;
+import com.bariscan.sigorta_hatirlatici.exceptions.TooManyRequestsException;
+import com.bariscan.sigorta_hatirlatici.repository.ChangeEventRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tails the change event outbox and fans new events out to the subscriptions.
+ * <p>
+ * Offsets come from an identity column, so a transaction that commits late leaves a temporary
+ * hole behind events that are already visible. The relay stops at such a hole and only skips it
+ * after {@code gapTimeout}, which covers slow commits while rolled back inserts only delay the feed.
+ * <p>
+ * Every subscription has a bounded buffer. A subscriber that cannot keep up stops receiving live
+ * events once its buffer is full and reads the missed range from the outbox afterwards, so the
+ * relay never waits for a slow client. Buffers are drained by a small shared pool, one task per
+ * subscription at a time, instead of a thread per subscriber.
+ */
+@Component
+@Log4j2
+public class ChangeFeed {
+    private final ChangeEventRepository changeEventRepository;
+    private final ChangeFeedProperties properties;
+    private final Clock clock;
+    private final Executor drainExecutor;
+    private final Set<ChangeFeedSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock relayLock = new ReentrantLock();
+    private final LongAdder relayedCount = new LongAdder();
+    private final LongAdder overflowCount = new LongAdder();
+    private volatile long position = -1;
+    private long gapSeenAt;
+
+    @Autowired
+    public ChangeFeed(ChangeEventRepository changeEventRepository, ChangeFeedProperties properties, Clock clock) {
+        this(changeEventRepository, properties, clock, drainPool(properties.getDrainThreads()));
+    }
+
+    ChangeFeed(ChangeEventRepository changeEventRepository, ChangeFeedProperties properties, Clock clock,
+               Executor drainExecutor) {
+        this.changeEventRepository = changeEventRepository;
+        this.properties = properties;
+        this.clock = clock;
+        this.drainExecutor = drainExecutor;
+    }
+
+    /**
+     * Subscribes to every event after {@code afterOffset}, or to events from now on when it is null.
+     */
+    public ChangeFeedSubscription subscribe(Long afterOffset, ChangeEventSink sink) throws TooManyRequestsException {
+        if (subscriptions.size() >= properties.getMaxSubscribers()) {
+            throw new TooManyRequestsException("Too many change feed subscribers.");
+        }
+        long cursor = afterOffset != null ? afterOffset : currentPosition();
+        ChangeFeedSubscription subscription = new ChangeFeedSubscription(this, sink, cursor,
+                properties.getSubscriberBufferSize(), properties.getDrainBatchSize());
+        subscriptions.add(subscription);
+        subscription.signal();
+        return subscription;
+    }
+
+    public void unsubscribe(ChangeFeedSubscription subscription) {
+        if (subscriptions.remove(subscription)) {
+            subscription.close();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.change-feed.poll-interval-ms:500}")
+    public void relay() {
+        if (!relayLock.tryLock()) {
+            return;
+        }
+        try {
+            if (position < 0) {
+                position = changeEventRepository.findMaxId();
+                return;
+            }
+            List<ChangeEvent> events;
+            do {
+                events = changeEventRepository.findAfter(position, PageRequest.of(0, properties.getPageSize()));
+                for (ChangeEvent event : events) {
+                    if (event.getId() != position + 1 && !gapExpired(event.getId())) {
+                        return;
+                    }
+                    gapSeenAt = 0;
+                    ChangeEventDto dto = toDto(event);
+                    position = event.getId();
+                    for (ChangeFeedSubscription subscription : subscriptions) {
+                        subscription.offer(dto);
+                    }
+                    relayedCount.increment();
+                }
+            } while (events.size() == properties.getPageSize());
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.change-feed.purge-interval-ms:3600000}",
+            fixedDelayString = "${app.change-feed.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = changeEventRepository.deleteCreatedBefore(clock.instant().minus(properties.getRetention()));
+        log.debug("{} change events purged", purged);
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    public long relayedCount() {
+        return relayedCount.sum();
+    }
+
+    public long overflowCount() {
+        return overflowCount.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        new ArrayList<>(subscriptions).forEach(this::unsubscribe);
+        if (drainExecutor instanceof ExecutorService) {
+            ((ExecutorService) drainExecutor).shutdown();
+        }
+    }
+
+    List<ChangeEventDto> readRange(long after, long upTo, int limit) {
+        List<ChangeEvent> events = changeEventRepository.findRange(after, upTo, PageRequest.of(0, limit));
+        List<ChangeEventDto> dtos = new ArrayList<>(events.size());
+        for (ChangeEvent event : events) {
+            dtos.add(toDto(event));
+        }
+        return dtos;
+    }
+
+    void execute(Runnable drain) {
+        drainExecutor.execute(drain);
+    }
+
+    void overflowed() {
+        overflowCount.increment();
+    }
+
+    long currentPosition() {
+        if (position < 0) {
+            relayLock.lock();
+            try {
+                if (position < 0) {
+                    position = changeEventRepository.findMaxId();
+                }
+            } finally {
+                relayLock.unlock();
+            }
+        }
+        return position;
+    }
+
+    private boolean gapExpired(long nextId) {
+        long now = clock.millis();
+        if (gapSeenAt == 0) {
+            gapSeenAt = now;
+            return false;
+        }
+        if (now - gapSeenAt < properties.getGapTimeout().toMillis()) {
+            return false;
+        }
+        log.warn("Change event offsets {} to {} never committed, skipped", position + 1, nextId - 1);
+        return true;
+    }
+
+    private static ChangeEventDto toDto(ChangeEvent event) {
+        return ChangeEventDto.builder()
+                .offset(event.getId())
+                .aggregateType(event.getAggregateType())
+                .aggregateId(event.getAggregateId())
+                .type(event.getEventType())
+                .payload(event.getPayload())
+                .createdAt(event.getCreatedAt())
+                .build();
+    }
+
+    private static ExecutorService drainPool(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-drain-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,109 @@
+package com.bariscan.sigorta_hatirlatici.changefeed;
+
+import com.bariscan.sigorta_hatirlatici.dto.changeDtos.ChangeEventDto;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One subscriber of the {@link ChangeFeed}. The relay thread offers live events into a bounded
+ * buffer; once the buffer is full further events are dropped until the drain task has emptied it
+ * and read the dropped range back from the outbox. A new subscription starts in that catch-up
+ * state, which replays everything after the requested offset.
+ */
+@Log4j2
+public class ChangeFeedSubscription {
+    private final ChangeFeed feed;
+    private final ChangeEventSink sink;
+    private final BlockingQueue<ChangeEventDto> buffer;
+    private final int drainBatchSize;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean overflowed = true;
+    private volatile boolean closed;
+    // only touched by the drain task, which never runs twice at the same time
+    private long cursor;
+    private long catchUpTo = -1;
+
+    ChangeFeedSubscription(ChangeFeed feed, ChangeEventSink sink, long cursor, int bufferSize, int drainBatchSize) {
+        this.feed = feed;
+        this.sink = sink;
+        this.cursor = cursor;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.drainBatchSize = drainBatchSize;
+    }
+
+    void offer(ChangeEventDto event) {
+        if (!overflowed && !buffer.offer(event)) {
+            overflowed = true;
+            feed.overflowed();
+        }
+        signal();
+    }
+
+    void signal() {
+        if (closed || !scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            feed.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            scheduled.set(false);
+        }
+    }
+
+    void close() {
+        closed = true;
+        buffer.clear();
+    }
+
+    private void drain() {
+        boolean catchingUp = false;
+        try {
+            int sent = 0;
+            while (!closed && sent < drainBatchSize) {
+                if (catchUpTo >= 0) {
+                    List<ChangeEventDto> page = feed.readRange(cursor, catchUpTo, drainBatchSize);
+                    if (page.size() < drainBatchSize) {
+                        catchUpTo = -1;
+                    }
+                    for (ChangeEventDto event : page) {
+                        sent += send(event);
+                    }
+                    continue;
+                }
+                ChangeEventDto event = buffer.poll();
+                if (event != null) {
+                    sent += send(event);
+                } else if (overflowed) {
+                    // resume live delivery first, then replay everything the relay has passed so far
+                    overflowed = false;
+                    catchUpTo = feed.currentPosition();
+                } else {
+                    break;
+                }
+            }
+            catchingUp = catchUpTo >= 0;
+        } catch (Exception e) {
+            log.debug("Change feed subscriber dropped", e);
+            feed.unsubscribe(this);
+        } finally {
+            scheduled.set(false);
+        }
+        if (!closed && (catchingUp || overflowed || !buffer.isEmpty())) {
+            signal();
+        }
+    }
+
+    private int send(ChangeEventDto event) throws Exception {
+        if (event.getOffset() <= cursor) {
+            return 0;
+        }
+        sink.send(event);
+        cursor = event.getOffset();
+        return 1;
+    }
+}
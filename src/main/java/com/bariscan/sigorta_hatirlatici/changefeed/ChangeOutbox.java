@@ -0,0 +1,45 @@
+package com.bariscan.sigorta_hatirlatici.changefeed;
+
+import com.bariscan.sigorta_hatirlatici.entity.ChangeEvent;
+import com.bariscan.sigorta_hatirlatici.repository.ChangeEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+
+/**
+ * Writes change events to the outbox table. Callers must already be in the transaction of the
+ * change, so the event is committed or rolled back together with it.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeOutbox {
+    public static final String USER = "user";
+    public static final String ROLE = "role";
+    public static final String PRIVILEGE = "privilege";
+
+    private final ChangeEventRepository changeEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, Object aggregateId, String eventType, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Change event payload of " + eventType + " is not serializable", e);
+        }
+        changeEventRepository.save(ChangeEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(String.valueOf(aggregateId))
+                .eventType(eventType)
+                .payload(json)
+                .createdAt(clock.instant())
+                .build());
+    }
+}
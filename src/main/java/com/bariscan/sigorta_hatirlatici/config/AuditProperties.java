@@ -0,0 +1,22 @@
+package com.bariscan.sigorta_hatirlatici.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.audit")
+@Getter
+@Setter
+public class AuditProperties {
+    private boolean enabled = true;
+    private String file = "logs/audit.log";
+    private int bufferSize = 8_192;
+    private int batchSize = 512;
+    private DataSize maxFileSize = DataSize.ofMegabytes(10);
+    private int maxHistory = 5;
+    private boolean durable = false;
+    private Duration idleWait = Duration.ofMillis(5);
+}
@@ -0,0 +1,39 @@
+package com.bariscan.sigorta_hatirlatici.config;
+
+import com.bariscan.sigorta_hatirlatici.cache.BoundedCache;
+import com.bariscan.sigorta_hatirlatici.cache.VersionedCache;
+import com.bariscan.sigorta_hatirlatici.dto.roleDtos.RoleDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserProfileDto;
+import com.bariscan.sigorta_hatirlatici.entity.Privilege;
+import com.bariscan.sigorta_hatirlatici.entity.Role;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public BoundedCache<String, Role> roleNameCache(CacheProperties cacheProperties) {
+        return new BoundedCache<>(cacheProperties.getRoleNameMaxSize());
+    }
+
+    @Bean
+    public BoundedCache<String, Privilege> privilegeNameCache(CacheProperties cacheProperties) {
+        return new BoundedCache<>(cacheProperties.getPrivilegeNameMaxSize());
+    }
+
+    @Bean
+    public BoundedCache<String, Long> missingEmailCache(CacheProperties cacheProperties) {
+        return new BoundedCache<>(cacheProperties.getMissingEmailMaxSize());
+    }
+
+    @Bean
+    public VersionedCache<UserProfileDto> userProfileCache(CacheProperties cacheProperties) {
+        return new VersionedCache<>(cacheProperties.getUserProfileMaxSize());
+    }
+
+    @Bean
+    public VersionedCache<RoleDto> roleResponseCache(CacheProperties cacheProperties) {
+        return new VersionedCache<>(cacheProperties.getRoleResponseMaxSize());
+    }
+}
@@ -0,0 +1,30 @@
+package com.bariscan.sigorta_hatirlatici.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.cache")
+@Getter
+@Setter
+public class CacheProperties {
+    private int authorityMaxSize = 10_000;
+    private int roleNameMaxSize = 1_000;
+    private int privilegeNameMaxSize = 5_000;
+    private int missingEmailMaxSize = 10_000;
+    private Duration missingEmailTtl = Duration.ofMinutes(5);
+    private int userProfileMaxSize = 10_000;
+    private int roleResponseMaxSize = 1_000;
+    private SecondLevel secondLevel = new SecondLevel();
+
+    @Getter
+    @Setter
+    public static class SecondLevel {
+        private long entityMaxSize = 10_000;
+        private Duration entityTtl = Duration.ofHours(1);
+        private long queryMaxSize = 1_000;
+        private Duration queryTtl = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,21 @@
+package com.bariscan.sigorta_hatirlatici.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.change-feed")
+@Getter
+@Setter
+public class ChangeFeedProperties {
+    private int pageSize = 500;
+    private int subscriberBufferSize = 1_000;
+    private int maxSubscribers = 100;
+    private int drainThreads = 2;
+    private int drainBatchSize = 256;
+    private Duration gapTimeout = Duration.ofSeconds(10);
+    private Duration retention = Duration.ofDays(7);
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,59 @@
+package com.bariscan.sigorta_hatirlatici.config;
+
+import com.bariscan.sigorta_hatirlatici.cache.CacheRegions;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Caffeine backed JCache manager for the Hibernate second level cache. Regions are created up
+ * front so their size and TTL come from {@link CacheProperties}; the update timestamps region is
+ * never bounded because evicting it would let stale query results through.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(CacheProperties cacheProperties) {
+        CacheProperties.SecondLevel secondLevel = cacheProperties.getSecondLevel();
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        for (String region : new String[]{CacheRegions.ROLE, CacheRegions.ROLE_PRIVILEGES, CacheRegions.PRIVILEGE}) {
+            createIfAbsent(cacheManager, region, secondLevel.getEntityMaxSize(), secondLevel.getEntityTtl());
+        }
+        for (String region : new String[]{CacheRegions.ROLE_BY_NAME, CacheRegions.PRIVILEGE_BY_NAME,
+                CacheRegions.DEFAULT_QUERY_RESULTS}) {
+            createIfAbsent(cacheManager, region, secondLevel.getQueryMaxSize(), secondLevel.getQueryTtl());
+        }
+        createIfAbsent(cacheManager, CacheRegions.UPDATE_TIMESTAMPS, null, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private void createIfAbsent(CacheManager cacheManager, String region, Long maxSize, Duration ttl) {
+        if (cacheManager.getCache(region) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStatisticsEnabled(true);
+        if (maxSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        cacheManager.createCache(region, configuration);
+    }
+}
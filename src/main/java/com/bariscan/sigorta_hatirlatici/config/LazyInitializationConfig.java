@@ -0,0 +1,33 @@
+package com.bariscan.sigorta_hatirlatici.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+
+/**
+ * Keeps beans with {@link Scheduled} methods eager when {@code spring.main.lazy-initialization}
+ * is on (the {@code faststart} profile). Their schedules are only registered once the bean is
+ * created, so a lazy change feed relay, limiter sweep or reminder poll would never run.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && hasScheduledMethods(beanType);
+    }
+
+    static boolean hasScheduledMethods(Class<?> beanType) {
+        if (!AnnotationUtils.isCandidateClass(beanType, Scheduled.class)) {
+            return false;
+        }
+        return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                AnnotatedElementUtils.getMergedRepeatableAnnotations(method, Scheduled.class, Schedules.class).isEmpty()
+                        ? null : Boolean.TRUE).isEmpty();
+    }
+}
@@ -0,0 +1,14 @@
+package com.bariscan.sigorta_hatirlatici.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.security.hashing")
+@Getter
+@Setter
+public class PasswordHashingProperties {
+    private int bcryptStrength = 10;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 256;
+}
@@ -0,0 +1,13 @@
+package com.bariscan.sigorta_hatirlatici.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.query-budget")
+@Getter
+@Setter
+public class QueryBudgetProperties {
+    private boolean enabled = true;
+    private int maxStatementsPerRequest = 25;
+}
@@ -0,0 +1,31 @@
+package com.bariscan.sigorta_hatirlatici.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private int maxKeys = 100_000;
+    private Limit account = new Limit(10, Duration.ofMinutes(5));
+    private Limit client = new Limit(100, Duration.ofMinutes(1));
+
+    /**
+     * At most {@code permits} attempts back to back, refilled evenly over {@code period}.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private int permits;
+        private Duration period;
+    }
+}
@@ -0,0 +1,48 @@
+package com.bariscan.sigorta_hatirlatici.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalTime;
+
+@ConfigurationProperties(prefix = "app.reminder")
+@Getter
+@Setter
+public class ReminderProperties {
+    private int leadDays = 7;
+    private LocalTime sendTime = LocalTime.of(9, 0);
+    private int pageSize = 1_000;
+    private boolean enabled = true;
+    private int batchSize = 200;
+    private Duration claimTimeout = Duration.ofMinutes(10);
+    private int maxAttempts = 5;
+    private Duration retryBackoff = Duration.ofMinutes(5);
+    private int shardCount = 1;
+    private int shardIndex = 0;
+    private String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+    private Wheel wheel = new Wheel();
+    private Render render = new Render();
+
+    @Getter
+    @Setter
+    public static class Wheel {
+        private boolean enabled = true;
+        private Duration horizon = Duration.ofHours(6);
+        private Duration catchUpInterval = Duration.ofMinutes(15);
+        private long tickMillis = 100;
+        private int slotBits = 8;
+        private int levels = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class Render {
+        private String template = "mail/payment-reminder";
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int parallelThreshold = 64;
+        private int maxBufferChars = 64 * 1024;
+    }
+}
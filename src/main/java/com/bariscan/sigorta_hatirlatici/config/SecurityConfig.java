@@ -0,0 +1,47 @@
+package com.bariscan.sigorta_hatirlatici.config;
+
+import com.bariscan.sigorta_hatirlatici.ratelimit.ThrottledAuthenticationEntryPoint;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+
+@Configuration
+public class SecurityConfig {
+    public static final String MANAGE_ROLES_PRIVILEGE = "MANAGE_ROLES_PRIVILEGE";
+    public static final String MANAGE_USERS_PRIVILEGE = "MANAGE_USERS_PRIVILEGE";
+    public static final String READ_CHANGES_PRIVILEGE = "READ_CHANGES_PRIVILEGE";
+    /**
+     * POST endpoints for API clients that authenticate with basic auth on every request and never
+     * hold a CSRF token.
+     */
+    private static final String[] STATELESS_API_ROUTES = {"/users/roles/**", "/users/import"};
+
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties) {
+        return new BCryptPasswordEncoder(properties.getBcryptStrength());
+    }
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        BasicAuthenticationEntryPoint basicEntryPoint = new BasicAuthenticationEntryPoint();
+        basicEntryPoint.setRealmName("Realm");
+        http.authorizeRequests(requests -> requests
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
+                        .antMatchers("/users/roles/**").hasAuthority(MANAGE_ROLES_PRIVILEGE)
+                        .antMatchers("/users/import").hasAuthority(MANAGE_USERS_PRIVILEGE)
+                        .antMatchers("/changes/**").hasAuthority(READ_CHANGES_PRIVILEGE)
+                        .anyRequest().authenticated())
+                .csrf(csrf -> csrf.ignoringAntMatchers(STATELESS_API_ROUTES))
+                .formLogin(Customizer.withDefaults())
+                .httpBasic(basic -> basic.authenticationEntryPoint(new ThrottledAuthenticationEntryPoint(basicEntryPoint)));
+        return http.build();
+    }
+}
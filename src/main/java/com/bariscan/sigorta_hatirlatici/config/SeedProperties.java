@@ -0,0 +1,15 @@
+package com.bariscan.sigorta_hatirlatici.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.seed")
+@Getter
+@Setter
+public class SeedProperties {
+    private boolean enabled = true;
+    private String manifest = "classpath:seed/roles.json";
+    private int batchSize = 100;
+    private boolean prune = false;
+}
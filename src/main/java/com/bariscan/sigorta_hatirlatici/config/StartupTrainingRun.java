@@ -0,0 +1,81 @@
+package com.bariscan.sigorta_hatirlatici.config;
+
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserDto;
+import com.bariscan.sigorta_hatirlatici.service.UserService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Class-data sharing training run ({@code app.startup.training-run=true}, used by the
+ * {@code faststart} Maven profile): once the application is ready it creates a user, sends a health
+ * check and a request authenticated as that user to itself, so the classes of a real first request
+ * are part of the archive, and then exits. The exit code is non-zero unless every request answered
+ * 200, which fails the build instead of dumping an archive trained on error pages.
+ */
+@Component
+@ConditionalOnProperty(name = "app.startup.training-run", havingValue = "true")
+@Log4j2
+public class StartupTrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+    private static final List<String> PATHS = List.of("/actuator/health", "/users?size=1");
+    private static final String EMAIL = "training@test.com";
+    private static final String PASSWORD = "training-run";
+    private static final String AUTHORIZATION = "Basic " + Base64.getEncoder()
+            .encodeToString((EMAIL + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        context.getBean(UserService.class).createNewUser(UserDto.builder()
+                .firstName("Training")
+                .lastName("Run")
+                .email(EMAIL)
+                .password(PASSWORD)
+                .build());
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        int exitCode = 0;
+        for (String path : PATHS) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .header("Authorization", AUTHORIZATION)
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    log.info("Training request {} answered {}", path, status);
+                } else {
+                    log.error("Training request {} answered {} instead of 200", path, status);
+                    exitCode = 1;
+                }
+            } catch (IOException e) {
+                log.error("Training request {} failed", path, e);
+                exitCode = 1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exitCode = 1;
+                break;
+            }
+        }
+        log.info("Training run finished, exiting");
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
@@ -0,0 +1,14 @@
+package com.bariscan.sigorta_hatirlatici.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.user-import")
+@Getter
+@Setter
+public class UserImportProperties {
+    private int batchSize = 500;
+    private int hashingThreads = Runtime.getRuntime().availableProcessors();
+    private int hashingQueueCapacity = 1_000;
+}
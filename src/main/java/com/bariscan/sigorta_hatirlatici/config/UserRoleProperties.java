@@ -0,0 +1,12 @@
+package com.bariscan.sigorta_hatirlatici.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.user-roles")
+@Getter
+@Setter
+public class UserRoleProperties {
+    private int chunkSize = 1_000;
+}
@@ -0,0 +1,53 @@
+package com.bariscan.sigorta_hatirlatici.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in ({@code app.threads.virtual=true}, see the {@code virtual-threads} profile) execution
+ * mode that serves Tomcat requests and MVC async work such as streamed responses on virtual
+ * threads. The executor is looked up reflectively so the code base still compiles for Java 11;
+ * startup fails on a runtime without virtual threads. Bcrypt keeps running on the bounded platform
+ * pool of {@code PasswordHashingService} because it is CPU bound. The PostgreSQL driver before
+ * 42.6.0 runs every round trip in {@code synchronized} {@code QueryExecutorImpl} methods, which pins
+ * the carrier thread, so the {@code jdk21} Maven profile raises {@code postgresql.version}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("app.threads.virtual needs Java 21 or newer, running on "
+                    + Runtime.version(), e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean
+    public WebMvcConfigurer virtualThreadAsyncSupport(ExecutorService virtualThreadExecutor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(new TaskExecutorAdapter(virtualThreadExecutor));
+            }
+        };
+    }
+}
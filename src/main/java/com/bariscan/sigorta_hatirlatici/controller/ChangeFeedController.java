@@ -0,0 +1,49 @@
+package com.bariscan.sigorta_hatirlatici.controller;
+
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeFeed;
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeFeedSubscription;
+import com.bariscan.sigorta_hatirlatici.config.ChangeFeedProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Server-sent events stream of user, role and privilege changes. The event id is the feed offset;
+ * a client resumes with the standard {@code Last-Event-ID} header or the {@code after} parameter.
+ */
+@RestController
+@RequestMapping("/changes")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+    private final ChangeFeed changeFeed;
+    private final ChangeFeedProperties changeFeedProperties;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                             @RequestParam(value = "after", required = false) Long after) {
+        SseEmitter emitter = new SseEmitter(changeFeedProperties.getEmitterTimeout().toMillis());
+        ChangeFeedSubscription subscription = changeFeed.subscribe(lastEventId != null ? lastEventId : after,
+                event -> {
+                    try {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.getOffset()))
+                                .name(event.getType())
+                                .data(event, MediaType.APPLICATION_JSON));
+                    } catch (IOException e) {
+                        emitter.completeWithError(e);
+                        throw e;
+                    }
+                });
+        emitter.onCompletion(() -> changeFeed.unsubscribe(subscription));
+        emitter.onTimeout(() -> changeFeed.unsubscribe(subscription));
+        emitter.onError(error -> changeFeed.unsubscribe(subscription));
+        return emitter;
+    }
+}
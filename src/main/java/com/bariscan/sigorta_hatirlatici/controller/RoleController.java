@@ -0,0 +1,33 @@
+package com.bariscan.sigorta_hatirlatici.controller;
+
+import com.bariscan.sigorta_hatirlatici.cache.VersionStamp;
+import com.bariscan.sigorta_hatirlatici.dto.roleDtos.RoleDto;
+import com.bariscan.sigorta_hatirlatici.service.RoleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/roles")
+@RequiredArgsConstructor
+public class RoleController {
+    private final RoleService roleService;
+
+    @GetMapping("/{name}")
+    public ResponseEntity<RoleDto> getRole(@PathVariable String name, WebRequest request) {
+        VersionStamp stamp = roleService.findVersionStamp(name);
+        if (request.checkNotModified(stamp.eTag(), stamp.lastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(stamp.eTag())
+                .lastModified(stamp.lastModified())
+                .cacheControl(CacheControl.noCache())
+                .body(roleService.getRole(stamp));
+    }
+}
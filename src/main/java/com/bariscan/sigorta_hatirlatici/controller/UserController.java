@@ -0,0 +1,80 @@
+package com.bariscan.sigorta_hatirlatici.controller;
+
+import com.bariscan.sigorta_hatirlatici.cache.VersionStamp;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserPageDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserProfileDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserSortField;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserSummary;
+import com.bariscan.sigorta_hatirlatici.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/users")
+@RequiredArgsConstructor
+public class UserController {
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping
+    public UserPageDto listUsers(@RequestParam(defaultValue = "ID") UserSortField sort,
+                                 @RequestParam(required = false) String after,
+                                 @RequestParam(required = false) String email,
+                                 @RequestParam(defaultValue = "50") int size) {
+        return userService.listUsers(sort, after, email, size);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<UserProfileDto> getUser(@PathVariable Long id, WebRequest request) {
+        VersionStamp stamp = userService.findVersionStamp(id);
+        if (request.checkNotModified(stamp.eTag(), stamp.lastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(stamp.eTag())
+                .lastModified(stamp.lastModified())
+                .cacheControl(CacheControl.noCache())
+                .body(userService.getUserProfile(stamp));
+    }
+
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ID") UserSortField sort,
+                                                             @RequestParam(required = false) String email) {
+        StreamingResponseBody body = output -> {
+            Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            userService.forEachUserPage(sort, email, users -> {
+                try {
+                    for (UserSummary user : users) {
+                        writer.write(objectMapper.writeValueAsString(user));
+                        writer.write('\n');
+                    }
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON))
+                .body(body);
+    }
+}
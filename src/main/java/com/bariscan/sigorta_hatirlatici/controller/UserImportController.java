@@ -0,0 +1,56 @@
+package com.bariscan.sigorta_hatirlatici.controller;
+
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserImportFormat;
+import com.bariscan.sigorta_hatirlatici.service.UserImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/users")
+@RequiredArgsConstructor
+public class UserImportController {
+    private static final String TEXT_CSV = "text/csv";
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping(value = "/import", consumes = {TEXT_CSV, APPLICATION_NDJSON}, produces = APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> importUsers(@RequestHeader("Content-Type") MediaType contentType,
+                                                             HttpServletRequest request) throws IOException {
+        UserImportFormat format = contentType.isCompatibleWith(MediaType.parseMediaType(APPLICATION_NDJSON))
+                ? UserImportFormat.JSON_LINES
+                : UserImportFormat.CSV;
+        BufferedReader reader = request.getReader();
+        StreamingResponseBody body = output -> {
+            Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            userImportService.importUsers(reader, format, result -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(result));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON))
+                .body(body);
+    }
+}
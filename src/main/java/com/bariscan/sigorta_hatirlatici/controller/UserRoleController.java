@@ -0,0 +1,43 @@
+package com.bariscan.sigorta_hatirlatici.controller;
+
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.BulkRoleRequestDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.BulkRoleResultDto;
+import com.bariscan.sigorta_hatirlatici.exceptions.BadRequestException;
+import com.bariscan.sigorta_hatirlatici.service.UserRoleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping("/users/roles")
+@RequiredArgsConstructor
+public class UserRoleController {
+    private final UserRoleService userRoleService;
+
+    @PostMapping("/grant")
+    public BulkRoleResultDto grantRole(@Valid @RequestBody BulkRoleRequestDto request) {
+        return hasUserIds(request)
+                ? userRoleService.grantRole(request.getRoleId(), request.getUserIds())
+                : userRoleService.grantRoleByEmailPrefix(request.getRoleId(), request.getEmailPrefix());
+    }
+
+    @PostMapping("/revoke")
+    public BulkRoleResultDto revokeRole(@Valid @RequestBody BulkRoleRequestDto request) {
+        return hasUserIds(request)
+                ? userRoleService.revokeRole(request.getRoleId(), request.getUserIds())
+                : userRoleService.revokeRoleByEmailPrefix(request.getRoleId(), request.getEmailPrefix());
+    }
+
+    private static boolean hasUserIds(BulkRoleRequestDto request) {
+        boolean hasUserIds = request.getUserIds() != null && !request.getUserIds().isEmpty();
+        boolean hasEmailPrefix = request.getEmailPrefix() != null && !request.getEmailPrefix().isBlank();
+        if (hasUserIds == hasEmailPrefix) {
+            throw new BadRequestException("Either userIds or emailPrefix is required.");
+        }
+        return hasUserIds;
+    }
+}
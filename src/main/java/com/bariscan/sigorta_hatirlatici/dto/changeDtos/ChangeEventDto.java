@@ -0,0 +1,21 @@
+package com.bariscan.sigorta_hatirlatici.dto.changeDtos;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.*;
+
+import java.time.Instant;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ChangeEventDto {
+    private long offset;
+    private String aggregateType;
+    private String aggregateId;
+    private String type;
+    @JsonRawValue
+    private String payload;
+    private Instant createdAt;
+}
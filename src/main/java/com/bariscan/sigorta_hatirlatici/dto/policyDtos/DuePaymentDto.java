@@ -0,0 +1,23 @@
+package com.bariscan.sigorta_hatirlatici.dto.policyDtos;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class DuePaymentDto {
+    private Long paymentId;
+    private LocalDate dueDate;
+    private BigDecimal amount;
+    private Long policyId;
+    private String policyNumber;
+    private String plateNumber;
+    private Long userId;
+    private String email;
+    private String firstName;
+}
@@ -0,0 +1,34 @@
+package com.bariscan.sigorta_hatirlatici.dto.policyDtos;
+
+import lombok.*;
+
+import javax.validation.constraints.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Setter
+@Getter
+public class PolicyDto {
+    @NotBlank
+    @Size(max = 50)
+    private String policyNumber;
+    @NotBlank
+    @Size(max = 20)
+    private String plateNumber;
+    @NotBlank
+    @Size(max = 100)
+    private String insurer;
+    @NotNull
+    @Positive
+    private BigDecimal premium;
+    @NotNull
+    private LocalDate startDate;
+    @NotNull
+    private LocalDate endDate;
+    @Min(1)
+    @Max(12)
+    private int installments;
+}
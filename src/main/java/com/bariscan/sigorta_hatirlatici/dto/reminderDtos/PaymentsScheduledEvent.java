@@ -0,0 +1,13 @@
+package com.bariscan.sigorta_hatirlatici.dto.reminderDtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@AllArgsConstructor
+@Getter
+public class PaymentsScheduledEvent {
+    private final Map<Long, LocalDate> dueDates;
+}
@@ -0,0 +1,23 @@
+package com.bariscan.sigorta_hatirlatici.dto.reminderDtos;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ReminderMessage {
+    private String idempotencyKey;
+    private Long paymentId;
+    private Long userId;
+    private String email;
+    private String firstName;
+    private String policyNumber;
+    private String plateNumber;
+    private LocalDate dueDate;
+    private BigDecimal amount;
+}
@@ -0,0 +1,14 @@
+package com.bariscan.sigorta_hatirlatici.dto.roleDtos;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class DeleteResultDto {
+    private String name;
+    private boolean softDeleted;
+    private Long affected;
+}
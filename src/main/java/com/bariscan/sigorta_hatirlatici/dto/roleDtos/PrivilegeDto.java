@@ -0,0 +1,13 @@
+package com.bariscan.sigorta_hatirlatici.dto.roleDtos;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class PrivilegeDto {
+    private Long id;
+    private String name;
+}
@@ -0,0 +1,17 @@
+package com.bariscan.sigorta_hatirlatici.dto.roleDtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class RoleDto {
+    private Long id;
+    private String name;
+    private List<String> privileges;
+    private long version;
+}
@@ -0,0 +1,17 @@
+package com.bariscan.sigorta_hatirlatici.dto.seedDtos;
+
+import lombok.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class RoleManifestDto {
+    @Builder.Default
+    private Map<String, List<String>> roles = new LinkedHashMap<>();
+}
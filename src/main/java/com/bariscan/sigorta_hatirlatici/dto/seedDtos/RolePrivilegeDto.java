@@ -0,0 +1,14 @@
+package com.bariscan.sigorta_hatirlatici.dto.seedDtos;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+public class RolePrivilegeDto {
+    private Long roleId;
+    private Long privilegeId;
+}
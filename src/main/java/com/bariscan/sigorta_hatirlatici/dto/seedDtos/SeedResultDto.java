@@ -0,0 +1,16 @@
+package com.bariscan.sigorta_hatirlatici.dto.seedDtos;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class SeedResultDto {
+    private boolean skipped;
+    private int privilegesCreated;
+    private int rolesCreated;
+    private int grantsAdded;
+    private int grantsRemoved;
+}
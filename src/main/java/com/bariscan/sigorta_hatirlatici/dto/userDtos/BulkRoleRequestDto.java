@@ -0,0 +1,18 @@
+package com.bariscan.sigorta_hatirlatici.dto.userDtos;
+
+import lombok.*;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class BulkRoleRequestDto {
+    @NotNull
+    private Long roleId;
+    private List<Long> userIds;
+    private String emailPrefix;
+}
@@ -0,0 +1,13 @@
+package com.bariscan.sigorta_hatirlatici.dto.userDtos;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class BulkRoleResultDto {
+    private Long roleId;
+    private long changed;
+}
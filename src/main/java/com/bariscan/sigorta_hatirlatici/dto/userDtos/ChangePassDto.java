@@ -12,4 +12,5 @@ public class ChangePassDto {
     private String password;
     private String newPass;
     private String newPassAgain;
+    private Long version;
 }
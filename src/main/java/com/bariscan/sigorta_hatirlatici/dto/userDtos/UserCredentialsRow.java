@@ -0,0 +1,17 @@
+package com.bariscan.sigorta_hatirlatici.dto.userDtos;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class UserCredentialsRow {
+    private Long userId;
+    private String email;
+    private String password;
+    private boolean enabled;
+    private String roleName;
+    private String privilegeName;
+}
@@ -0,0 +1,6 @@
+package com.bariscan.sigorta_hatirlatici.dto.userDtos;
+
+public enum UserImportFormat {
+    CSV,
+    JSON_LINES
+}
@@ -0,0 +1,24 @@
+package com.bariscan.sigorta_hatirlatici.dto.userDtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class UserImportResultDto {
+    private long line;
+    private String email;
+    private Status status;
+    private Long userId;
+    private List<String> errors;
+
+    public enum Status {
+        IMPORTED,
+        INVALID,
+        DUPLICATE
+    }
+}
@@ -0,0 +1,14 @@
+package com.bariscan.sigorta_hatirlatici.dto.userDtos;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class UserImportSummaryDto {
+    private long total;
+    private long imported;
+    private long rejected;
+}
@@ -0,0 +1,15 @@
+package com.bariscan.sigorta_hatirlatici.dto.userDtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class UserPageDto {
+    private List<UserSummary> items;
+    private String nextCursor;
+}
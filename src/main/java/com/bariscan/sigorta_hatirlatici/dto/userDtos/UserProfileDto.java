@@ -0,0 +1,17 @@
+package com.bariscan.sigorta_hatirlatici.dto.userDtos;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class UserProfileDto {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private boolean enabled;
+    private long version;
+}
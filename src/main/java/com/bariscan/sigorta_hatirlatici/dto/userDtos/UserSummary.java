@@ -0,0 +1,13 @@
+package com.bariscan.sigorta_hatirlatici.dto.userDtos;
+
+public interface UserSummary {
+    Long getId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getEmail();
+
+    boolean isEnabled();
+}
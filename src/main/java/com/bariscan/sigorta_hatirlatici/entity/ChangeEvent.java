@@ -0,0 +1,29 @@
+package com.bariscan.sigorta_hatirlatici.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Outbox row written in the same transaction as the change it describes. The identity column is
+ * the offset of the change feed.
+ */
+@Entity
+@Table(name = "change_event")
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String aggregateType;
+    private String aggregateId;
+    private String eventType;
+    @Column(length = 4000)
+    private String payload;
+    private Instant createdAt;
+}
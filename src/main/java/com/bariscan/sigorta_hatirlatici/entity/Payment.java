@@ -0,0 +1,54 @@
+package com.bariscan.sigorta_hatirlatici.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+@Table(
+        indexes = {
+                @Index(name = "idx_payment_status_due_date", columnList = "status, due_date, id"),
+                @Index(name = "idx_payment_reminder_status_due_date", columnList = "reminder_status, due_date")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_payment_policy_due_date", columnNames = {"policy_id", "due_date"}))
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class Payment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_seq")
+    @SequenceGenerator(name = "payment_seq", sequenceName = "payment_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "policy_id")
+    private Policy policy;
+
+    @NotNull
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+    @NotNull
+    private BigDecimal amount;
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private PaymentStatus status;
+    private Instant paidAt;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reminder_status", nullable = false, length = 16)
+    @Builder.Default
+    private ReminderStatus reminderStatus = ReminderStatus.PENDING;
+    private String reminderClaimedBy;
+    private Instant reminderClaimedAt;
+    private Instant remindedAt;
+    private int reminderAttempts;
+    private Instant reminderRetryAt;
+}
@@ -0,0 +1,7 @@
+package com.bariscan.sigorta_hatirlatici.entity;
+
+public enum PaymentStatus {
+    PENDING,
+    PAID,
+    CANCELLED
+}
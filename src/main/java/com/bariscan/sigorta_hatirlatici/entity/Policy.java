@@ -0,0 +1,45 @@
+package com.bariscan.sigorta_hatirlatici.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Entity
+@Table(indexes = @Index(name = "idx_policy_user_id", columnList = "user_id"))
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class Policy {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "policy_seq")
+    @SequenceGenerator(name = "policy_seq", sequenceName = "policy_seq", allocationSize = 50)
+    private Long id;
+
+    @NotBlank
+    @Column(unique = true)
+    private String policyNumber;
+    @NotBlank
+    private String plateNumber;
+    @NotBlank
+    private String insurer;
+    @NotNull
+    private BigDecimal premium;
+    @NotNull
+    private LocalDate startDate;
+    @NotNull
+    private LocalDate endDate;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @OneToMany(mappedBy = "policy", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<Payment> payments;
+}
@@ -1,24 +1,34 @@
 package com.bariscan.sigorta_hatirlatici.entity;
 
+import com.bariscan.sigorta_hatirlatici.cache.CacheRegions;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Where;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
+import java.time.Instant;
 import java.util.Collection;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_privilege_name", columnNames = "name"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 @Getter
 @Setter
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRIVILEGE)
+@Where(clause = "deleted_at is null")
 public class Privilege {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "privilege_seq")
+    @SequenceGenerator(name = "privilege_seq", sequenceName = "privilege_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
     private String name;
+    private Instant deletedAt;
 
     @ManyToMany(mappedBy = "privileges")
     private Collection<Role> roles;
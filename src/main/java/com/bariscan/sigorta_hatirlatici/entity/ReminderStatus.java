@@ -0,0 +1,8 @@
+package com.bariscan.sigorta_hatirlatici.entity;
+
+public enum ReminderStatus {
+    PENDING,
+    CLAIMED,
+    SENT,
+    FAILED
+}
@@ -1,18 +1,26 @@
 package com.bariscan.sigorta_hatirlatici.entity;
 
+import com.bariscan.sigorta_hatirlatici.cache.CacheRegions;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Where;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.time.Instant;
 import java.util.Collection;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_role_name", columnNames = "name"))
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ROLE)
+@Where(clause = "deleted_at is null")
 public class Role {
 
     @Id
@@ -21,10 +29,15 @@ public class Role {
 
     @NotBlank
     private String name;
+    private Instant deletedAt;
+    @Version
+    private long version;
+    private Instant updatedAt;
     @ManyToMany(mappedBy = "roles")
     private Collection<User> users;
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ROLE_PRIVILEGES)
     @JoinTable(
             name = "roles_privileges",
             joinColumns = @JoinColumn(
@@ -32,4 +45,10 @@ public class Role {
             inverseJoinColumns = @JoinColumn(
                     name = "privilege_id", referencedColumnName = "id"))
     private Collection<Privilege> privileges;
+
+    @PrePersist
+    @PreUpdate
+    void beforeWrite() {
+        updatedAt = Instant.now();
+    }
 }
@@ -0,0 +1,22 @@
+package com.bariscan.sigorta_hatirlatici.entity;
+
+import lombok.*;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.Instant;
+
+@Entity
+@Table(name = "seed_state")
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SeedState {
+    @Id
+    private String name;
+    private String checksum;
+    private Instant appliedAt;
+}
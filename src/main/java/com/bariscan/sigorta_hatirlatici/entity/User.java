@@ -6,9 +6,12 @@ import javax.persistence.*;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
+import java.time.Instant;
 import java.util.Collection;
+import java.util.Locale;
 
 @Entity
+@Table(name = "users")
 @Getter
 @Setter
 @Builder
@@ -17,7 +20,8 @@ import java.util.Collection;
 @EqualsAndHashCode
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     private Long id;
     @NotBlank
     @Size(min = 2, max = 20)
@@ -30,12 +34,22 @@ public class User {
     @Size(max = 50)
     @Column(unique = true)
     private String email;
+    @Column(name = "email_key", unique = true, length = 50)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private String emailKey;
     @NotBlank
     private String password;
     private boolean enabled;
+    @Version
+    @EqualsAndHashCode.Exclude
+    private long version;
+    @EqualsAndHashCode.Exclude
+    private Instant updatedAt;
 
 
     @ManyToMany
+    @EqualsAndHashCode.Exclude
     @JoinTable(
             name = "users_roles",
             joinColumns = @JoinColumn(
@@ -44,4 +58,14 @@ public class User {
                     name = "role_id", referencedColumnName = "id"))
     private Collection<Role> roles;
 
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void beforeWrite() {
+        emailKey = normalizeEmail(email);
+        updatedAt = Instant.now();
+    }
 }
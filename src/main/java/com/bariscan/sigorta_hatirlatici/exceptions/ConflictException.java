@@ -0,0 +1,10 @@
+package com.bariscan.sigorta_hatirlatici.exceptions;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(org.springframework.http.HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,125 @@
+package com.bariscan.sigorta_hatirlatici.metrics;
+
+import com.bariscan.sigorta_hatirlatici.audit.AuditLog;
+import com.bariscan.sigorta_hatirlatici.cache.BoundedCache;
+import com.bariscan.sigorta_hatirlatici.cache.VersionedCache;
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeFeed;
+import com.bariscan.sigorta_hatirlatici.dto.roleDtos.RoleDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserProfileDto;
+import com.bariscan.sigorta_hatirlatici.entity.Privilege;
+import com.bariscan.sigorta_hatirlatici.entity.Role;
+import com.bariscan.sigorta_hatirlatici.ratelimit.AttemptRateLimiter;
+import com.bariscan.sigorta_hatirlatici.service.AuthorityService;
+import com.bariscan.sigorta_hatirlatici.service.PasswordHashingService;
+import com.bariscan.sigorta_hatirlatici.service.ReminderDispatchService;
+import com.bariscan.sigorta_hatirlatici.service.ReminderWheelScheduler;
+import com.bariscan.sigorta_hatirlatici.service.reminder.ReminderTemplateRenderer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class ApplicationMetrics implements MeterBinder {
+    private final PasswordHashingService passwordHashingService;
+    private final ReminderDispatchService reminderDispatchService;
+    private final ReminderTemplateRenderer reminderTemplateRenderer;
+    private final AuditLog auditLog;
+    private final ObjectProvider<ReminderWheelScheduler> reminderWheelScheduler;
+    private final AttemptRateLimiter attemptRateLimiter;
+    private final ChangeFeed changeFeed;
+    private final Map<String, BoundedCache<?, ?>> caches;
+
+    public ApplicationMetrics(PasswordHashingService passwordHashingService,
+                              ReminderDispatchService reminderDispatchService,
+                              ReminderTemplateRenderer reminderTemplateRenderer,
+                              AuditLog auditLog,
+                              ObjectProvider<ReminderWheelScheduler> reminderWheelScheduler,
+                              AuthorityService authorityService,
+                              BoundedCache<String, Role> roleNameCache,
+                              BoundedCache<String, Privilege> privilegeNameCache,
+                              BoundedCache<String, Long> missingEmailCache,
+                              VersionedCache<UserProfileDto> userProfileCache,
+                              VersionedCache<RoleDto> roleResponseCache,
+                              AttemptRateLimiter attemptRateLimiter,
+                              ChangeFeed changeFeed) {
+        this.passwordHashingService = passwordHashingService;
+        this.reminderDispatchService = reminderDispatchService;
+        this.reminderTemplateRenderer = reminderTemplateRenderer;
+        this.auditLog = auditLog;
+        this.reminderWheelScheduler = reminderWheelScheduler;
+        this.attemptRateLimiter = attemptRateLimiter;
+        this.changeFeed = changeFeed;
+        this.caches = Map.of(
+                "authority", authorityService.cache(),
+                "roleName", roleNameCache,
+                "privilegeName", privilegeNameCache,
+                "missingEmail", missingEmailCache,
+                "userProfile", userProfileCache.entries(),
+                "roleResponse", roleResponseCache.entries());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.hashing.queue.depth", passwordHashingService, PasswordHashingService::queueDepth)
+                .register(registry);
+        Gauge.builder("app.hashing.active", passwordHashingService, PasswordHashingService::activeCount)
+                .register(registry);
+        FunctionCounter.builder("app.hashing.hashes", passwordHashingService, PasswordHashingService::hashCount)
+                .register(registry);
+        FunctionCounter.builder("app.hashing.time", passwordHashingService,
+                        service -> service.totalHashNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                .baseUnit("seconds")
+                .register(registry);
+        FunctionCounter.builder("app.hashing.rejected", passwordHashingService, PasswordHashingService::rejectedCount)
+                .register(registry);
+
+        FunctionCounter.builder("app.reminder.sent", reminderDispatchService, ReminderDispatchService::sentCount)
+                .register(registry);
+        FunctionCounter.builder("app.reminder.failed", reminderDispatchService, ReminderDispatchService::failedCount)
+                .register(registry);
+        FunctionCounter.builder("app.reminder.batches", reminderDispatchService, ReminderDispatchService::batchCount)
+                .register(registry);
+        Gauge.builder("app.reminder.lag", reminderDispatchService, ReminderDispatchService::lastLagMillis)
+                .baseUnit("milliseconds")
+                .register(registry);
+        FunctionCounter.builder("app.reminder.rendered", reminderTemplateRenderer, ReminderTemplateRenderer::renderedCount)
+                .register(registry);
+        FunctionCounter.builder("app.reminder.render.failed", reminderTemplateRenderer, ReminderTemplateRenderer::failedCount)
+                .register(registry);
+        reminderWheelScheduler.ifAvailable(scheduler ->
+                Gauge.builder("app.reminder.wheel.pending", scheduler, ReminderWheelScheduler::pendingCount)
+                        .register(registry));
+
+        FunctionCounter.builder("app.audit.written", auditLog, AuditLog::writtenCount).register(registry);
+        FunctionCounter.builder("app.audit.dropped", auditLog, AuditLog::droppedCount).register(registry);
+        FunctionCounter.builder("app.audit.failed", auditLog, AuditLog::failedCount).register(registry);
+        Gauge.builder("app.audit.pending", auditLog, AuditLog::pendingCount).register(registry);
+
+        Gauge.builder("app.ratelimit.buckets", attemptRateLimiter, AttemptRateLimiter::size).register(registry);
+        FunctionCounter.builder("app.ratelimit.rejected", attemptRateLimiter, AttemptRateLimiter::rejectedCount)
+                .register(registry);
+        FunctionCounter.builder("app.ratelimit.evictions", attemptRateLimiter, AttemptRateLimiter::evictionCount)
+                .register(registry);
+
+        Gauge.builder("app.changefeed.subscribers", changeFeed, ChangeFeed::subscriberCount).register(registry);
+        Gauge.builder("app.changefeed.position", changeFeed, ChangeFeed::position).register(registry);
+        FunctionCounter.builder("app.changefeed.relayed", changeFeed, ChangeFeed::relayedCount).register(registry);
+        FunctionCounter.builder("app.changefeed.overflows", changeFeed, ChangeFeed::overflowCount).register(registry);
+
+        caches.forEach((name, cache) -> {
+            Gauge.builder("app.cache.size", cache, BoundedCache::size).tag("cache", name).register(registry);
+            FunctionCounter.builder("app.cache.gets", cache, BoundedCache::hitCount)
+                    .tag("cache", name).tag("result", "hit").register(registry);
+            FunctionCounter.builder("app.cache.gets", cache, BoundedCache::missCount)
+                    .tag("cache", name).tag("result", "miss").register(registry);
+            FunctionCounter.builder("app.cache.evictions", cache, BoundedCache::evictionCount)
+                    .tag("cache", name).register(registry);
+        });
+    }
+}
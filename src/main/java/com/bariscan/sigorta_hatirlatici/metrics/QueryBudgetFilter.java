@@ -0,0 +1,49 @@
+package com.bariscan.sigorta_hatirlatici.metrics;
+
+import com.bariscan.sigorta_hatirlatici.config.QueryBudgetProperties;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Logs a warning for every request that issues more SQL statements than
+ * {@code app.query-budget.max-statements-per-request}, with the stack trace of the first statement
+ * over the budget. Runs ahead of the security filters so credential lookups are counted too.
+ */
+@Component
+@Log4j2
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    private final QueryBudgetProperties queryBudgetProperties;
+
+    public QueryBudgetFilter(QueryBudgetProperties queryBudgetProperties) {
+        this.queryBudgetProperties = queryBudgetProperties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int budget = queryBudgetProperties.getMaxStatementsPerRequest();
+        long before = QueryCountingStatementInspector.currentCount();
+        QueryCountingStatementInspector.startBudget(budget);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Throwable trace = QueryCountingStatementInspector.endBudget();
+            if (trace != null) {
+                log.warn("{} {} issued {} SQL statements, budget is {}", request.getMethod(), request.getRequestURI(),
+                        QueryCountingStatementInspector.currentCount() - before, budget, trace);
+            }
+        }
+    }
+}
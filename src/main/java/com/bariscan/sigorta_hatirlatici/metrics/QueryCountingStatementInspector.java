@@ -0,0 +1,49 @@
+package com.bariscan.sigorta_hatirlatici.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread. Registered through
+ * {@code hibernate.session_factory.statement_inspector}, so Hibernate creates the instance and
+ * the counter has to live in a static thread local.
+ * <p>
+ * A budget can be opened for a unit of work with {@link #startBudget(long)}. The first statement
+ * past the budget captures its stack trace, which points at the lazy load or loop that caused it;
+ * {@link #endBudget()} hands that trace back and closes the budget.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+    private static final ThreadLocal<Counter> COUNTER = ThreadLocal.withInitial(Counter::new);
+
+    @Override
+    public String inspect(String sql) {
+        Counter counter = COUNTER.get();
+        if (++counter.count == counter.overBudgetAt) {
+            counter.overBudgetTrace = new Throwable("First SQL statement over budget: " + sql);
+        }
+        return sql;
+    }
+
+    public static long currentCount() {
+        return COUNTER.get().count;
+    }
+
+    public static void startBudget(long budget) {
+        Counter counter = COUNTER.get();
+        counter.overBudgetAt = counter.count + budget + 1;
+        counter.overBudgetTrace = null;
+    }
+
+    public static Throwable endBudget() {
+        Counter counter = COUNTER.get();
+        Throwable trace = counter.overBudgetTrace;
+        counter.overBudgetAt = 0;
+        counter.overBudgetTrace = null;
+        return trace;
+    }
+
+    private static final class Counter {
+        private long count;
+        private long overBudgetAt;
+        private Throwable overBudgetTrace;
+    }
+}
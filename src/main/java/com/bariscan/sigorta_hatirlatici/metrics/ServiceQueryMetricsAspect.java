@@ -0,0 +1,50 @@
+package com.bariscan.sigorta_hatirlatici.metrics;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Records how many SQL statements each {@link Timed} service method issued, including the ones
+ * flushed on commit, as the {@code <timer name>.queries} distribution summary. It runs outside the
+ * transaction advice but inside Spring's {@code ExposeInvocationInterceptor}
+ * ({@code HIGHEST_PRECEDENCE + 1}), which has to come first for the {@code timed} argument binding.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class ServiceQueryMetricsAspect {
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public ServiceQueryMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(timed)")
+    public Object countQueries(ProceedingJoinPoint joinPoint, Timed timed) throws Throwable {
+        long before = QueryCountingStatementInspector.currentCount();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            summaries.computeIfAbsent(method, key -> DistributionSummary.builder(timed.value() + ".queries")
+                            .description("SQL statements issued per call")
+                            .tag("class", key.getDeclaringClass().getSimpleName())
+                            .tag("method", key.getName())
+                            .register(meterRegistry))
+                    .record(QueryCountingStatementInspector.currentCount() - before);
+        }
+    }
+}
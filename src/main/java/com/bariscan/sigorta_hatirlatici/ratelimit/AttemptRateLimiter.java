@@ -0,0 +1,122 @@
+package com.bariscan.sigorta_hatirlatici.ratelimit;
+
+import com.bariscan.sigorta_hatirlatici.config.RateLimitProperties;
+import com.bariscan.sigorta_hatirlatici.entity.User;
+import com.bariscan.sigorta_hatirlatici.exceptions.TooManyRequestsException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+
+/**
+ * Throttles password attempts before any database access or hashing. A password change costs one
+ * permit from the bucket of the calling client IP and one from the bucket of the account id. Logins
+ * only check the client and email buckets up front; permits are spent when the login fails with bad
+ * credentials, so API clients that authenticate on every request are never throttled. The client IP
+ * is the remote address of the current request ({@code server.forward-headers-strategy} decides
+ * whether proxy headers are trusted); calls outside a request are only limited per account.
+ */
+@Component
+@Log4j2
+public class AttemptRateLimiter {
+    private final boolean enabled;
+    private final TokenBucketLimiter<Long> accountIds;
+    private final TokenBucketLimiter<String> emails;
+    private final TokenBucketLimiter<String> clients;
+
+    public AttemptRateLimiter(RateLimitProperties properties, Clock clock) {
+        this.enabled = properties.isEnabled();
+        RateLimitProperties.Limit account = properties.getAccount();
+        RateLimitProperties.Limit client = properties.getClient();
+        this.accountIds = new TokenBucketLimiter<>(account.getPermits(), account.getPeriod(), properties.getMaxKeys(), clock::millis);
+        this.emails = new TokenBucketLimiter<>(account.getPermits(), account.getPeriod(), properties.getMaxKeys(), clock::millis);
+        this.clients = new TokenBucketLimiter<>(client.getPermits(), client.getPeriod(), properties.getMaxKeys(), clock::millis);
+    }
+
+    public void acquirePasswordAttempt(Long userId) throws TooManyRequestsException {
+        if (!enabled) {
+            return;
+        }
+        acquireClient();
+        if (userId != null && !accountIds.tryAcquire(userId)) {
+            log.debug("Password attempts for user {} throttled", userId);
+            throw new TooManyRequestsException("Too many password attempts, try again later.");
+        }
+    }
+
+    public void checkLogin(String emailKey) throws TooManyRequestsException {
+        if (!enabled) {
+            return;
+        }
+        String clientIp = currentClientIp();
+        if (clientIp != null && clients.isLimited(clientIp)) {
+            log.debug("Login attempts from {} throttled", clientIp);
+            throw new TooManyRequestsException("Too many attempts from this address, try again later.");
+        }
+        if (emails.isLimited(emailKey)) {
+            log.debug("Login attempts for {} throttled", emailKey);
+            throw new TooManyRequestsException("Too many login attempts, try again later.");
+        }
+    }
+
+    public void recordLoginFailure(String emailKey) {
+        if (!enabled || emailKey == null || emailKey.isEmpty()) {
+            return;
+        }
+        String clientIp = currentClientIp();
+        if (clientIp != null) {
+            clients.tryAcquire(clientIp);
+        }
+        emails.tryAcquire(emailKey);
+    }
+
+    @EventListener
+    public void onBadCredentials(AuthenticationFailureBadCredentialsEvent event) {
+        Object principal = event.getAuthentication().getPrincipal();
+        if (principal instanceof String) {
+            recordLoginFailure(User.normalizeEmail((String) principal));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.rate-limit.sweep-interval-ms:60000}",
+            fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void sweep() {
+        accountIds.sweep();
+        emails.sweep();
+        clients.sweep();
+    }
+
+    public int size() {
+        return accountIds.size() + emails.size() + clients.size();
+    }
+
+    public long rejectedCount() {
+        return accountIds.rejectedCount() + emails.rejectedCount() + clients.rejectedCount();
+    }
+
+    public long evictionCount() {
+        return accountIds.evictionCount() + emails.evictionCount() + clients.evictionCount();
+    }
+
+    private void acquireClient() {
+        String clientIp = currentClientIp();
+        if (clientIp != null && !clients.tryAcquire(clientIp)) {
+            log.debug("Password attempts from {} throttled", clientIp);
+            throw new TooManyRequestsException("Too many attempts from this address, try again later.");
+        }
+    }
+
+    private static String currentClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            return ((ServletRequestAttributes) attributes).getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bariscan.sigorta_hatirlatici.ratelimit;
+
+import com.bariscan.sigorta_hatirlatici.exceptions.TooManyRequestsException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Answers logins rejected by {@link AttemptRateLimiter} with 429 instead of a new credentials
+ * challenge. The authentication provider wraps the rejection, so it is recognised by its cause.
+ */
+public class ThrottledAuthenticationEntryPoint implements AuthenticationEntryPoint {
+    private final AuthenticationEntryPoint delegate;
+
+    public ThrottledAuthenticationEntryPoint(AuthenticationEntryPoint delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void commence(HttpServletRequest request, HttpServletResponse response,
+                         AuthenticationException authException) throws IOException, ServletException {
+        if (authException != null && authException.getCause() instanceof TooManyRequestsException) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+        delegate.commence(request, response, authException);
+    }
+}
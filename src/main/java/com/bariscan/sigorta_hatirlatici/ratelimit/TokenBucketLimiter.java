@@ -0,0 +1,138 @@
+package com.bariscan.sigorta_hatirlatici.ratelimit;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock free token buckets, one per key. Each bucket is a single {@link AtomicLong} holding the
+ * time at which it will be full again (the generic cell rate algorithm), so an attempt is one read
+ * and one compare-and-set with no refill bookkeeping.
+ * <p>
+ * A bucket whose refill time has passed behaves exactly like a missing one and is dropped by
+ * {@link #sweep()}. When more than {@code maxKeys} buckets exist, the inserting thread evicts refilled
+ * buckets first and then arbitrary ones until a tenth of the capacity is free again; evicting a
+ * bucket that is still draining forgives its remaining debt, which bounds memory under a flood of
+ * distinct keys at the cost of some accuracy.
+ */
+public class TokenBucketLimiter<K> {
+    private final ConcurrentMap<K, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long intervalMillis;
+    private final long toleranceMillis;
+    private final int maxKeys;
+    private final int evictTo;
+    private final LongSupplier millis;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TokenBucketLimiter(int permits, Duration period, int maxKeys, LongSupplier millis) {
+        if (permits < 1 || maxKeys < 1) {
+            throw new IllegalArgumentException("permits and maxKeys must be positive");
+        }
+        this.intervalMillis = Math.max(1, period.toMillis() / permits);
+        this.toleranceMillis = intervalMillis * (permits - 1);
+        this.maxKeys = maxKeys;
+        this.evictTo = maxKeys - maxKeys / 10;
+        this.millis = millis;
+    }
+
+    /**
+     * Takes one permit from the bucket of {@code key}.
+     *
+     * @return false when the bucket is empty; nothing is taken in that case
+     */
+    public boolean tryAcquire(K key) {
+        long now = millis.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            AtomicLong created = new AtomicLong(now);
+            bucket = buckets.putIfAbsent(key, created);
+            if (bucket == null) {
+                bucket = created;
+                if (buckets.size() > maxKeys) {
+                    evictOverflow(now);
+                }
+            }
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long start = Math.max(fullAt, now);
+            if (start - now > toleranceMillis) {
+                rejected.increment();
+                return false;
+            }
+            if (bucket.compareAndSet(fullAt, start + intervalMillis)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Tells whether {@link #tryAcquire} would be refused for {@code key} right now, without taking
+     * a permit or creating a bucket.
+     */
+    public boolean isLimited(K key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            return false;
+        }
+        long now = millis.getAsLong();
+        if (Math.max(bucket.get(), now) - now > toleranceMillis) {
+            rejected.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Drops every bucket that has refilled completely.
+     */
+    public void sweep() {
+        long now = millis.getAsLong();
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() <= now);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private void evictOverflow(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            evict(now, true);
+            if (buckets.size() > evictTo) {
+                evict(now, false);
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private void evict(long now, boolean refilledOnly) {
+        Iterator<Map.Entry<K, AtomicLong>> iterator = buckets.entrySet().iterator();
+        while (buckets.size() > evictTo && iterator.hasNext()) {
+            Map.Entry<K, AtomicLong> entry = iterator.next();
+            if (!refilledOnly || entry.getValue().get() <= now) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+}
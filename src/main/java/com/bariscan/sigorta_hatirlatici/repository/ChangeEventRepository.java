@@ -0,0 +1,31 @@
+package com.bariscan.sigorta_hatirlatici.repository;
+
+import com.bariscan.sigorta_hatirlatici.entity.ChangeEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long> {
+
+    @Query("select coalesce(max(e.id), 0) from ChangeEvent e")
+    long findMaxId();
+
+    @Query("select e from ChangeEvent e where e.id > :after order by e.id")
+    List<ChangeEvent> findAfter(@Param("after") long after, Pageable pageable);
+
+    @Query("select e from ChangeEvent e where e.id > :after and e.id <= :upTo order by e.id")
+    List<ChangeEvent> findRange(@Param("after") long after, @Param("upTo") long upTo, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ChangeEvent e where e.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,110 @@
+package com.bariscan.sigorta_hatirlatici.repository;
+
+import com.bariscan.sigorta_hatirlatici.dto.policyDtos.DuePaymentDto;
+import com.bariscan.sigorta_hatirlatici.entity.Payment;
+import com.bariscan.sigorta_hatirlatici.entity.PaymentStatus;
+import com.bariscan.sigorta_hatirlatici.entity.ReminderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentRepository extends JpaRepository<Payment,Long> {
+
+    @Query("select new com.bariscan.sigorta_hatirlatici.dto.policyDtos.DuePaymentDto(" +
+            "p.id, p.dueDate, p.amount, po.id, po.policyNumber, po.plateNumber, u.id, u.email, u.firstName) " +
+            "from Payment p join p.policy po join po.user u " +
+            "where p.status = :status and p.dueDate >= :from and p.dueDate <= :until " +
+            "order by p.dueDate, p.id")
+    List<DuePaymentDto> findFirstDuePage(@Param("status") PaymentStatus status,
+                                         @Param("from") LocalDate from,
+                                         @Param("until") LocalDate until,
+                                         Pageable pageable);
+
+    @Query("select new com.bariscan.sigorta_hatirlatici.dto.policyDtos.DuePaymentDto(" +
+            "p.id, p.dueDate, p.amount, po.id, po.policyNumber, po.plateNumber, u.id, u.email, u.firstName) " +
+            "from Payment p join p.policy po join po.user u " +
+            "where p.status = :status and p.dueDate <= :until " +
+            "and (p.dueDate > :afterDueDate or (p.dueDate = :afterDueDate and p.id > :afterId)) " +
+            "order by p.dueDate, p.id")
+    List<DuePaymentDto> findDuePage(@Param("status") PaymentStatus status,
+                                    @Param("afterDueDate") LocalDate afterDueDate,
+                                    @Param("afterId") Long afterId,
+                                    @Param("until") LocalDate until,
+                                    Pageable pageable);
+
+    @Query("select new com.bariscan.sigorta_hatirlatici.dto.policyDtos.DuePaymentDto(" +
+            "p.id, p.dueDate, p.amount, po.id, po.policyNumber, po.plateNumber, u.id, u.email, u.firstName) " +
+            "from Payment p join p.policy po join po.user u " +
+            "where p.id in :ids order by p.dueDate, p.id")
+    List<DuePaymentDto> findDuePaymentsByIds(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("select p from Payment p " +
+            "where p.status = :status and p.dueDate <= :until and mod(p.id, :shardCount) = :shardIndex " +
+            "and ((p.reminderStatus = :pending and (p.reminderRetryAt is null or p.reminderRetryAt <= :now)) " +
+            "or (p.reminderStatus = :claimed and p.reminderClaimedAt < :staleBefore)) " +
+            "order by p.dueDate, p.id")
+    List<Payment> findClaimableReminders(@Param("status") PaymentStatus status,
+                                         @Param("until") LocalDate until,
+                                         @Param("shardCount") int shardCount,
+                                         @Param("shardIndex") int shardIndex,
+                                         @Param("pending") ReminderStatus pending,
+                                         @Param("claimed") ReminderStatus claimed,
+                                         @Param("now") Instant now,
+                                         @Param("staleBefore") Instant staleBefore,
+                                         Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("select p from Payment p " +
+            "where p.id in :ids and p.status = :status " +
+            "and ((p.reminderStatus = :pending and (p.reminderRetryAt is null or p.reminderRetryAt <= :now)) " +
+            "or (p.reminderStatus = :claimed and p.reminderClaimedAt < :staleBefore))")
+    List<Payment> findClaimableRemindersByIds(@Param("ids") Collection<Long> ids,
+                                              @Param("status") PaymentStatus status,
+                                              @Param("pending") ReminderStatus pending,
+                                              @Param("claimed") ReminderStatus claimed,
+                                              @Param("now") Instant now,
+                                              @Param("staleBefore") Instant staleBefore);
+
+    @Modifying
+    @Query("update Payment p set p.reminderStatus = :sent, p.remindedAt = :sentAt " +
+            "where p.id in :ids and p.reminderStatus = :claimed and p.reminderClaimedBy = :nodeId")
+    int markRemindersSent(@Param("ids") Collection<Long> ids,
+                          @Param("nodeId") String nodeId,
+                          @Param("sentAt") Instant sentAt,
+                          @Param("claimed") ReminderStatus claimed,
+                          @Param("sent") ReminderStatus sent);
+
+    @Modifying
+    @Query("update Payment p set p.reminderAttempts = p.reminderAttempts + 1, p.reminderStatus = :pending, " +
+            "p.reminderClaimedBy = null, p.reminderClaimedAt = null, p.reminderRetryAt = :retryAt " +
+            "where p.id in :ids and p.reminderStatus = :claimed and p.reminderClaimedBy = :nodeId")
+    int releaseReminders(@Param("ids") Collection<Long> ids,
+                         @Param("nodeId") String nodeId,
+                         @Param("retryAt") Instant retryAt,
+                         @Param("claimed") ReminderStatus claimed,
+                         @Param("pending") ReminderStatus pending);
+
+    @Modifying
+    @Query("update Payment p set p.reminderStatus = :failed " +
+            "where p.id in :ids and p.reminderStatus = :pending and p.reminderAttempts >= :maxAttempts")
+    int markRemindersFailed(@Param("ids") Collection<Long> ids,
+                            @Param("maxAttempts") int maxAttempts,
+                            @Param("pending") ReminderStatus pending,
+                            @Param("failed") ReminderStatus failed);
+}
@@ -0,0 +1,12 @@
+package com.bariscan.sigorta_hatirlatici.repository;
+
+import com.bariscan.sigorta_hatirlatici.entity.Policy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PolicyRepository extends JpaRepository<Policy,Long> {
+    Optional<Policy> findByPolicyNumber(String policyNumber);
+}
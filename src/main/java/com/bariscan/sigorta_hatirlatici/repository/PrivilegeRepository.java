@@ -1,12 +1,56 @@
 package com.bariscan.sigorta_hatirlatici.repository;
 
+import com.bariscan.sigorta_hatirlatici.cache.CacheRegions;
+import com.bariscan.sigorta_hatirlatici.dto.seedDtos.NameIdDto;
 import com.bariscan.sigorta_hatirlatici.entity.Privilege;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PrivilegeRepository extends JpaRepository<Privilege,Long> {
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = CacheRegions.PRIVILEGE_BY_NAME)})
     Optional<Privilege> findByName(String name);
+
+    @Query("select p from Privilege p where p.name = :name")
+    Optional<Privilege> findUncachedByName(@Param("name") String name);
+
+    List<Privilege> findByNameIn(Collection<String> names);
+
+    @Query("select new com.bariscan.sigorta_hatirlatici.dto.seedDtos.NameIdDto(p.id, p.name) "
+            + "from Privilege p where p.name in :names")
+    List<NameIdDto> findIdsByNameIn(@Param("names") Collection<String> names);
+
+    @Query("select p.id from Privilege p where p.name = :name")
+    Optional<Long> findIdByName(@Param("name") String name);
+
+    @Query(value = "select id from privilege where deleted_at is not null", nativeQuery = true)
+    List<Long> findSoftDeletedIds();
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Privilege p set p.deletedAt = current_timestamp, p.name = concat(p.name, :suffix) where p.id = :id")
+    int softDeleteById(@Param("id") Long id, @Param("suffix") String suffix);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update role set version = version + 1, updated_at = current_timestamp where id in "
+            + "(select role_id from roles_privileges where privilege_id = :privilegeId)", nativeQuery = true)
+    int incrementGrantingRoleVersions(@Param("privilegeId") Long privilegeId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from roles_privileges where privilege_id = :privilegeId", nativeQuery = true)
+    int deleteRoleGrantsByPrivilegeId(@Param("privilegeId") Long privilegeId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from privilege where id = :id", nativeQuery = true)
+    int deleteRowById(@Param("id") Long id);
 }
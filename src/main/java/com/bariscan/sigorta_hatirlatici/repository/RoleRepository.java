@@ -1,12 +1,85 @@
 package com.bariscan.sigorta_hatirlatici.repository;
 
+import com.bariscan.sigorta_hatirlatici.cache.CacheRegions;
+import com.bariscan.sigorta_hatirlatici.cache.VersionStamp;
+import com.bariscan.sigorta_hatirlatici.dto.seedDtos.NameIdDto;
+import com.bariscan.sigorta_hatirlatici.dto.seedDtos.RolePrivilegeDto;
+import com.bariscan.sigorta_hatirlatici.dto.seedDtos.RolePrivilegeNameDto;
 import com.bariscan.sigorta_hatirlatici.entity.Role;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role,Long> {
+    @EntityGraph(attributePaths = "privileges")
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = CacheRegions.ROLE_BY_NAME)})
     Optional<Role> findByName(String name);
+
+    @Query("select r from Role r left join fetch r.privileges where r.name = :name")
+    Optional<Role> findUncachedByName(@Param("name") String name);
+
+    @Query("select r from Role r left join fetch r.privileges where r.id = :id")
+    Optional<Role> findWithPrivilegesById(@Param("id") Long id);
+
+    @Query("select distinct r from Role r left join fetch r.privileges")
+    List<Role> findAllWithPrivileges();
+
+    @Query("select new com.bariscan.sigorta_hatirlatici.dto.seedDtos.NameIdDto(r.id, r.name) "
+            + "from Role r where r.name in :names")
+    List<NameIdDto> findIdsByNameIn(@Param("names") Collection<String> names);
+
+    @Query("select new com.bariscan.sigorta_hatirlatici.dto.seedDtos.RolePrivilegeDto(r.id, p.id) "
+            + "from Role r join r.privileges p where r.id in :roleIds")
+    List<RolePrivilegeDto> findGrantsByRoleIdIn(@Param("roleIds") Collection<Long> roleIds);
+
+    @Query("select new com.bariscan.sigorta_hatirlatici.dto.seedDtos.RolePrivilegeNameDto(r.name, p.name) "
+            + "from Role r left join r.privileges p where r.name in :names")
+    List<RolePrivilegeNameDto> findGrantNamesByRoleNameIn(@Param("names") Collection<String> names);
+
+    @Query("select r.id from Role r where r.name = :name")
+    Optional<Long> findIdByName(@Param("name") String name);
+
+    @Query("select new com.bariscan.sigorta_hatirlatici.cache.VersionStamp(r.id, r.version, r.updatedAt) "
+            + "from Role r where r.name = :name")
+    Optional<VersionStamp> findVersionStampByName(@Param("name") String name);
+
+    @Query("select new com.bariscan.sigorta_hatirlatici.cache.VersionStamp(r.id, r.version, r.updatedAt) "
+            + "from Role r where r.id in :ids")
+    List<VersionStamp> findVersionStampsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Role r set r.version = r.version + 1, r.updatedAt = current_timestamp where r.id in :ids")
+    int incrementVersions(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select id from role where deleted_at is not null", nativeQuery = true)
+    List<Long> findSoftDeletedIds();
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Role r set r.deletedAt = current_timestamp, r.name = concat(r.name, :suffix), "
+            + "r.version = r.version + 1, r.updatedAt = current_timestamp where r.id = :id")
+    int softDeleteById(@Param("id") Long id, @Param("suffix") String suffix);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from users_roles where role_id = :roleId", nativeQuery = true)
+    int deleteUserGrantsByRoleId(@Param("roleId") Long roleId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from roles_privileges where role_id = :roleId", nativeQuery = true)
+    int deletePrivilegeGrantsByRoleId(@Param("roleId") Long roleId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from role where id = :id", nativeQuery = true)
+    int deleteRowById(@Param("id") Long id);
 }
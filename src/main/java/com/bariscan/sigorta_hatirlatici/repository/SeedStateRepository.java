@@ -0,0 +1,18 @@
+package com.bariscan.sigorta_hatirlatici.repository;
+
+import com.bariscan.sigorta_hatirlatici.entity.SeedState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+@Repository
+public interface SeedStateRepository extends JpaRepository<SeedState, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from SeedState s where s.name = :name")
+    Optional<SeedState> findForUpdate(@Param("name") String name);
+}
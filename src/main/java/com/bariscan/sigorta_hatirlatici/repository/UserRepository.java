@@ -1,9 +1,61 @@
 package com.bariscan.sigorta_hatirlatici.repository;
 
+import com.bariscan.sigorta_hatirlatici.cache.VersionStamp;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserCredentialsRow;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserSummary;
 import com.bariscan.sigorta_hatirlatici.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User,Long> {
+    @Query("select distinct p.id from User u join u.roles r join r.privileges p "
+            + "where u.id = :userId and r.deletedAt is null and p.deletedAt is null")
+    List<Long> findPrivilegeIdsByUserId(@Param("userId") Long userId);
+
+    @Query("select u.emailKey from User u where u.emailKey in :emailKeys")
+    Set<String> findExistingEmails(@Param("emailKeys") Collection<String> emailKeys);
+
+    @Query("select new com.bariscan.sigorta_hatirlatici.dto.userDtos.UserCredentialsRow("
+            + "u.id, u.email, u.password, u.enabled, r.name, p.name) "
+            + "from User u left join u.roles r left join r.privileges p where u.emailKey = :emailKey")
+    List<UserCredentialsRow> findCredentialsByEmailKey(@Param("emailKey") String emailKey);
+
+    @Query("select new com.bariscan.sigorta_hatirlatici.cache.VersionStamp(u.id, u.version, u.updatedAt) "
+            + "from User u where u.id = :id")
+    Optional<VersionStamp> findVersionStampById(@Param("id") Long id);
+
+    List<UserSummary> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    List<UserSummary> findByEmailGreaterThanOrderByEmailAsc(String afterEmail, Pageable pageable);
+
+    List<UserSummary> findByEmailStartingWithAndEmailGreaterThanOrderByEmailAsc(String emailPrefix,
+                                                                              String afterEmail,
+                                                                              Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newPassword, u.version = u.version + 1, u.updatedAt = current_timestamp "
+            + "where u.id = :id and u.password = :oldPassword")
+    int replacePassword(@Param("id") Long id,
+                        @Param("oldPassword") String oldPassword,
+                        @Param("newPassword") String newPassword);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newPassword, u.version = u.version + 1, u.updatedAt = current_timestamp "
+            + "where u.emailKey = :emailKey and u.password = :oldPassword")
+    int replacePasswordByEmailKey(@Param("emailKey") String emailKey,
+                                  @Param("oldPassword") String oldPassword,
+                                  @Param("newPassword") String newPassword);
 }
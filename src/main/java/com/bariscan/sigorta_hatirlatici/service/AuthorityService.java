@@ -0,0 +1,82 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.cache.BoundedCache;
+import com.bariscan.sigorta_hatirlatici.config.CacheProperties;
+import com.bariscan.sigorta_hatirlatici.repository.UserRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Log4j2
+@Transactional(readOnly = true)
+public class AuthorityService {
+    private final UserRepository userRepository;
+    private final BoundedCache<Long, PrivilegeSet> privilegeSets;
+    private final AtomicLong generation = new AtomicLong();
+
+    public AuthorityService(UserRepository userRepository, CacheProperties cacheProperties) {
+        this.userRepository = userRepository;
+        this.privilegeSets = new BoundedCache<>(cacheProperties.getAuthorityMaxSize());
+    }
+
+    public PrivilegeSet findPrivilegesOfUser(Long userId) {
+        PrivilegeSet cached = privilegeSets.get(userId).orElse(null);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        PrivilegeSet loaded = PrivilegeSet.of(userRepository.findPrivilegeIdsByUserId(userId));
+        if (generation.get() == loadGeneration) {
+            privilegeSets.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    public boolean hasPrivilege(Long userId, Long privilegeId) {
+        return findPrivilegesOfUser(userId).contains(privilegeId);
+    }
+
+    public void evictUser(Long userId) {
+        evictNowAndAfterCompletion(() -> {
+            generation.incrementAndGet();
+            privilegeSets.remove(userId);
+        });
+    }
+
+    public void evictUsers(Collection<Long> userIds) {
+        evictNowAndAfterCompletion(() -> {
+            generation.incrementAndGet();
+            userIds.forEach(privilegeSets::remove);
+        });
+    }
+
+    public void evictAll() {
+        evictNowAndAfterCompletion(() -> {
+            generation.incrementAndGet();
+            privilegeSets.clear();
+        });
+    }
+
+    public BoundedCache<Long, PrivilegeSet> cache() {
+        return privilegeSets;
+    }
+
+    private void evictNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                eviction.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,101 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.config.PasswordHashingProperties;
+import com.bariscan.sigorta_hatirlatici.exceptions.TooManyRequestsException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on a dedicated, bounded pool so slow hashes never occupy request threads.
+ * Submissions beyond the queue capacity fail fast with {@link TooManyRequestsException}.
+ */
+@Service
+@Log4j2
+public class PasswordHashingService {
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, PasswordHashingProperties properties) {
+        this.passwordEncoder = passwordEncoder;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public CompletableFuture<String> encode(CharSequence rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int activeCount() {
+        return executor.getActiveCount();
+    }
+
+    public long hashCount() {
+        return hashCount.sum();
+    }
+
+    public long totalHashNanos() {
+        return hashNanos.sum();
+    }
+
+    public long rejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> hashing) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    return hashing.get();
+                } finally {
+                    hashNanos.add(System.nanoTime() - start);
+                    hashCount.increment();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            log.warn("Password hashing queue is full, rejecting request");
+            throw new TooManyRequestsException("Server is busy, try again later.");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.config.ReminderProperties;
+import com.bariscan.sigorta_hatirlatici.dto.policyDtos.DuePaymentDto;
+import com.bariscan.sigorta_hatirlatici.entity.PaymentStatus;
+import com.bariscan.sigorta_hatirlatici.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Service
+@Log4j2
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class PaymentService {
+    private final PaymentRepository paymentRepository;
+    private final ReminderProperties reminderProperties;
+    private final Clock clock;
+
+    public long forEachPaymentDueWithin(int days, Consumer<List<DuePaymentDto>> pageConsumer) {
+        LocalDate today = LocalDate.now(clock);
+        return forEachPaymentDueBetween(today, today.plusDays(days), pageConsumer);
+    }
+
+    public long forEachPaymentDueBetween(LocalDate from, LocalDate until, Consumer<List<DuePaymentDto>> pageConsumer) {
+        PageRequest page = PageRequest.of(0, reminderProperties.getPageSize());
+        List<DuePaymentDto> payments = paymentRepository.findFirstDuePage(PaymentStatus.PENDING, from, until, page);
+        long total = 0;
+        while (!payments.isEmpty()) {
+            pageConsumer.accept(payments);
+            total += payments.size();
+            if (payments.size() < page.getPageSize()) {
+                break;
+            }
+            DuePaymentDto last = payments.get(payments.size() - 1);
+            payments = paymentRepository.findDuePage(
+                    PaymentStatus.PENDING, last.getDueDate(), last.getPaymentId(), until, page);
+        }
+        log.debug("{} payments due between {} and {}", total, from, until);
+        return total;
+    }
+}
@@ -0,0 +1,90 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.audit.AuditLog;
+import com.bariscan.sigorta_hatirlatici.dto.policyDtos.PolicyDto;
+import com.bariscan.sigorta_hatirlatici.dto.reminderDtos.PaymentsScheduledEvent;
+import com.bariscan.sigorta_hatirlatici.entity.Payment;
+import com.bariscan.sigorta_hatirlatici.entity.PaymentStatus;
+import com.bariscan.sigorta_hatirlatici.entity.Policy;
+import com.bariscan.sigorta_hatirlatici.entity.User;
+import com.bariscan.sigorta_hatirlatici.exceptions.BadRequestException;
+import com.bariscan.sigorta_hatirlatici.exceptions.NotFoundException;
+import com.bariscan.sigorta_hatirlatici.repository.PolicyRepository;
+import com.bariscan.sigorta_hatirlatici.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.Valid;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Validated
+@Log4j2
+@Transactional
+public class PolicyService {
+    private final PolicyRepository policyRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditLog auditLog;
+
+    @Timed("app.service")
+    public Policy createPolicy(Long userId, @Valid PolicyDto policyDto) throws NotFoundException {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User not found");
+        }
+        int installmentCount = Math.max(1, policyDto.getInstallments());
+        validateTerm(policyDto.getStartDate(), policyDto.getEndDate(), installmentCount);
+        User user = userRepository.getReferenceById(userId);
+        Policy policy = Policy.builder()
+                .policyNumber(policyDto.getPolicyNumber())
+                .plateNumber(policyDto.getPlateNumber())
+                .insurer(policyDto.getInsurer())
+                .premium(policyDto.getPremium())
+                .startDate(policyDto.getStartDate())
+                .endDate(policyDto.getEndDate())
+                .user(user)
+                .build();
+        policy.setPayments(installments(policy, installmentCount));
+
+        Policy saved = policyRepository.save(policy);
+        eventPublisher.publishEvent(new PaymentsScheduledEvent(saved.getPayments().stream()
+                .collect(Collectors.toMap(Payment::getId, Payment::getDueDate))));
+        auditLog.record("POLICY_CREATED", "Policy {} was created for user {}", saved.getPolicyNumber(), userId);
+        return saved;
+    }
+
+    private void validateTerm(LocalDate startDate, LocalDate endDate, int installmentCount) {
+        if (!endDate.isAfter(startDate)) {
+            throw new BadRequestException("End date must be after start date.");
+        }
+        if (startDate.plusMonths(installmentCount - 1L).isAfter(endDate)) {
+            throw new BadRequestException("Last installment would be due after the end date.");
+        }
+    }
+
+    private List<Payment> installments(Policy policy, int count) {
+        BigDecimal amount = policy.getPremium().divide(BigDecimal.valueOf(count), 2, RoundingMode.DOWN);
+        BigDecimal remainder = policy.getPremium().subtract(amount.multiply(BigDecimal.valueOf(count)));
+        List<Payment> payments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            payments.add(Payment.builder()
+                    .policy(policy)
+                    .dueDate(policy.getStartDate().plusMonths(i))
+                    .amount(i == 0 ? amount.add(remainder) : amount)
+                    .status(PaymentStatus.PENDING)
+                    .build());
+        }
+        return payments;
+    }
+}
@@ -1,15 +1,34 @@
 package com.bariscan.sigorta_hatirlatici.service;
 
+import com.bariscan.sigorta_hatirlatici.audit.AuditLog;
+import com.bariscan.sigorta_hatirlatici.cache.BoundedCache;
+import com.bariscan.sigorta_hatirlatici.cache.ReferenceDataCache;
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeOutbox;
+import com.bariscan.sigorta_hatirlatici.dto.roleDtos.DeleteResultDto;
+import com.bariscan.sigorta_hatirlatici.dto.roleDtos.PrivilegeDto;
 import com.bariscan.sigorta_hatirlatici.entity.Privilege;
 import com.bariscan.sigorta_hatirlatici.exceptions.NotFoundException;
 import com.bariscan.sigorta_hatirlatici.repository.PrivilegeRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.apache.logging.log4j.Level;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 
 @Service
 @Log4j2
@@ -17,31 +36,165 @@ import java.util.Optional;
 @Transactional
 public class PrivilegeService {
     private final PrivilegeRepository privilegeRepository;
+    private final AuthorityService authorityService;
+    private final BoundedCache<String, Privilege> privilegeNameCache;
+    private final AuditLog auditLog;
+    private final ReferenceDataCache referenceDataCache;
+    private final ReferenceDataInserter referenceDataInserter;
+    private final RoleService roleService;
+    private final ChangeOutbox changeOutbox;
+    private final StripedLocks nameLocks = new StripedLocks(64);
 
+    @Timed("app.service")
     public Privilege createPrivilegeIfNotFound(String name) {
-        Optional<Privilege> privilege = privilegeRepository.findByName(name);
-        if (privilege.isEmpty()) {
-            privilege = Optional.of(Privilege.builder()
-                    .name(name)
-                    .build());
-            privilege = Optional.ofNullable(privilegeRepository.save(privilege.get()));
-            log.log(Level.TRACE,name+" privilege created");
+        return findPrivilegeByName(name).orElseGet(() -> insertIfAbsent(name));
+    }
+
+    @Timed("app.service")
+    public List<Privilege> ensureAll(Collection<String> names) {
+        Map<String, Privilege> resolved = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String name : new LinkedHashSet<>(names)) {
+            Optional<Privilege> cached = privilegeNameCache.get(name);
+            if (cached.isPresent()) {
+                resolved.put(name, cached.get());
+            } else {
+                missing.add(name);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Privilege privilege : privilegeRepository.findByNameIn(missing)) {
+                privilegeNameCache.put(privilege.getName(), privilege);
+                resolved.put(privilege.getName(), privilege);
+            }
+            for (String name : missing) {
+                resolved.computeIfAbsent(name, this::insertIfAbsent);
+            }
         }
-        return privilege.get();
+        List<Privilege> privileges = new ArrayList<>(names.size());
+        for (String name : names) {
+            privileges.add(resolved.get(name));
+        }
+        return privileges;
+    }
+
+    @Timed("app.service")
+    public DeleteResultDto deletePrivilege(String name) throws NotFoundException {
+        Long id = requirePrivilegeId(name);
+        long roles = purgePrivilege(id);
+        evictPrivilege(id, name);
+        DeleteResultDto result = DeleteResultDto.builder()
+                .name(name)
+                .affected(roles)
+                .build();
+        changeOutbox.record(ChangeOutbox.PRIVILEGE, id, "PRIVILEGE_DELETED", result);
+        auditLog.record("PRIVILEGE_DELETED", "{} privilege deleted, {} roles affected", name, roles);
+        return result;
     }
 
-    public String deletePrivilege(String name) throws NotFoundException {
-        Optional<Privilege> privilege = privilegeRepository.findByName(name);
-        if(privilege.isPresent()){
-            privilegeRepository.delete(privilege.get());
-            log.log(Level.TRACE,name+" privilege deleted");
-            return "Privilege deleted.";
+    @Timed("app.service")
+    public DeleteResultDto softDeletePrivilege(String name) throws NotFoundException {
+        Long id = requirePrivilegeId(name);
+        privilegeRepository.incrementGrantingRoleVersions(id);
+        privilegeRepository.softDeleteById(id, RoleService.DELETED_NAME_SEPARATOR + id);
+        evictPrivilege(id, name);
+        DeleteResultDto result = DeleteResultDto.builder()
+                .name(name)
+                .softDeleted(true)
+                .build();
+        changeOutbox.record(ChangeOutbox.PRIVILEGE, id, "PRIVILEGE_SOFT_DELETED", result);
+        auditLog.record("PRIVILEGE_SOFT_DELETED", "{} privilege soft deleted", name);
+        return result;
+    }
+
+    @Scheduled(initialDelayString = "${app.reference-data.purge-interval-ms:600000}",
+            fixedDelayString = "${app.reference-data.purge-interval-ms:600000}")
+    public void purgeSoftDeleted() {
+        for (Long id : privilegeRepository.findSoftDeletedIds()) {
+            long roles = purgePrivilege(id);
+            log.debug("Soft deleted privilege {} purged, {} roles affected", id, roles);
         }
-        log.log(Level.TRACE,name+" privilege is not found");
-        throw new NotFoundException("Privilege is not found.");
     }
 
     public Optional<Privilege> findPrivilegeByName(String name) {
-        return privilegeRepository.findByName(name);
+        return privilegeNameCache.getOrLoad(name, privilegeRepository::findByName);
+    }
+
+    private Long requirePrivilegeId(String name) {
+        Optional<Long> id = privilegeRepository.findIdByName(name);
+        if (id.isEmpty()) {
+            auditLog.record("PRIVILEGE_DELETE_REJECTED", "{} privilege is not found", name);
+            throw new NotFoundException("Privilege is not found.");
+        }
+        return id.get();
+    }
+
+    private long purgePrivilege(Long id) {
+        privilegeRepository.incrementGrantingRoleVersions(id);
+        long roles = privilegeRepository.deleteRoleGrantsByPrivilegeId(id);
+        privilegeRepository.deleteRowById(id);
+        return roles;
+    }
+
+    private void evictPrivilege(Long id, String name) {
+        referenceDataCache.evictPrivilege(id);
+        evictNowAndAfterCompletion(() -> privilegeNameCache.remove(name));
+        roleService.clearNameCache();
+        authorityService.evictAll();
+    }
+
+    /**
+     * A concurrent reader can still load the deleted row until the transaction commits, so the
+     * name cache is evicted again once it completes.
+     */
+    private static void evictNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                eviction.run();
+            }
+        });
+    }
+
+    private Privilege insertIfAbsent(String name) {
+        Lock lock = nameLocks.get(name);
+        lock.lock();
+        try {
+            Optional<Privilege> cached = privilegeNameCache.get(name);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            Privilege privilege;
+            try {
+                privilege = referenceDataInserter.insert(() -> {
+                    Privilege saved = privilegeRepository.save(Privilege.builder()
+                            .name(name)
+                            .build());
+                    changeOutbox.record(ChangeOutbox.PRIVILEGE, saved.getId(), "PRIVILEGE_CREATED",
+                            new PrivilegeDto(saved.getId(), name));
+                    return saved;
+                });
+                auditLog.record("PRIVILEGE_CREATED", "{} privilege created", name);
+            } catch (DataIntegrityViolationException e) {
+                privilege = privilegeRepository.findUncachedByName(name).orElseThrow(() -> e);
+            }
+            privilegeNameCache.put(name, privilege);
+            return privilege;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUpNameCache() {
+        privilegeRepository.findAll().stream()
+                .limit(privilegeNameCache.maxSize())
+                .forEach(privilege -> privilegeNameCache.put(privilege.getName(), privilege));
+        log.debug("{} privileges loaded into name cache", privilegeNameCache.size());
     }
 }
@@ -0,0 +1,51 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.entity.Privilege;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.stream.LongStream;
+
+/**
+ * Immutable set of privilege ids backed by a {@link BitSet}.
+ */
+public final class PrivilegeSet {
+    public static final PrivilegeSet EMPTY = new PrivilegeSet(new BitSet());
+
+    private final BitSet bits;
+
+    private PrivilegeSet(BitSet bits) {
+        this.bits = bits;
+    }
+
+    public static PrivilegeSet of(Collection<Long> privilegeIds) {
+        if (privilegeIds.isEmpty()) {
+            return EMPTY;
+        }
+        BitSet bits = new BitSet();
+        for (Long id : privilegeIds) {
+            bits.set(Math.toIntExact(id));
+        }
+        return new PrivilegeSet(bits);
+    }
+
+    public boolean contains(long privilegeId) {
+        return privilegeId >= 0 && privilegeId <= Integer.MAX_VALUE && bits.get((int) privilegeId);
+    }
+
+    public boolean contains(Privilege privilege) {
+        return privilege.getId() != null && contains(privilege.getId());
+    }
+
+    public int size() {
+        return bits.cardinality();
+    }
+
+    public boolean isEmpty() {
+        return bits.isEmpty();
+    }
+
+    public LongStream ids() {
+        return bits.stream().asLongStream();
+    }
+}
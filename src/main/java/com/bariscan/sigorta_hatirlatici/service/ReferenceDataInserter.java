@@ -0,0 +1,21 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs a reference data insert in its own transaction. A unique constraint violation then only
+ * rolls back the insert (surfacing as {@code DataIntegrityViolationException}) and the caller's
+ * transaction can go on and read the row another node committed.
+ */
+@Component
+public class ReferenceDataInserter {
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public <T> T insert(Supplier<T> insert) {
+        return insert.get();
+    }
+}
@@ -0,0 +1,99 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.config.ReminderProperties;
+import com.bariscan.sigorta_hatirlatici.dto.policyDtos.DuePaymentDto;
+import com.bariscan.sigorta_hatirlatici.entity.Payment;
+import com.bariscan.sigorta_hatirlatici.entity.PaymentStatus;
+import com.bariscan.sigorta_hatirlatici.entity.ReminderStatus;
+import com.bariscan.sigorta_hatirlatici.repository.PaymentRepository;
+import com.bariscan.sigorta_hatirlatici.service.reminder.ReminderCalendar;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Short transactions that move payment reminders through PENDING -> CLAIMED -> SENT. Claiming locks
+ * candidate rows with SKIP LOCKED so concurrent nodes never receive the same payment. A released
+ * reminder is not claimable again before {@code app.reminder.retry-backoff} has passed.
+ */
+@Service
+@Log4j2
+@RequiredArgsConstructor
+@Transactional
+public class ReminderClaimService {
+    private final PaymentRepository paymentRepository;
+    private final ReminderProperties reminderProperties;
+    private final ReminderCalendar reminderCalendar;
+    private final Clock clock;
+
+    public List<DuePaymentDto> claimBatch() {
+        Instant now = clock.instant();
+        List<Payment> payments = paymentRepository.findClaimableReminders(
+                PaymentStatus.PENDING,
+                reminderCalendar.lastDueDateToRemind(now),
+                reminderProperties.getShardCount(),
+                reminderProperties.getShardIndex(),
+                ReminderStatus.PENDING,
+                ReminderStatus.CLAIMED,
+                now,
+                now.minus(reminderProperties.getClaimTimeout()),
+                PageRequest.of(0, reminderProperties.getBatchSize()));
+        return claim(payments, now);
+    }
+
+    public List<DuePaymentDto> claimByIds(Collection<Long> paymentIds) {
+        if (paymentIds.isEmpty()) {
+            return List.of();
+        }
+        Instant now = clock.instant();
+        List<Payment> payments = paymentRepository.findClaimableRemindersByIds(
+                paymentIds,
+                PaymentStatus.PENDING,
+                ReminderStatus.PENDING,
+                ReminderStatus.CLAIMED,
+                now,
+                now.minus(reminderProperties.getClaimTimeout()));
+        return claim(payments, now);
+    }
+
+    public int markSent(Collection<Long> paymentIds) {
+        if (paymentIds.isEmpty()) {
+            return 0;
+        }
+        return paymentRepository.markRemindersSent(paymentIds, reminderProperties.getNodeId(), clock.instant(),
+                ReminderStatus.CLAIMED, ReminderStatus.SENT);
+    }
+
+    public int release(Collection<Long> paymentIds) {
+        if (paymentIds.isEmpty()) {
+            return 0;
+        }
+        int released = paymentRepository.releaseReminders(paymentIds, reminderProperties.getNodeId(),
+                clock.instant().plus(reminderProperties.getRetryBackoff()), ReminderStatus.CLAIMED, ReminderStatus.PENDING);
+        paymentRepository.markRemindersFailed(paymentIds, reminderProperties.getMaxAttempts(),
+                ReminderStatus.PENDING, ReminderStatus.FAILED);
+        return released;
+    }
+
+    private List<DuePaymentDto> claim(List<Payment> payments, Instant now) {
+        if (payments.isEmpty()) {
+            return List.of();
+        }
+        for (Payment payment : payments) {
+            payment.setReminderStatus(ReminderStatus.CLAIMED);
+            payment.setReminderClaimedBy(reminderProperties.getNodeId());
+            payment.setReminderClaimedAt(now);
+        }
+        List<Long> ids = payments.stream().map(Payment::getId).collect(Collectors.toList());
+        log.debug("{} reminders claimed by {}", ids.size(), reminderProperties.getNodeId());
+        return paymentRepository.findDuePaymentsByIds(ids);
+    }
+}
@@ -0,0 +1,144 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.config.ReminderProperties;
+import com.bariscan.sigorta_hatirlatici.dto.policyDtos.DuePaymentDto;
+import com.bariscan.sigorta_hatirlatici.dto.reminderDtos.ReminderMessage;
+import com.bariscan.sigorta_hatirlatici.service.reminder.ReminderCalendar;
+import com.bariscan.sigorta_hatirlatici.service.reminder.ReminderSender;
+import com.bariscan.sigorta_hatirlatici.service.reminder.ReminderTemplateRenderer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Polls for due payment reminders, renders them and hands them to the configured
+ * {@link ReminderSender}. While the timing wheel is enabled it dispatches near-term reminders itself,
+ * so the poll only runs as a catch-up sweep every {@code app.reminder.wheel.catch-up-interval} for
+ * retries, stale claims and reminders missed while no node was running. Every batch is claimed in its own transaction, rendered and sent outside of
+ * any transaction and then acknowledged, so several nodes can run the dispatcher at the same time.
+ * Large batches are rendered and sent on several threads, so the sender has to be thread safe.
+ */
+@Service
+@Log4j2
+@RequiredArgsConstructor
+public class ReminderDispatchService {
+    private final ReminderClaimService reminderClaimService;
+    private final ReminderSender reminderSender;
+    private final ReminderTemplateRenderer reminderTemplateRenderer;
+    private final ReminderProperties reminderProperties;
+    private final ReminderCalendar reminderCalendar;
+    private final Clock clock;
+
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong nextSweepMillis = new AtomicLong(Long.MIN_VALUE);
+
+    @Scheduled(fixedDelayString = "${app.reminder.poll-interval-ms:60000}")
+    public void dispatchDueReminders() {
+        if (!reminderProperties.isEnabled() || !sweepDue()) {
+            return;
+        }
+        long sent = 0;
+        List<DuePaymentDto> batch;
+        while (!(batch = reminderClaimService.claimBatch()).isEmpty()) {
+            int batchSent = dispatch(batch);
+            sent += batchSent;
+            // a failing sender would fail the rest of the backlog too; it is retried after the backoff
+            if (batch.size() < reminderProperties.getBatchSize() || batchSent < batch.size()) {
+                break;
+            }
+        }
+        if (sent > 0) {
+            log.info("{} payment reminders sent", sent);
+        }
+    }
+
+    public int dispatch(List<DuePaymentDto> batch) {
+        batchCount.increment();
+        List<ReminderMessage> messages = new ArrayList<>(batch.size());
+        for (DuePaymentDto payment : batch) {
+            messages.add(toMessage(payment));
+        }
+        Set<Long> failed = new HashSet<>();
+        for (ReminderMessage message : reminderTemplateRenderer.renderBatch(messages, reminderSender::send)) {
+            failed.add(message.getPaymentId());
+        }
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        List<Long> failedIds = new ArrayList<>(failed.size());
+        Instant now = clock.instant();
+        for (DuePaymentDto payment : batch) {
+            if (failed.contains(payment.getPaymentId())) {
+                failedIds.add(payment.getPaymentId());
+            } else {
+                sentIds.add(payment.getPaymentId());
+                recordLag(payment, now);
+            }
+        }
+        reminderClaimService.markSent(sentIds);
+        reminderClaimService.release(failedIds);
+        sentCount.add(sentIds.size());
+        failedCount.add(failedIds.size());
+        return sentIds.size();
+    }
+
+    public long sentCount() {
+        return sentCount.sum();
+    }
+
+    public long failedCount() {
+        return failedCount.sum();
+    }
+
+    public long batchCount() {
+        return batchCount.sum();
+    }
+
+    public long lastLagMillis() {
+        return lastLagMillis.get();
+    }
+
+    private boolean sweepDue() {
+        ReminderProperties.Wheel wheel = reminderProperties.getWheel();
+        if (!wheel.isEnabled()) {
+            return true;
+        }
+        long now = clock.millis();
+        if (now < nextSweepMillis.get()) {
+            return false;
+        }
+        nextSweepMillis.set(now + wheel.getCatchUpInterval().toMillis());
+        return true;
+    }
+
+    private void recordLag(DuePaymentDto payment, Instant now) {
+        Instant remindFrom = reminderCalendar.remindAt(payment.getDueDate());
+        lastLagMillis.set(Math.max(0, Duration.between(remindFrom, now).toMillis()));
+    }
+
+    private ReminderMessage toMessage(DuePaymentDto payment) {
+        return ReminderMessage.builder()
+                .idempotencyKey(payment.getPolicyId() + ":" + payment.getDueDate())
+                .paymentId(payment.getPaymentId())
+                .userId(payment.getUserId())
+                .email(payment.getEmail())
+                .firstName(payment.getFirstName())
+                .policyNumber(payment.getPolicyNumber())
+                .plateNumber(payment.getPlateNumber())
+                .dueDate(payment.getDueDate())
+                .amount(payment.getAmount())
+                .build();
+    }
+}
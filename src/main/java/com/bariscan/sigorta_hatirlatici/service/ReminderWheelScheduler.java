@@ -0,0 +1,155 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.config.ReminderProperties;
+import com.bariscan.sigorta_hatirlatici.dto.policyDtos.DuePaymentDto;
+import com.bariscan.sigorta_hatirlatici.dto.reminderDtos.PaymentsScheduledEvent;
+import com.bariscan.sigorta_hatirlatici.service.reminder.HierarchicalTimingWheel;
+import com.bariscan.sigorta_hatirlatici.service.reminder.ReminderCalendar;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the reminders that become due within the configured horizon in a timing wheel and
+ * dispatches them at their send time, so near-term reminders do not depend on database polling.
+ * The wheel is reloaded periodically and updated as payments are created.
+ */
+@Service
+@Log4j2
+@ConditionalOnProperty(name = "app.reminder.wheel.enabled", havingValue = "true", matchIfMissing = true)
+public class ReminderWheelScheduler {
+    private final PaymentService paymentService;
+    private final ReminderClaimService reminderClaimService;
+    private final ReminderDispatchService reminderDispatchService;
+    private final ReminderCalendar reminderCalendar;
+    private final ReminderProperties reminderProperties;
+    private final Clock clock;
+    private final HierarchicalTimingWheel<Long> wheel;
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService dispatcher;
+
+    public ReminderWheelScheduler(PaymentService paymentService,
+                                  ReminderClaimService reminderClaimService,
+                                  ReminderDispatchService reminderDispatchService,
+                                  ReminderCalendar reminderCalendar,
+                                  ReminderProperties reminderProperties,
+                                  Clock clock) {
+        this.paymentService = paymentService;
+        this.reminderClaimService = reminderClaimService;
+        this.reminderDispatchService = reminderDispatchService;
+        this.reminderCalendar = reminderCalendar;
+        this.reminderProperties = reminderProperties;
+        this.clock = clock;
+        ReminderProperties.Wheel wheelProperties = reminderProperties.getWheel();
+        this.wheel = new HierarchicalTimingWheel<>(wheelProperties.getTickMillis(), wheelProperties.getSlotBits(),
+                wheelProperties.getLevels(), clock.millis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "reminder-wheel-tick"));
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "reminder-wheel-dispatch"));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresh();
+        long tickMillis = reminderProperties.getWheel().getTickMillis();
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Scheduled(initialDelayString = "${app.reminder.wheel.refresh-interval-ms:900000}",
+            fixedDelayString = "${app.reminder.wheel.refresh-interval-ms:900000}")
+    public void refresh() {
+        Instant now = clock.instant();
+        Instant horizonEnd = now.plus(reminderProperties.getWheel().getHorizon());
+        LocalDate from = reminderCalendar.lastDueDateToRemind(now);
+        LocalDate until = reminderCalendar.lastDueDateToRemind(horizonEnd);
+        if (until.isBefore(from)) {
+            return;
+        }
+        long loaded = paymentService.forEachPaymentDueBetween(from, until, page -> {
+            for (DuePaymentDto payment : page) {
+                schedule(payment.getPaymentId(), payment.getDueDate(), now, horizonEnd);
+            }
+        });
+        log.debug("{} payments scanned, {} reminders pending in timing wheel", loaded, wheel.size());
+    }
+
+    @TransactionalEventListener
+    public void onPaymentsScheduled(PaymentsScheduledEvent event) {
+        Instant now = clock.instant();
+        Instant horizonEnd = now.plus(reminderProperties.getWheel().getHorizon());
+        event.getDueDates().forEach((paymentId, dueDate) -> {
+            if (!schedule(paymentId, dueDate, now, horizonEnd)) {
+                wheel.cancel(paymentId);
+            }
+        });
+    }
+
+    public int pendingCount() {
+        return wheel.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+        dispatcher.shutdown();
+    }
+
+    private boolean schedule(Long paymentId, LocalDate dueDate, Instant now, Instant horizonEnd) {
+        if (paymentId % reminderProperties.getShardCount() != reminderProperties.getShardIndex()) {
+            return false;
+        }
+        Instant remindAt = reminderCalendar.remindAt(dueDate);
+        if (remindAt.isBefore(now) || remindAt.isAfter(horizonEnd)) {
+            return false;
+        }
+        wheel.schedule(paymentId, remindAt.toEpochMilli(), paymentId);
+        return true;
+    }
+
+    private void tick() {
+        try {
+            List<Long> due = new ArrayList<>();
+            wheel.advanceTo(clock.millis(), due::add);
+            if (!due.isEmpty()) {
+                dispatcher.execute(() -> dispatch(due));
+            }
+        } catch (RuntimeException e) {
+            log.error("Reminder timing wheel tick failed", e);
+        }
+    }
+
+    private void dispatch(List<Long> paymentIds) {
+        int batchSize = reminderProperties.getBatchSize();
+        for (int from = 0; from < paymentIds.size(); from += batchSize) {
+            List<Long> chunk = paymentIds.subList(from, Math.min(from + batchSize, paymentIds.size()));
+            try {
+                List<DuePaymentDto> claimed = reminderClaimService.claimByIds(chunk);
+                if (!claimed.isEmpty()) {
+                    reminderDispatchService.dispatch(claimed);
+                }
+            } catch (RuntimeException e) {
+                log.error("Dispatching {} reminders from timing wheel failed", chunk.size(), e);
+            }
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,270 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.audit.AuditLog;
+import com.bariscan.sigorta_hatirlatici.cache.BoundedCache;
+import com.bariscan.sigorta_hatirlatici.cache.ReferenceDataCache;
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeOutbox;
+import com.bariscan.sigorta_hatirlatici.config.SeedProperties;
+import com.bariscan.sigorta_hatirlatici.dto.roleDtos.PrivilegeDto;
+import com.bariscan.sigorta_hatirlatici.dto.roleDtos.RoleDto;
+import com.bariscan.sigorta_hatirlatici.dto.seedDtos.NameIdDto;
+import com.bariscan.sigorta_hatirlatici.dto.seedDtos.RoleManifestDto;
+import com.bariscan.sigorta_hatirlatici.dto.seedDtos.RolePrivilegeDto;
+import com.bariscan.sigorta_hatirlatici.dto.seedDtos.RolePrivilegeNameDto;
+import com.bariscan.sigorta_hatirlatici.dto.seedDtos.SeedResultDto;
+import com.bariscan.sigorta_hatirlatici.entity.Privilege;
+import com.bariscan.sigorta_hatirlatici.entity.Role;
+import com.bariscan.sigorta_hatirlatici.entity.SeedState;
+import com.bariscan.sigorta_hatirlatici.repository.PrivilegeRepository;
+import com.bariscan.sigorta_hatirlatici.repository.RoleRepository;
+import com.bariscan.sigorta_hatirlatici.repository.SeedStateRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the role to privilege manifest in one transaction. The manifest roles and their grants
+ * are read back with one query first, so a database that already matches the manifest costs a
+ * single lookup, while roles or grants deleted since the last run are restored. Otherwise the
+ * {@code seed_state} row is locked, the manifest is diffed against the database with a few set
+ * based queries and only the missing rows are written; {@code roles_privileges} changes go through JDBC batches. Created
+ * privileges and created or regranted roles are recorded in the change outbox with their manifest
+ * privileges.
+ */
+@Service
+@Log4j2
+@RequiredArgsConstructor
+@Transactional
+public class RoleSeedService {
+    static final String MANIFEST_STATE = "role-manifest";
+    private static final String INSERT_GRANT = "insert into roles_privileges (role_id, privilege_id) values (?, ?)";
+    private static final String DELETE_GRANT = "delete from roles_privileges where role_id = ? and privilege_id = ?";
+
+    private final RoleRepository roleRepository;
+    private final PrivilegeRepository privilegeRepository;
+    private final SeedStateRepository seedStateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final ReferenceDataInserter referenceDataInserter;
+    private final ReferenceDataCache referenceDataCache;
+    private final BoundedCache<String, Role> roleNameCache;
+    private final BoundedCache<String, Privilege> privilegeNameCache;
+    private final AuthorityService authorityService;
+    private final AuditLog auditLog;
+    private final ChangeOutbox changeOutbox;
+    private final ObjectMapper objectMapper;
+    private final ResourceLoader resourceLoader;
+    private final SeedProperties seedProperties;
+    private final Clock clock;
+
+    public SeedResultDto seed() throws IOException {
+        try (InputStream input = resourceLoader.getResource(seedProperties.getManifest()).getInputStream()) {
+            return seed(input.readAllBytes());
+        }
+    }
+
+    public SeedResultDto seed(byte[] manifest) throws IOException {
+        String checksum = checksum(manifest);
+        RoleManifestDto roleManifest = objectMapper.readValue(manifest, RoleManifestDto.class);
+        if (isApplied(roleManifest)) {
+            log.debug("Role manifest {} is already applied", checksum);
+            return SeedResultDto.builder().skipped(true).build();
+        }
+
+        SeedState state = lockState();
+        SeedResultDto result = apply(roleManifest);
+        state.setChecksum(checksum);
+        state.setAppliedAt(clock.instant());
+        seedStateRepository.save(state);
+        auditLog.record("ROLES_SEEDED", "Role manifest {} applied: {} privileges, {} roles, {} grants added, {} grants removed",
+                checksum, result.getPrivilegesCreated(), result.getRolesCreated(),
+                result.getGrantsAdded(), result.getGrantsRemoved());
+        return result;
+    }
+
+    /**
+     * Every manifest role exists with every manifest grant, and with pruning on, no other grant.
+     */
+    private boolean isApplied(RoleManifestDto manifest) {
+        Map<String, List<String>> roles = manifest.getRoles();
+        if (roles.isEmpty()) {
+            return true;
+        }
+        Set<RolePrivilegeNameDto> desired = new HashSet<>();
+        roles.forEach((role, privileges) -> privileges.forEach(privilege ->
+                desired.add(new RolePrivilegeNameDto(role, privilege))));
+        Set<String> currentRoles = new HashSet<>();
+        Set<RolePrivilegeNameDto> current = new HashSet<>();
+        for (RolePrivilegeNameDto row : roleRepository.findGrantNamesByRoleNameIn(roles.keySet())) {
+            currentRoles.add(row.getRoleName());
+            if (row.getPrivilegeName() != null) {
+                current.add(row);
+            }
+        }
+        return currentRoles.containsAll(roles.keySet())
+                && (seedProperties.isPrune() ? current.equals(desired) : current.containsAll(desired));
+    }
+
+    private SeedResultDto apply(RoleManifestDto manifest) {
+        Map<String, List<String>> roles = manifest.getRoles();
+        Set<String> privilegeNames = roles.values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<String, Long> privilegeIds = privilegeNames.isEmpty()
+                ? new HashMap<>()
+                : toIds(privilegeRepository.findIdsByNameIn(privilegeNames));
+        List<Privilege> newPrivileges = privilegeNames.stream()
+                .filter(name -> !privilegeIds.containsKey(name))
+                .map(name -> Privilege.builder().name(name).build())
+                .collect(Collectors.toList());
+        privilegeRepository.saveAll(newPrivileges);
+        newPrivileges.forEach(privilege -> privilegeIds.put(privilege.getName(), privilege.getId()));
+
+        Map<String, Long> roleIds = roles.isEmpty()
+                ? new HashMap<>()
+                : toIds(roleRepository.findIdsByNameIn(roles.keySet()));
+        List<Role> newRoles = roles.keySet().stream()
+                .filter(name -> !roleIds.containsKey(name))
+                .map(name -> Role.builder().name(name).build())
+                .collect(Collectors.toList());
+        roleRepository.saveAll(newRoles);
+        newRoles.forEach(role -> roleIds.put(role.getName(), role.getId()));
+        entityManager.flush();
+
+        Set<RolePrivilegeDto> desired = new HashSet<>();
+        roles.forEach((role, privileges) -> privileges.forEach(privilege ->
+                desired.add(new RolePrivilegeDto(roleIds.get(role), privilegeIds.get(privilege)))));
+        Set<RolePrivilegeDto> current = roleIds.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(roleRepository.findGrantsByRoleIdIn(roleIds.values()));
+
+        List<RolePrivilegeDto> toAdd = difference(desired, current);
+        List<RolePrivilegeDto> toRemove = seedProperties.isPrune() ? difference(current, desired) : List.of();
+        writeGrants(INSERT_GRANT, toAdd);
+        writeGrants(DELETE_GRANT, toRemove);
+        Set<Long> changedRoleIds = new HashSet<>();
+        toAdd.forEach(grant -> changedRoleIds.add(grant.getRoleId()));
+        toRemove.forEach(grant -> changedRoleIds.add(grant.getRoleId()));
+        if (!changedRoleIds.isEmpty()) {
+            roleRepository.incrementVersions(changedRoleIds);
+        }
+        recordChanges(roles, roleIds, newPrivileges, newRoles, changedRoleIds);
+
+        SeedResultDto result = SeedResultDto.builder()
+                .privilegesCreated(newPrivileges.size())
+                .rolesCreated(newRoles.size())
+                .grantsAdded(toAdd.size())
+                .grantsRemoved(toRemove.size())
+                .build();
+        if (!newPrivileges.isEmpty() || !newRoles.isEmpty() || !toAdd.isEmpty() || !toRemove.isEmpty()) {
+            referenceDataCache.evictAll();
+            roleNameCache.clear();
+            privilegeNameCache.clear();
+            authorityService.evictAll();
+        }
+        return result;
+    }
+
+    private void recordChanges(Map<String, List<String>> roles, Map<String, Long> roleIds,
+                               List<Privilege> newPrivileges, List<Role> newRoles, Set<Long> changedRoleIds) {
+        newPrivileges.forEach(privilege -> changeOutbox.record(ChangeOutbox.PRIVILEGE, privilege.getId(),
+                "PRIVILEGE_CREATED", new PrivilegeDto(privilege.getId(), privilege.getName())));
+        Set<Long> createdRoleIds = newRoles.stream().map(Role::getId).collect(Collectors.toSet());
+        Set<Long> recordedRoleIds = new HashSet<>(changedRoleIds);
+        recordedRoleIds.addAll(createdRoleIds);
+        if (recordedRoleIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> versions = new HashMap<>();
+        roleRepository.findVersionStampsByIdIn(recordedRoleIds)
+                .forEach(stamp -> versions.put(stamp.getId(), stamp.getVersion()));
+        roles.forEach((name, privileges) -> {
+            Long id = roleIds.get(name);
+            if (recordedRoleIds.contains(id)) {
+                changeOutbox.record(ChangeOutbox.ROLE, id,
+                        createdRoleIds.contains(id) ? "ROLE_CREATED" : "ROLE_PRIVILEGES_CHANGED",
+                        RoleDto.builder()
+                                .id(id)
+                                .name(name)
+                                .privileges(List.copyOf(privileges))
+                                .version(versions.getOrDefault(id, 0L))
+                                .build());
+            }
+        });
+    }
+
+    private SeedState lockState() {
+        if (!seedStateRepository.existsById(MANIFEST_STATE)) {
+            try {
+                referenceDataInserter.insert(() -> seedStateRepository.save(SeedState.builder()
+                        .name(MANIFEST_STATE)
+                        .build()));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Seed state row was created by another node");
+            }
+        }
+        return seedStateRepository.findForUpdate(MANIFEST_STATE)
+                .orElseThrow(() -> new IllegalStateException("Seed state row is missing"));
+    }
+
+    private void writeGrants(String sql, Collection<RolePrivilegeDto> grants) {
+        if (grants.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, grants, seedProperties.getBatchSize(), (statement, grant) -> {
+            statement.setLong(1, grant.getRoleId());
+            statement.setLong(2, grant.getPrivilegeId());
+        });
+    }
+
+    private static Map<String, Long> toIds(List<NameIdDto> rows) {
+        Map<String, Long> ids = new HashMap<>();
+        rows.forEach(row -> ids.put(row.getName(), row.getId()));
+        return ids;
+    }
+
+    private static List<RolePrivilegeDto> difference(Set<RolePrivilegeDto> left, Set<RolePrivilegeDto> right) {
+        List<RolePrivilegeDto> difference = new ArrayList<>();
+        for (RolePrivilegeDto grant : left) {
+            if (!right.contains(grant)) {
+                difference.add(grant);
+            }
+        }
+        return difference;
+    }
+
+    private String checksum(byte[] manifest) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(manifest);
+            digest.update(String.valueOf(seedProperties.isPrune()).getBytes(StandardCharsets.UTF_8));
+            return String.format("%064x", new BigInteger(1, digest.digest()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,50 +1,215 @@
 package com.bariscan.sigorta_hatirlatici.service;
 
+import com.bariscan.sigorta_hatirlatici.audit.AuditLog;
+import com.bariscan.sigorta_hatirlatici.cache.BoundedCache;
+import com.bariscan.sigorta_hatirlatici.cache.ReferenceDataCache;
+import com.bariscan.sigorta_hatirlatici.cache.VersionStamp;
+import com.bariscan.sigorta_hatirlatici.cache.VersionedCache;
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeOutbox;
+import com.bariscan.sigorta_hatirlatici.dto.roleDtos.DeleteResultDto;
+import com.bariscan.sigorta_hatirlatici.dto.roleDtos.RoleDto;
 import com.bariscan.sigorta_hatirlatici.entity.Privilege;
 import com.bariscan.sigorta_hatirlatici.entity.Role;
 import com.bariscan.sigorta_hatirlatici.exceptions.NotFoundException;
 import com.bariscan.sigorta_hatirlatici.repository.RoleRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.apache.logging.log4j.Level;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 
 @Service
 @Log4j2
 @RequiredArgsConstructor
 @Transactional
 public class RoleService {
+    static final String DELETED_NAME_SEPARATOR = "#deleted-";
+
     private final RoleRepository roleRepository;
+    private final AuthorityService authorityService;
+    private final BoundedCache<String, Role> roleNameCache;
+    private final AuditLog auditLog;
+    private final ReferenceDataCache referenceDataCache;
+    private final ReferenceDataInserter referenceDataInserter;
+    private final VersionedCache<RoleDto> roleResponseCache;
+    private final ChangeOutbox changeOutbox;
+    private final StripedLocks nameLocks = new StripedLocks(64);
 
+    @Timed("app.service")
     public Role createRoleIfNotFound(String name, Collection<Privilege> privileges) {
-        Optional<Role> role = findRoleByName(name);
-        if (role.isEmpty()) {
-            role = Optional.ofNullable(Role.builder()
+        return findRoleByName(name).orElseGet(() -> insertIfAbsent(name, privileges));
+    }
+
+    @Timed("app.service")
+    public DeleteResultDto deleteRole(String name) throws NotFoundException {
+        Long id = requireRoleId(name);
+        long users = purgeRole(id);
+        evictRole(id, name);
+        DeleteResultDto result = DeleteResultDto.builder()
+                .name(name)
+                .affected(users)
+                .build();
+        changeOutbox.record(ChangeOutbox.ROLE, id, "ROLE_DELETED", result);
+        auditLog.record("ROLE_DELETED", "{} role deleted, {} users affected", name, users);
+        return result;
+    }
+
+    @Timed("app.service")
+    public DeleteResultDto softDeleteRole(String name) throws NotFoundException {
+        Long id = requireRoleId(name);
+        roleRepository.softDeleteById(id, DELETED_NAME_SEPARATOR + id);
+        evictRole(id, name);
+        DeleteResultDto result = DeleteResultDto.builder()
+                .name(name)
+                .softDeleted(true)
+                .build();
+        changeOutbox.record(ChangeOutbox.ROLE, id, "ROLE_SOFT_DELETED", result);
+        auditLog.record("ROLE_SOFT_DELETED", "{} role soft deleted", name);
+        return result;
+    }
+
+    @Scheduled(initialDelayString = "${app.reference-data.purge-interval-ms:600000}",
+            fixedDelayString = "${app.reference-data.purge-interval-ms:600000}")
+    public void purgeSoftDeleted() {
+        for (Long id : roleRepository.findSoftDeletedIds()) {
+            long users = purgeRole(id);
+            log.debug("Soft deleted role {} purged, {} users affected", id, users);
+        }
+    }
+
+    public Optional<Role> findRoleByName(String name) {
+        return roleNameCache.getOrLoad(name, roleRepository::findByName);
+    }
+
+    @Transactional(readOnly = true)
+    public VersionStamp findVersionStamp(String name) throws NotFoundException {
+        return roleRepository.findVersionStampByName(name).orElseThrow(() -> new NotFoundException("Role is not found."));
+    }
+
+    @Transactional(readOnly = true)
+    public RoleDto getRole(VersionStamp stamp) throws NotFoundException {
+        return roleResponseCache.getOrLoad(stamp.getId(), stamp.getVersion(), () -> {
+            Role role = roleRepository.findWithPrivilegesById(stamp.getId()).orElseThrow(() -> new NotFoundException("Role is not found."));
+            return RoleDto.builder()
+                    .id(role.getId())
+                    .name(role.getName())
+                    .privileges(privilegeNames(role.getPrivileges()))
+                    .version(role.getVersion())
+                    .build();
+        }, RoleDto::getVersion);
+    }
+
+    /**
+     * Cached roles carry their privilege collections, so privilege deletes drop the whole cache.
+     */
+    public void clearNameCache() {
+        evictNowAndAfterCompletion(roleNameCache::clear);
+    }
+
+    private Long requireRoleId(String name) {
+        Optional<Long> id = roleRepository.findIdByName(name);
+        if (id.isEmpty()) {
+            auditLog.record("ROLE_DELETE_REJECTED", "{} role is not found", name);
+            throw new NotFoundException("Role is not found.");
+        }
+        return id.get();
+    }
+
+    private long purgeRole(Long id) {
+        long users = roleRepository.deleteUserGrantsByRoleId(id);
+        roleRepository.deletePrivilegeGrantsByRoleId(id);
+        roleRepository.deleteRowById(id);
+        return users;
+    }
+
+    private void evictRole(Long id, String name) {
+        referenceDataCache.evictRole(id);
+        evictNowAndAfterCompletion(() -> roleNameCache.remove(name));
+        authorityService.evictAll();
+    }
+
+    /**
+     * A concurrent reader can still load the deleted row until the transaction commits, so the
+     * name cache is evicted again once it completes.
+     */
+    private static void evictNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                eviction.run();
+            }
+        });
+    }
+
+    private Role insertIfAbsent(String name, Collection<Privilege> privileges) {
+        Lock lock = nameLocks.get(name);
+        lock.lock();
+        try {
+            Optional<Role> cached = roleNameCache.get(name);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            Role role = Role.builder()
                     .name(name)
                     .privileges(privileges)
-                    .build());
-            roleRepository.save(role.get());
-            log.log(Level.TRACE, name + " role created");
+                    .build();
+            try {
+                referenceDataInserter.insert(() -> {
+                    Role saved = roleRepository.save(role);
+                    changeOutbox.record(ChangeOutbox.ROLE, saved.getId(), "ROLE_CREATED", RoleDto.builder()
+                            .id(saved.getId())
+                            .name(name)
+                            .privileges(privilegeNames(privileges))
+                            .version(saved.getVersion())
+                            .build());
+                    return saved;
+                });
+                auditLog.record("ROLE_CREATED", "{} role created", name);
+            } catch (DataIntegrityViolationException e) {
+                return roleRepository.findUncachedByName(name)
+                        .map(existing -> {
+                            roleNameCache.put(name, existing);
+                            return existing;
+                        })
+                        .orElseThrow(() -> e);
+            }
+            roleNameCache.put(name, role);
+            return role;
+        } finally {
+            lock.unlock();
         }
-        return role.get();
     }
 
-    public String deleteRole(String name) throws NotFoundException {
-        Optional<Role> role = roleRepository.findByName(name);
-        if (role.isPresent()) {
-            roleRepository.delete(role.get());
-            log.log(Level.TRACE, name + " role deleted");
-            return "Role deleted.";
+    private static List<String> privilegeNames(Collection<Privilege> privileges) {
+        List<String> names = new ArrayList<>();
+        if (privileges != null) {
+            privileges.forEach(privilege -> names.add(privilege.getName()));
         }
-        log.log(Level.TRACE, name + " role is not found");
-        throw new NotFoundException("Role is not found.");
+        return names;
     }
 
-    public Optional<Role> findRoleByName(String name) {
-        return roleRepository.findByName(name);
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUpNameCache() {
+        roleRepository.findAllWithPrivileges().stream()
+                .limit(roleNameCache.maxSize())
+                .forEach(role -> roleNameCache.put(role.getName(), role));
+        log.debug("{} roles loaded into name cache", roleNameCache.size());
     }
 }
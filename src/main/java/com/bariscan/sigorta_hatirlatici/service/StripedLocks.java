@@ -0,0 +1,27 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks selected by key hash, so callers working on different names rarely contend
+ * while the same name is always guarded by the same lock.
+ */
+public class StripedLocks {
+    private final ReentrantLock[] locks;
+
+    public StripedLocks(int stripes) {
+        if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a power of two");
+        }
+        locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock get(Object key) {
+        int hash = key.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (locks.length - 1)];
+    }
+}
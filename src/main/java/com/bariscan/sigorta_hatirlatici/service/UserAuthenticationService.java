@@ -0,0 +1,122 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.cache.BoundedCache;
+import com.bariscan.sigorta_hatirlatici.config.CacheProperties;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserCredentialsRow;
+import com.bariscan.sigorta_hatirlatici.entity.User;
+import com.bariscan.sigorta_hatirlatici.ratelimit.AttemptRateLimiter;
+import com.bariscan.sigorta_hatirlatici.repository.UserRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Email keyed login path. Credentials and flattened role/privilege authorities are read with a
+ * single join on the normalised {@code email_key} column; emails that do not exist are remembered
+ * for a short time so repeated guesses do not reach the database. Emails and client addresses with
+ * too many failed logins are rejected before either cache or database is consulted.
+ */
+@Service
+@Log4j2
+@Transactional(readOnly = true)
+public class UserAuthenticationService implements UserDetailsService, UserDetailsPasswordService {
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final UserRepository userRepository;
+    private final BoundedCache<String, Long> missingEmailCache;
+    private final long missingEmailTtlMillis;
+    private final Clock clock;
+    private final AttemptRateLimiter attemptRateLimiter;
+
+    public UserAuthenticationService(UserRepository userRepository,
+                                     BoundedCache<String, Long> missingEmailCache,
+                                     CacheProperties cacheProperties,
+                                     Clock clock,
+                                     AttemptRateLimiter attemptRateLimiter) {
+        this.userRepository = userRepository;
+        this.missingEmailCache = missingEmailCache;
+        this.missingEmailTtlMillis = cacheProperties.getMissingEmailTtl().toMillis();
+        this.clock = clock;
+        this.attemptRateLimiter = attemptRateLimiter;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        String emailKey = User.normalizeEmail(email);
+        if (emailKey == null || emailKey.isEmpty()) {
+            throw new UsernameNotFoundException("User not found");
+        }
+        attemptRateLimiter.checkLogin(emailKey);
+        if (isKnownMissing(emailKey)) {
+            throw new UsernameNotFoundException("User not found");
+        }
+        List<UserCredentialsRow> rows = userRepository.findCredentialsByEmailKey(emailKey);
+        if (rows.isEmpty()) {
+            missingEmailCache.put(emailKey, clock.millis() + missingEmailTtlMillis);
+            throw new UsernameNotFoundException("User not found");
+        }
+        UserCredentialsRow first = rows.get(0);
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+        for (UserCredentialsRow row : rows) {
+            if (row.getRoleName() != null) {
+                authorities.add(new SimpleGrantedAuthority(roleAuthority(row.getRoleName())));
+            }
+            if (row.getPrivilegeName() != null) {
+                authorities.add(new SimpleGrantedAuthority(row.getPrivilegeName()));
+            }
+        }
+        return org.springframework.security.core.userdetails.User.withUsername(first.getEmail())
+                .password(first.getPassword())
+                .disabled(!first.isEnabled())
+                .authorities(authorities)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        int updated = userRepository.replacePasswordByEmailKey(
+                User.normalizeEmail(user.getUsername()), user.getPassword(), newPassword);
+        if (updated == 0) {
+            log.debug("Password of {} changed concurrently, skipped rehash", user.getUsername());
+            return user;
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+
+    public void forgetMissingEmail(String email) {
+        String emailKey = User.normalizeEmail(email);
+        if (emailKey != null) {
+            missingEmailCache.remove(emailKey);
+        }
+    }
+
+    private static String roleAuthority(String roleName) {
+        return roleName.startsWith(ROLE_PREFIX) ? roleName : ROLE_PREFIX + roleName;
+    }
+
+    private boolean isKnownMissing(String emailKey) {
+        Long expiresAt = missingEmailCache.get(emailKey).orElse(null);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt <= clock.millis()) {
+            missingEmailCache.remove(emailKey);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,277 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeOutbox;
+import com.bariscan.sigorta_hatirlatici.config.UserImportProperties;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserImportFormat;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserImportResultDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserImportSummaryDto;
+import com.bariscan.sigorta_hatirlatici.entity.User;
+import com.bariscan.sigorta_hatirlatici.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Service
+@Log4j2
+public class UserImportService {
+    private static final String CSV_HEADER = "firstName,lastName,email,password";
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final UserAuthenticationService userAuthenticationService;
+    private final ChangeOutbox changeOutbox;
+    private final int batchSize;
+    private final ThreadPoolExecutor hashingExecutor;
+
+    public UserImportService(UserRepository userRepository,
+                             PasswordEncoder passwordEncoder,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             TransactionTemplate transactionTemplate,
+                             EntityManager entityManager,
+                             UserAuthenticationService userAuthenticationService,
+                             ChangeOutbox changeOutbox,
+                             UserImportProperties properties) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.userAuthenticationService = userAuthenticationService;
+        this.changeOutbox = changeOutbox;
+        this.batchSize = properties.getBatchSize();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashingExecutor = new ThreadPoolExecutor(
+                properties.getHashingThreads(), properties.getHashingThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getHashingQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-import-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public UserImportSummaryDto importUsers(Reader reader, UserImportFormat format,
+                                            Consumer<UserImportResultDto> resultConsumer) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        UserImportSummaryDto summary = new UserImportSummaryDto();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (format == UserImportFormat.CSV && lineNumber == 1 && isCsvHeader(line))) {
+                continue;
+            }
+            batch.add(parse(lineNumber, line, format));
+            if (batch.size() >= batchSize) {
+                processBatch(batch, summary, resultConsumer);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            processBatch(batch, summary, resultConsumer);
+        }
+        log.info("User import finished, {} of {} rows imported", summary.getImported(), summary.getTotal());
+        return summary;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdown();
+    }
+
+    private void processBatch(List<ImportRow> batch, UserImportSummaryDto summary,
+                              Consumer<UserImportResultDto> resultConsumer) {
+        batch.parallelStream()
+                .filter(ImportRow::isValid)
+                .forEach(row -> validator.validate(row.userDto).stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .forEach(row.errors::add));
+
+        markDuplicates(batch);
+
+        List<ImportRow> accepted = batch.stream().filter(ImportRow::isValid).collect(Collectors.toList());
+        List<CompletableFuture<String>> passwords = accepted.stream()
+                .map(row -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(row.userDto.getPassword()), hashingExecutor))
+                .collect(Collectors.toList());
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).encodedPassword = passwords.get(i).join();
+        }
+
+        if (!accepted.isEmpty()) {
+            try {
+                List<User> toSave = accepted.stream().map(this::toUser).collect(Collectors.toList());
+                transactionTemplate.execute(status -> {
+                    save(toSave);
+                    entityManager.clear();
+                    return null;
+                });
+                for (int i = 0; i < accepted.size(); i++) {
+                    accepted.get(i).userId = toSave.get(i).getId();
+                }
+            } catch (DataIntegrityViolationException e) {
+                log.debug("User import batch hit a concurrent insert, retrying {} rows one by one", accepted.size());
+                accepted.forEach(this::saveRow);
+            }
+        }
+        accepted.stream()
+                .filter(row -> row.userId != null)
+                .forEach(row -> userAuthenticationService.forgetMissingEmail(row.userDto.getEmail()));
+
+        for (ImportRow row : batch) {
+            summary.setTotal(summary.getTotal() + 1);
+            if (row.userId != null) {
+                summary.setImported(summary.getImported() + 1);
+            } else {
+                summary.setRejected(summary.getRejected() + 1);
+            }
+            resultConsumer.accept(row.toResult());
+        }
+    }
+
+    private void markDuplicates(List<ImportRow> batch) {
+        Set<String> emails = batch.stream()
+                .filter(ImportRow::isValid)
+                .map(row -> User.normalizeEmail(row.userDto.getEmail()))
+                .collect(Collectors.toSet());
+        if (emails.isEmpty()) {
+            return;
+        }
+        Set<String> existing = userRepository.findExistingEmails(emails);
+        Set<String> seen = new HashSet<>();
+        for (ImportRow row : batch) {
+            String emailKey = row.isValid() ? User.normalizeEmail(row.userDto.getEmail()) : null;
+            if (row.isValid() && (existing.contains(emailKey) || !seen.add(emailKey))) {
+                row.duplicate = true;
+                row.errors.add("email already exists");
+            }
+        }
+    }
+
+    /**
+     * Emails inserted by another request after {@link #markDuplicates} ran fail the unique index;
+     * such a row is reported as a duplicate instead of failing the whole import.
+     */
+    private void saveRow(ImportRow row) {
+        User user = toUser(row);
+        try {
+            transactionTemplate.execute(status -> {
+                save(List.of(user));
+                return null;
+            });
+            row.userId = user.getId();
+        } catch (DataIntegrityViolationException e) {
+            row.duplicate = true;
+            row.errors.add("email already exists");
+        }
+    }
+
+    private void save(List<User> users) {
+        userRepository.saveAll(users);
+        users.forEach(user -> changeOutbox.record(ChangeOutbox.USER, user.getId(), "USER_CREATED",
+                UserService.toProfile(user)));
+        // flushed through the repository so a unique violation is translated
+        userRepository.flush();
+    }
+
+    private User toUser(ImportRow row) {
+        return User.builder()
+                .firstName(row.userDto.getFirstName())
+                .lastName(row.userDto.getLastName())
+                .email(row.userDto.getEmail())
+                .password(row.encodedPassword)
+                .enabled(true)
+                .roles(null)
+                .build();
+    }
+
+    private ImportRow parse(long lineNumber, String line, UserImportFormat format) {
+        ImportRow row = new ImportRow(lineNumber);
+        if (format == UserImportFormat.JSON_LINES) {
+            try {
+                row.userDto = objectMapper.readValue(line, UserDto.class);
+                if (row.userDto == null) {
+                    row.errors.add("malformed json: expected an object");
+                }
+            } catch (JsonProcessingException e) {
+                row.errors.add("malformed json: " + e.getOriginalMessage());
+            }
+            return row;
+        }
+        String[] columns = line.split(",", -1);
+        if (columns.length != 4) {
+            row.errors.add("expected 4 columns but found " + columns.length);
+            return row;
+        }
+        row.userDto = UserDto.builder()
+                .firstName(columns[0].trim())
+                .lastName(columns[1].trim())
+                .email(columns[2].trim())
+                .password(columns[3])
+                .build();
+        return row;
+    }
+
+    private boolean isCsvHeader(String line) {
+        return line.replace(" ", "").equalsIgnoreCase(CSV_HEADER);
+    }
+
+    private static final class ImportRow {
+        private final long line;
+        private final List<String> errors = new ArrayList<>();
+        private UserDto userDto;
+        private String encodedPassword;
+        private boolean duplicate;
+        private Long userId;
+
+        private ImportRow(long line) {
+            this.line = line;
+        }
+
+        private boolean isValid() {
+            return errors.isEmpty();
+        }
+
+        private UserImportResultDto toResult() {
+            return UserImportResultDto.builder()
+                    .line(line)
+                    .email(userDto == null ? null : userDto.getEmail())
+                    .status(userId != null ? UserImportResultDto.Status.IMPORTED
+                            : duplicate ? UserImportResultDto.Status.DUPLICATE : UserImportResultDto.Status.INVALID)
+                    .userId(userId)
+                    .errors(errors)
+                    .build();
+        }
+    }
+}
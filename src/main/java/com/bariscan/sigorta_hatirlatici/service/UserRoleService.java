@@ -0,0 +1,164 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.audit.AuditLog;
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeOutbox;
+import com.bariscan.sigorta_hatirlatici.config.UserRoleProperties;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.BulkRoleResultDto;
+import com.bariscan.sigorta_hatirlatici.entity.User;
+import com.bariscan.sigorta_hatirlatici.exceptions.BadRequestException;
+import com.bariscan.sigorta_hatirlatici.exceptions.NotFoundException;
+import com.bariscan.sigorta_hatirlatici.repository.RoleRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Set based role grants and revocations. {@code users_roles} rows are written with
+ * {@code insert ... select} and {@code delete ... in} statements over chunks of user ids, or with
+ * a single statement for an email prefix, instead of loading and rewriting each user's role
+ * collection. Ids are sorted before chunking so concurrent bulk changes lock rows in the same order.
+ */
+@Service
+@Log4j2
+@RequiredArgsConstructor
+@Transactional
+public class UserRoleService {
+    private static final String GRANT_TO_IDS = "insert into users_roles (user_id, role_id) select u.id, ? from users u "
+            + "where u.id in (%s) and not exists "
+            + "(select 1 from users_roles ur where ur.user_id = u.id and ur.role_id = ?)";
+    private static final String REVOKE_FROM_IDS = "delete from users_roles where role_id = ? and user_id in (%s)";
+    private static final String GRANT_TO_PREFIX = "insert into users_roles (user_id, role_id) select u.id, ? from users u "
+            + "where u.email_key like ? escape '\\' and not exists "
+            + "(select 1 from users_roles ur where ur.user_id = u.id and ur.role_id = ?)";
+    private static final String REVOKE_FROM_PREFIX = "delete from users_roles where role_id = ? and user_id in "
+            + "(select u.id from users u where u.email_key like ? escape '\\')";
+
+    private final RoleRepository roleRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final AuthorityService authorityService;
+    private final AuditLog auditLog;
+    private final ChangeOutbox changeOutbox;
+    private final UserRoleProperties userRoleProperties;
+
+    @Timed("app.service")
+    public BulkRoleResultDto grantRole(Long roleId, Collection<Long> userIds) {
+        requireRole(roleId);
+        long granted = 0;
+        for (List<Long> chunk : chunks(userIds)) {
+            Object[] arguments = new Object[chunk.size() + 2];
+            arguments[0] = roleId;
+            for (int i = 0; i < chunk.size(); i++) {
+                arguments[i + 1] = chunk.get(i);
+            }
+            arguments[arguments.length - 1] = roleId;
+            granted += jdbcTemplate.update(String.format(GRANT_TO_IDS, placeholders(chunk.size())), arguments);
+        }
+        if (granted > 0) {
+            authorityService.evictUsers(userIds);
+        }
+        auditLog.record("ROLE_GRANTED", "Role {} was granted to {} of {} users", roleId, granted, userIds.size());
+        return record("ROLE_GRANTED", roleId, granted);
+    }
+
+    @Timed("app.service")
+    public BulkRoleResultDto revokeRole(Long roleId, Collection<Long> userIds) {
+        requireRole(roleId);
+        long revoked = 0;
+        for (List<Long> chunk : chunks(userIds)) {
+            Object[] arguments = new Object[chunk.size() + 1];
+            arguments[0] = roleId;
+            for (int i = 0; i < chunk.size(); i++) {
+                arguments[i + 1] = chunk.get(i);
+            }
+            revoked += jdbcTemplate.update(String.format(REVOKE_FROM_IDS, placeholders(chunk.size())), arguments);
+        }
+        if (revoked > 0) {
+            authorityService.evictUsers(userIds);
+        }
+        auditLog.record("ROLE_REVOKED", "Role {} was revoked from {} of {} users", roleId, revoked, userIds.size());
+        return record("ROLE_REVOKED", roleId, revoked);
+    }
+
+    @Timed("app.service")
+    public BulkRoleResultDto grantRoleByEmailPrefix(Long roleId, String emailPrefix) {
+        String pattern = likePattern(emailPrefix);
+        requireRole(roleId);
+        long granted = jdbcTemplate.update(GRANT_TO_PREFIX, roleId, pattern, roleId);
+        if (granted > 0) {
+            authorityService.evictAll();
+        }
+        auditLog.record("ROLE_GRANTED", "Role {} was granted to {} users matching {}", roleId, granted, emailPrefix);
+        return record("ROLE_GRANTED", roleId, granted);
+    }
+
+    @Timed("app.service")
+    public BulkRoleResultDto revokeRoleByEmailPrefix(Long roleId, String emailPrefix) {
+        String pattern = likePattern(emailPrefix);
+        requireRole(roleId);
+        long revoked = jdbcTemplate.update(REVOKE_FROM_PREFIX, roleId, pattern);
+        if (revoked > 0) {
+            authorityService.evictAll();
+        }
+        auditLog.record("ROLE_REVOKED", "Role {} was revoked from {} users matching {}", roleId, revoked, emailPrefix);
+        return record("ROLE_REVOKED", roleId, revoked);
+    }
+
+    private void requireRole(Long roleId) {
+        if (roleId == null || !roleRepository.existsById(roleId)) {
+            throw new NotFoundException("Role not found");
+        }
+        // pending role collection changes must reach users_roles before the statements below
+        entityManager.flush();
+    }
+
+    private List<List<Long>> chunks(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> sorted = new ArrayList<>(new TreeSet<>(userIds));
+        int chunkSize = userRoleProperties.getChunkSize();
+        List<List<Long>> chunks = new ArrayList<>((sorted.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < sorted.size(); from += chunkSize) {
+            chunks.add(sorted.subList(from, Math.min(from + chunkSize, sorted.size())));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder placeholders = new StringBuilder(count * 2);
+        for (int i = 0; i < count; i++) {
+            placeholders.append(i == 0 ? "?" : ",?");
+        }
+        return placeholders.toString();
+    }
+
+    private static String likePattern(String emailPrefix) {
+        String key = User.normalizeEmail(emailPrefix);
+        if (key == null || key.isEmpty()) {
+            throw new BadRequestException("Email prefix is required.");
+        }
+        return key.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private BulkRoleResultDto record(String eventType, Long roleId, long changed) {
+        BulkRoleResultDto result = BulkRoleResultDto.builder()
+                .roleId(roleId)
+                .changed(changed)
+                .build();
+        if (changed > 0) {
+            changeOutbox.record(ChangeOutbox.ROLE, roleId, eventType, result);
+        }
+        return result;
+    }
+}
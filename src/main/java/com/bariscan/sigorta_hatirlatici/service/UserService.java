@@ -1,20 +1,42 @@
 package com.bariscan.sigorta_hatirlatici.service;
 
+import com.bariscan.sigorta_hatirlatici.audit.AuditLog;
+import com.bariscan.sigorta_hatirlatici.cache.VersionStamp;
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeOutbox;
+import com.bariscan.sigorta_hatirlatici.cache.VersionedCache;
 import com.bariscan.sigorta_hatirlatici.dto.userDtos.ChangePassDto;
 import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserPageDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserProfileDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserSortField;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserSummary;
+import com.bariscan.sigorta_hatirlatici.entity.Role;
 import com.bariscan.sigorta_hatirlatici.entity.User;
+import com.bariscan.sigorta_hatirlatici.exceptions.BadRequestException;
+import com.bariscan.sigorta_hatirlatici.exceptions.ConflictException;
 import com.bariscan.sigorta_hatirlatici.exceptions.NotFoundException;
+import com.bariscan.sigorta_hatirlatici.exceptions.TooManyRequestsException;
+import com.bariscan.sigorta_hatirlatici.ratelimit.AttemptRateLimiter;
 import com.bariscan.sigorta_hatirlatici.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.annotation.Validated;
 
 import javax.validation.Valid;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -22,42 +44,232 @@ import java.util.Optional;
 @Log4j2
 @Transactional
 public class UserService {
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthorityService authorityService;
+    private final PasswordHashingService passwordHashingService;
+    private final UserAuthenticationService userAuthenticationService;
+    private final AuditLog auditLog;
+    private final VersionedCache<UserProfileDto> userProfileCache;
+    private final AttemptRateLimiter attemptRateLimiter;
+    private final ChangeOutbox changeOutbox;
+    private final TransactionTemplate transactionTemplate;
 
+    @Timed("app.service")
     public User createNewUser(UserDto userDto) {
-        User user = User.builder()
-                .firstName(userDto.getFirstName())
-                .lastName(userDto.getLastName())
-                .email(userDto.getEmail())
-                .password(passwordEncoder.encode(userDto.getPassword()))
-                .enabled(true)
-                .roles(null)
-                .build();
+        User user = buildUser(userDto, passwordEncoder.encode(userDto.getPassword()));
 
-        log.trace("User " + user.getEmail() + " was created on " + new Date());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userAuthenticationService.forgetMissingEmail(saved.getEmail());
+        changeOutbox.record(ChangeOutbox.USER, saved.getId(), "USER_CREATED", toProfile(saved));
+        auditLog.record("USER_CREATED", "User {} was created", saved.getEmail());
+        return saved;
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<User> createNewUserAsync(UserDto userDto) {
+        return passwordHashingService.encode(userDto.getPassword())
+                .thenApply(encodedPassword -> {
+                    User user = transactionTemplate.execute(status -> {
+                        User saved = userRepository.save(buildUser(userDto, encodedPassword));
+                        changeOutbox.record(ChangeOutbox.USER, saved.getId(), "USER_CREATED", toProfile(saved));
+                        return saved;
+                    });
+                    userAuthenticationService.forgetMissingEmail(user.getEmail());
+                    auditLog.record("USER_CREATED", "User {} was created", user.getEmail());
+                    return user;
+                });
+    }
+
+    /**
+     * Blocking variant of {@link #changePasswordAsync}, so both check the current password and hash
+     * the new one the same way, on the bounded hashing pool.
+     */
+    @Timed("app.service")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String changePassword(ChangePassDto changePassDto) throws NotFoundException {
+        try {
+            return changePasswordAsync(changePassDto).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<String> changePasswordAsync(ChangePassDto changePassDto) throws NotFoundException {
+        attemptRateLimiter.acquirePasswordAttempt(changePassDto.getId());
         User user = userRepository.findById(changePassDto.getId()).orElseThrow(() -> new NotFoundException("User not found"));
+        if (changePassDto.getVersion() != null && changePassDto.getVersion() != user.getVersion()) {
+            throw new ConflictException("User was changed by another request.");
+        }
 
         if(!changePassDto.getNewPass().equals(changePassDto.getNewPassAgain())){
-            log.trace("User " + user.getEmail() + " tried to change password on " + new Date());
-            return "Passwords are not same.";
-        }
-        if(passwordEncoder.matches(changePassDto.getNewPass(),user.getPassword())){
-            user.setPassword(passwordEncoder.encode(changePassDto.getNewPass()));
-            userRepository.save(user);
-            log.trace("User " + user.getEmail() + " changed password on " + new Date());
-            return "Password changed.";
-        }else{
-            log.trace("User " + user.getEmail() + " tried to change password on " + new Date());
-            return "Password is not correct.";
+            auditLog.record("PASSWORD_CHANGE_REJECTED", "User {} tried to change password", user.getEmail());
+            return CompletableFuture.completedFuture("Passwords are not same.");
         }
+        String currentPassword = user.getPassword();
+        return passwordHashingService.matches(changePassDto.getPassword(), currentPassword)
+                .thenCompose(matched -> {
+                    if (!matched) {
+                        auditLog.record("PASSWORD_CHANGE_REJECTED", "User {} tried to change password", user.getEmail());
+                        return CompletableFuture.completedFuture("Password is not correct.");
+                    }
+                    return passwordHashingService.encode(changePassDto.getNewPass())
+                            .thenApply(encodedPassword -> {
+                                if (!replacePassword(user.getId(), currentPassword, encodedPassword, "PASSWORD_CHANGED")) {
+                                    throw new ConflictException("Password was changed by another request.");
+                                }
+                                auditLog.record("PASSWORD_CHANGED", "User {} changed password", user.getEmail());
+                                return "Password changed.";
+                            });
+                });
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Boolean> verifyPasswordAsync(Long id, String rawPassword) throws NotFoundException {
+        attemptRateLimiter.acquirePasswordAttempt(id);
+        User user = userRepository.findById(id).orElseThrow(() -> new NotFoundException("User not found"));
+        String currentPassword = user.getPassword();
+        return passwordHashingService.matches(rawPassword, currentPassword)
+                .thenCompose(matched -> matched
+                        ? rehashIfNeeded(user, currentPassword, rawPassword).thenApply(ignored -> true)
+                        : CompletableFuture.completedFuture(false));
+    }
+
+    @Timed("app.service")
+    public User assignRoles(Long id, Collection<Role> roles) throws NotFoundException {
+        User user = userRepository.findById(id).orElseThrow(() -> new NotFoundException("User not found"));
+        user.setRoles(new ArrayList<>(roles));
+        User saved = userRepository.saveAndFlush(user);
+        authorityService.evictUser(id);
+        changeOutbox.record(ChangeOutbox.USER, id, "USER_ROLES_CHANGED", toProfile(saved));
+        auditLog.record("USER_ROLES_CHANGED", "User {} roles changed", user.getEmail());
+        return saved;
     }
 
     public Optional<User> findUserById(Long id){
         return userRepository.findById(id);
     }
+
+    @Transactional(readOnly = true)
+    public VersionStamp findVersionStamp(Long id) throws NotFoundException {
+        return userRepository.findVersionStampById(id).orElseThrow(() -> new NotFoundException("User not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public UserProfileDto getUserProfile(VersionStamp stamp) throws NotFoundException {
+        return userProfileCache.getOrLoad(stamp.getId(), stamp.getVersion(), () -> {
+            User user = userRepository.findById(stamp.getId()).orElseThrow(() -> new NotFoundException("User not found"));
+            return toProfile(user);
+        }, UserProfileDto::getVersion);
+    }
+
+    @Transactional(readOnly = true)
+    public UserPageDto listUsers(UserSortField sort, String after, String emailPrefix, int size) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        List<UserSummary> users;
+        if (emailPrefix != null && !emailPrefix.isBlank()) {
+            users = userRepository.findByEmailStartingWithAndEmailGreaterThanOrderByEmailAsc(
+                    emailPrefix, after == null ? "" : after, page);
+            sort = UserSortField.EMAIL;
+        } else if (sort == UserSortField.EMAIL) {
+            users = userRepository.findByEmailGreaterThanOrderByEmailAsc(after == null ? "" : after, page);
+        } else {
+            users = userRepository.findByIdGreaterThanOrderByIdAsc(parseIdCursor(after), page);
+        }
+        String nextCursor = null;
+        if (users.size() == page.getPageSize()) {
+            UserSummary last = users.get(users.size() - 1);
+            nextCursor = sort == UserSortField.EMAIL ? last.getEmail() : String.valueOf(last.getId());
+        }
+        return UserPageDto.builder()
+                .items(users)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void forEachUserPage(UserSortField sort, String emailPrefix, Consumer<List<UserSummary>> pageConsumer) {
+        String cursor = null;
+        do {
+            UserPageDto page = listUsers(sort, cursor, emailPrefix, MAX_PAGE_SIZE);
+            if (!page.getItems().isEmpty()) {
+                pageConsumer.accept(page.getItems());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+    }
+
+    private Long parseIdCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.valueOf(after);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+
+    private CompletableFuture<Void> rehashIfNeeded(User user, String currentPassword, String rawPassword) {
+        if (!passwordHashingService.needsRehash(currentPassword)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return passwordHashingService.encode(rawPassword)
+                    .thenAccept(encodedPassword -> {
+                        if (replacePassword(user.getId(), currentPassword, encodedPassword, "PASSWORD_REHASHED")) {
+                            auditLog.record("PASSWORD_REHASHED", "User {} password rehashed with current cost", user.getEmail());
+                        }
+                    })
+                    .exceptionally(e -> {
+                        log.warn("Password rehash failed for user {}", user.getId(), e);
+                        return null;
+                    });
+        } catch (TooManyRequestsException e) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Swaps the hash only if it is still {@code currentPassword} and records the change in the same
+     * transaction. The profile is read back because the update bumped the version.
+     */
+    private boolean replacePassword(Long id, String currentPassword, String encodedPassword, String eventType) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (userRepository.replacePassword(id, currentPassword, encodedPassword) == 0) {
+                return false;
+            }
+            User user = userRepository.findById(id).orElseThrow(() -> new NotFoundException("User not found"));
+            changeOutbox.record(ChangeOutbox.USER, id, eventType, toProfile(user));
+            return true;
+        }));
+    }
+
+    static UserProfileDto toProfile(User user) {
+        return UserProfileDto.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .enabled(user.isEnabled())
+                .version(user.getVersion())
+                .build();
+    }
+
+    private User buildUser(UserDto userDto, String encodedPassword) {
+        return User.builder()
+                .firstName(userDto.getFirstName())
+                .lastName(userDto.getLastName())
+                .email(userDto.getEmail())
+                .password(encodedPassword)
+                .enabled(true)
+                .roles(null)
+                .build();
+    }
 }
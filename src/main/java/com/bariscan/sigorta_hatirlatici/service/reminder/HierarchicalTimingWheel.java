@@ -0,0 +1,199 @@
+package com.bariscan.sigorta_hatirlatici.service.reminder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel keyed by a long id. Level {@code n} has {@code 2^bits} slots that each
+ * span {@code tickMillis * 2^(bits * n)}; entries move down a level whenever the slot they sit in
+ * comes up, so scheduling, cancelling and firing are all O(1) per entry. Apart from the slot arrays
+ * memory is proportional to the number of pending entries.
+ */
+public final class HierarchicalTimingWheel<T> {
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final int levelCount;
+    private final Entry<T>[][] slots;
+    private final Map<Long, Entry<T>> entries = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int bits, int levelCount, long startMillis) {
+        if (tickMillis < 1 || bits < 1 || bits > 16 || levelCount < 1 || bits * levelCount > 62) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = bits;
+        this.mask = (1 << bits) - 1;
+        this.levelCount = levelCount;
+        this.slots = new Entry[levelCount + 1][];
+        for (int level = 0; level < levelCount; level++) {
+            slots[level] = new Entry[1 << bits];
+        }
+        slots[levelCount] = new Entry[1];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public void schedule(long key, long deadlineMillis, T payload) {
+        lock.lock();
+        try {
+            Entry<T> entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry<>(key);
+                entries.put(key, entry);
+            } else {
+                unlink(entry);
+            }
+            entry.deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;
+            entry.payload = payload;
+            place(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean cancel(long key) {
+        lock.lock();
+        try {
+            Entry<T> entry = entries.remove(key);
+            if (entry == null) {
+                return false;
+            }
+            unlink(entry);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean contains(long key) {
+        lock.lock();
+        try {
+            return entries.containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and passes every expired payload to
+     * {@code expired}. The consumer runs after the wheel lock has been released.
+     */
+    public int advanceTo(long nowMillis, Consumer<T> expired) {
+        List<T> fired = new ArrayList<>();
+        lock.lock();
+        try {
+            long targetTick = nowMillis / tickMillis;
+            while (currentTick < targetTick) {
+                currentTick++;
+                cascade();
+                replaceAll(0, (int) (currentTick & mask));
+            }
+            Entry<T> entry = slots[levelCount][0];
+            slots[levelCount][0] = null;
+            while (entry != null) {
+                Entry<T> next = entry.next;
+                entries.remove(entry.key);
+                fired.add(entry.payload);
+                entry.next = null;
+                entry = next;
+            }
+        } finally {
+            lock.unlock();
+        }
+        fired.forEach(expired);
+        return fired.size();
+    }
+
+    private void cascade() {
+        for (int level = 1; level < levelCount; level++) {
+            if ((currentTick & ((1L << (level * bits)) - 1)) != 0) {
+                return;
+            }
+            replaceAll(level, (int) ((currentTick >> (level * bits)) & mask));
+        }
+    }
+
+    private void replaceAll(int level, int slot) {
+        Entry<T> entry = slots[level][slot];
+        slots[level][slot] = null;
+        while (entry != null) {
+            Entry<T> next = entry.next;
+            entry.prev = null;
+            entry.next = null;
+            place(entry);
+            entry = next;
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            link(entry, levelCount, 0);
+            return;
+        }
+        for (int level = 0; level < levelCount; level++) {
+            if (delta < (1L << ((level + 1) * bits))) {
+                link(entry, level, (int) ((entry.deadlineTick >> (level * bits)) & mask));
+                return;
+            }
+        }
+        int top = levelCount - 1;
+        long parkTick = currentTick + (1L << (levelCount * bits)) - 1;
+        link(entry, top, (int) ((parkTick >> (top * bits)) & mask));
+    }
+
+    private void link(Entry<T> entry, int level, int slot) {
+        Entry<T> head = slots[level][slot];
+        entry.level = level;
+        entry.slot = slot;
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        slots[level][slot] = entry;
+    }
+
+    private void unlink(Entry<T> entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            slots[entry.level][entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private static final class Entry<T> {
+        private final long key;
+        private long deadlineTick;
+        private T payload;
+        private int level;
+        private int slot;
+        private Entry<T> prev;
+        private Entry<T> next;
+
+        private Entry(long key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.bariscan.sigorta_hatirlatici.service.reminder;
+
+import com.bariscan.sigorta_hatirlatici.dto.reminderDtos.ReminderMessage;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@Log4j2
+@ConditionalOnProperty(name = "app.reminder.sender", havingValue = "log", matchIfMissing = true)
+public class LoggingReminderSender implements ReminderSender {
+
+    @Override
+    public void send(ReminderMessage message, CharSequence body) {
+        log.info("Reminder {} for policy {} due on {} sent to user {} ({} chars)", message.getIdempotencyKey(),
+                message.getPolicyNumber(), message.getDueDate(), message.getUserId(), body.length());
+    }
+}
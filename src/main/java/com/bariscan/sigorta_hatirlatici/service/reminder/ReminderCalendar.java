@@ -0,0 +1,34 @@
+package com.bariscan.sigorta_hatirlatici.service.reminder;
+
+import com.bariscan.sigorta_hatirlatici.config.ReminderProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * Decides when the reminder of a payment becomes due: {@code leadDays} before the due date, at
+ * {@code sendTime} in the clock's zone.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReminderCalendar {
+    private final ReminderProperties reminderProperties;
+    private final Clock clock;
+
+    public Instant remindAt(LocalDate dueDate) {
+        return dueDate.minusDays(reminderProperties.getLeadDays())
+                .atTime(reminderProperties.getSendTime())
+                .atZone(clock.getZone())
+                .toInstant();
+    }
+
+    public LocalDate lastDueDateToRemind(Instant now) {
+        ZonedDateTime localNow = now.atZone(clock.getZone());
+        LocalDate lastDueDate = localNow.toLocalDate().plusDays(reminderProperties.getLeadDays());
+        return localNow.toLocalTime().isBefore(reminderProperties.getSendTime()) ? lastDueDate.minusDays(1) : lastDueDate;
+    }
+}
@@ -0,0 +1,13 @@
+package com.bariscan.sigorta_hatirlatici.service.reminder;
+
+import com.bariscan.sigorta_hatirlatici.dto.reminderDtos.ReminderMessage;
+
+/**
+ * Delivers a payment reminder to its recipient. Implementations may be called again with the same
+ * {@link ReminderMessage#getIdempotencyKey()} after a crash and should use it to drop duplicates.
+ * The rendered body lives in a pooled buffer that is reused once {@code send} returns, so it has to
+ * be written out or copied before then.
+ */
+public interface ReminderSender {
+    void send(ReminderMessage message, CharSequence body) throws Exception;
+}
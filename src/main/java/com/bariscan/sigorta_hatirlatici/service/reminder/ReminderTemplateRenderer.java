@@ -0,0 +1,232 @@
+package com.bariscan.sigorta_hatirlatici.service.reminder;
+
+import com.bariscan.sigorta_hatirlatici.config.ReminderProperties;
+import com.bariscan.sigorta_hatirlatici.dto.reminderDtos.ReminderMessage;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import javax.annotation.PreDestroy;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Renders reminder mails with a template engine of its own, so the web view settings (devtools
+ * turns the template cache off) never apply to the nightly run. Templates are parsed once at
+ * startup and kept in the engine cache, and expressions are compiled to bytecode by the SpEL
+ * compiler. Each rendering thread borrows a slot holding a reusable context and output buffer from
+ * a pool, and batches above {@code parallelThreshold} are split across a fixed pool of render
+ * threads, with the calling thread rendering the first chunk itself.
+ */
+@Component
+@Log4j2
+public class ReminderTemplateRenderer {
+    private static final String MESSAGE_VARIABLE = "reminder";
+
+    private final TemplateEngine templateEngine;
+    private final String template;
+    private final int threads;
+    private final int parallelThreshold;
+    private final int maxBufferChars;
+    private final ExecutorService executor;
+    private final Queue<RenderSlot> idleSlots = new ConcurrentLinkedQueue<>();
+    private final LongAdder renderedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+
+    public ReminderTemplateRenderer(ReminderProperties properties) {
+        ReminderProperties.Render render = properties.getRender();
+        this.templateEngine = createTemplateEngine();
+        this.template = render.getTemplate();
+        this.threads = Math.max(1, render.getThreads());
+        this.parallelThreshold = Math.max(1, render.getParallelThreshold());
+        this.maxBufferChars = render.getMaxBufferChars();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "reminder-render-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        precompile();
+    }
+
+    /**
+     * Renders a single reminder into a new string.
+     */
+    public String render(ReminderMessage message) {
+        RenderSlot slot = borrow();
+        try {
+            return slot.render(message).toString();
+        } finally {
+            release(slot);
+        }
+    }
+
+    /**
+     * Renders every message and passes the body to {@code handler} straight from the pooled
+     * buffer. A failure to render or handle one message does not stop the others.
+     *
+     * @return the messages that failed, in batch order
+     */
+    public List<ReminderMessage> renderBatch(List<ReminderMessage> messages, RenderedReminderHandler handler) {
+        int chunks = Math.min(threads, messages.size() / parallelThreshold);
+        if (chunks <= 1) {
+            return renderChunk(messages, handler);
+        }
+        int chunkSize = (messages.size() + chunks - 1) / chunks;
+        List<CompletableFuture<List<ReminderMessage>>> forked = new ArrayList<>(chunks - 1);
+        for (int from = chunkSize; from < messages.size(); from += chunkSize) {
+            List<ReminderMessage> chunk = messages.subList(from, Math.min(from + chunkSize, messages.size()));
+            forked.add(CompletableFuture.supplyAsync(() -> renderChunk(chunk, handler), executor));
+        }
+        List<ReminderMessage> failed = renderChunk(messages.subList(0, chunkSize), handler);
+        for (CompletableFuture<List<ReminderMessage>> future : forked) {
+            failed.addAll(future.join());
+        }
+        return failed;
+    }
+
+    public long renderedCount() {
+        return renderedCount.sum();
+    }
+
+    public long failedCount() {
+        return failedCount.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private List<ReminderMessage> renderChunk(List<ReminderMessage> messages, RenderedReminderHandler handler) {
+        List<ReminderMessage> failed = new ArrayList<>();
+        RenderSlot slot = borrow();
+        try {
+            for (ReminderMessage message : messages) {
+                try {
+                    handler.handle(message, slot.render(message));
+                } catch (Exception e) {
+                    log.warn("Reminder {} for payment {} could not be rendered or delivered",
+                            message.getIdempotencyKey(), message.getPaymentId(), e);
+                    failed.add(message);
+                }
+            }
+        } finally {
+            release(slot);
+        }
+        renderedCount.add(messages.size() - failed.size());
+        failedCount.add(failed.size());
+        return failed;
+    }
+
+    private RenderSlot borrow() {
+        RenderSlot slot = idleSlots.poll();
+        return slot != null ? slot : new RenderSlot();
+    }
+
+    private void release(RenderSlot slot) {
+        if (slot.buffer.capacity() <= maxBufferChars) {
+            idleSlots.offer(slot);
+        }
+    }
+
+    private void precompile() {
+        render(ReminderMessage.builder()
+                .idempotencyKey("precompile")
+                .firstName("precompile")
+                .policyNumber("precompile")
+                .plateNumber("precompile")
+                .dueDate(LocalDate.now())
+                .amount(BigDecimal.ONE)
+                .build());
+        log.info("Reminder template {} compiled", template);
+    }
+
+    private static TemplateEngine createTemplateEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resolver.setCacheable(true);
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        engine.setEnableSpringELCompiler(true);
+        return engine;
+    }
+
+    private final class RenderSlot {
+        private final Context context = new Context();
+        private final RenderBuffer buffer = new RenderBuffer();
+
+        CharSequence render(ReminderMessage message) {
+            buffer.reset();
+            context.setVariable(MESSAGE_VARIABLE, message);
+            templateEngine.process(template, context, buffer);
+            return buffer.content();
+        }
+    }
+
+    /**
+     * Unsynchronised writer over a reusable {@link StringBuilder}.
+     */
+    private static final class RenderBuffer extends Writer {
+        private final StringBuilder content = new StringBuilder(4 * 1024);
+
+        @Override
+        public void write(int c) {
+            content.append((char) c);
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            content.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String string, int offset, int length) {
+            content.append(string, offset, offset + length);
+        }
+
+        @Override
+        public Writer append(CharSequence sequence) {
+            content.append(sequence);
+            return this;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        void reset() {
+            content.setLength(0);
+        }
+
+        int capacity() {
+            return content.capacity();
+        }
+
+        CharSequence content() {
+            return content;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.bariscan.sigorta_hatirlatici.service.reminder;
+
+import com.bariscan.sigorta_hatirlatici.dto.reminderDtos.ReminderMessage;
+
+/**
+ * Receives each reminder of a batch rendered by {@link ReminderTemplateRenderer}, possibly on
+ * several threads at once. The body is only valid until the call returns.
+ */
+@FunctionalInterface
+public interface RenderedReminderHandler {
+    void handle(ReminderMessage message, CharSequence body) throws Exception;
+}
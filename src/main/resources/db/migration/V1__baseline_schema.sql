@@ -0,0 +1,90 @@
+create sequence user_seq start with 1 increment by 50;
+create sequence policy_seq start with 1 increment by 50;
+create sequence payment_seq start with 1 increment by 50;
+create sequence privilege_seq start with 1 increment by 50;
+
+create table users (
+    id         bigint       not null,
+    first_name varchar(20)  not null,
+    last_name  varchar(20)  not null,
+    email      varchar(50)  not null,
+    email_key  varchar(50)  not null,
+    password   varchar(255) not null,
+    enabled    boolean      not null,
+    constraint pk_users primary key (id),
+    constraint uk_users_email unique (email),
+    constraint uk_users_email_key unique (email_key)
+);
+
+create table role (
+    id   bigint generated by default as identity,
+    name varchar(255) not null,
+    constraint pk_role primary key (id),
+    constraint uk_role_name unique (name)
+);
+
+create table privilege (
+    id   bigint       not null,
+    name varchar(255) not null,
+    constraint pk_privilege primary key (id),
+    constraint uk_privilege_name unique (name)
+);
+
+create table users_roles (
+    user_id bigint not null,
+    role_id bigint not null,
+    constraint pk_users_roles primary key (user_id, role_id),
+    constraint fk_users_roles_user foreign key (user_id) references users (id),
+    constraint fk_users_roles_role foreign key (role_id) references role (id)
+);
+create index idx_users_roles_role_id on users_roles (role_id);
+
+create table roles_privileges (
+    role_id      bigint not null,
+    privilege_id bigint not null,
+    constraint pk_roles_privileges primary key (role_id, privilege_id),
+    constraint fk_roles_privileges_role foreign key (role_id) references role (id),
+    constraint fk_roles_privileges_privilege foreign key (privilege_id) references privilege (id)
+);
+create index idx_roles_privileges_privilege_id on roles_privileges (privilege_id);
+
+create table policy (
+    id            bigint         not null,
+    policy_number varchar(255)   not null,
+    plate_number  varchar(255)   not null,
+    insurer       varchar(255)   not null,
+    premium       numeric(19, 2) not null,
+    start_date    date           not null,
+    end_date      date           not null,
+    user_id       bigint         not null,
+    constraint pk_policy primary key (id),
+    constraint uk_policy_policy_number unique (policy_number),
+    constraint fk_policy_user foreign key (user_id) references users (id)
+);
+create index idx_policy_user_id on policy (user_id);
+
+create table payment (
+    id                  bigint         not null,
+    policy_id           bigint         not null,
+    due_date            date           not null,
+    amount              numeric(19, 2) not null,
+    status              varchar(16)    not null,
+    paid_at             timestamp,
+    reminder_status     varchar(16)    not null,
+    reminder_claimed_by varchar(255),
+    reminder_claimed_at timestamp,
+    reminded_at         timestamp,
+    reminder_attempts   integer        not null,
+    constraint pk_payment primary key (id),
+    constraint uk_payment_policy_due_date unique (policy_id, due_date),
+    constraint fk_payment_policy foreign key (policy_id) references policy (id)
+);
+create index idx_payment_status_due_date on payment (status, due_date, id);
+create index idx_payment_reminder_status_due_date on payment (reminder_status, due_date);
+
+create table seed_state (
+    name       varchar(255) not null,
+    checksum   varchar(255),
+    applied_at timestamp,
+    constraint pk_seed_state primary key (name)
+);
@@ -0,0 +1,2 @@
+alter table role add column deleted_at timestamp;
+alter table privilege add column deleted_at timestamp;
@@ -0,0 +1,6 @@
+alter table users add column version bigint default 0 not null;
+alter table users add column updated_at timestamp;
+alter table role add column version bigint default 0 not null;
+alter table role add column updated_at timestamp;
+update users set updated_at = current_timestamp where updated_at is null;
+update role set updated_at = current_timestamp where updated_at is null;
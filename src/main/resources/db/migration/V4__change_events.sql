@@ -0,0 +1,10 @@
+create table change_event (
+    id             bigint generated by default as identity,
+    aggregate_type varchar(32)   not null,
+    aggregate_id   varchar(255)  not null,
+    event_type     varchar(64)   not null,
+    payload        varchar(4000) not null,
+    created_at     timestamp     not null,
+    constraint pk_change_event primary key (id)
+);
+create index idx_change_event_created_at on change_event (created_at);
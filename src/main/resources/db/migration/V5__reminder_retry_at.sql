@@ -0,0 +1 @@
+alter table payment add column reminder_retry_at timestamp;
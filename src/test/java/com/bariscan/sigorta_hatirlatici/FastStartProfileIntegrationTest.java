@@ -0,0 +1,50 @@
+package com.bariscan.sigorta_hatirlatici;
+
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserDto;
+import com.bariscan.sigorta_hatirlatici.entity.User;
+import com.bariscan.sigorta_hatirlatici.service.UserService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:faststart;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+@ActiveProfiles({"it", "faststart"})
+class FastStartProfileIntegrationTest {
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Test
+    void scheduledBeansStayEagerWhileTheRestIsLazy() {
+        //given
+        //when
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(context.getBeanFactory().containsSingleton("changeFeed")),
+                () -> Assertions.assertTrue(context.getBeanFactory().containsSingleton("attemptRateLimiter")),
+                () -> Assertions.assertFalse(context.getBeanFactory().containsSingleton("userController"))
+        );
+    }
+
+    @Test
+    void lazilyCreatedServicesWorkWithoutStartupSchemaValidation() {
+        //given
+        UserService userService = context.getBean(UserService.class);
+        String email = "fs-" + UUID.randomUUID().toString().substring(0, 8) + "@test.com";
+
+        //when
+        User user = userService.createNewUser(UserDto.builder()
+                .firstName("Fast")
+                .lastName("Start")
+                .email(email)
+                .password("123456789")
+                .build());
+
+        //then
+        Assertions.assertEquals(email, userService.findUserById(user.getId()).orElseThrow().getEmail());
+    }
+}
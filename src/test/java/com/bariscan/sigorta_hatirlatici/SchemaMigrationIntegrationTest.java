@@ -0,0 +1,63 @@
+package com.bariscan.sigorta_hatirlatici;
+
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserPageDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserSortField;
+import com.bariscan.sigorta_hatirlatici.entity.User;
+import com.bariscan.sigorta_hatirlatici.service.UserService;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("it")
+class SchemaMigrationIntegrationTest {
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void migrationsAreAppliedAndMatchTheEntities() {
+        //given
+        //when
+        MigrationInfo[] applied = flyway.info().applied();
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(applied.length > 0),
+                () -> Assertions.assertTrue(Arrays.stream(applied).allMatch(info -> info.getState().isApplied())),
+                () -> Assertions.assertEquals(0, flyway.info().pending().length)
+        );
+    }
+
+    @Test
+    void createdUserIsListedByEmailPrefix() {
+        //given
+        String prefix = "it-" + UUID.randomUUID().toString().substring(0, 8);
+        UserDto userDto = UserDto.builder()
+                .firstName("Integration")
+                .lastName("Test")
+                .email(prefix + "@test.com")
+                .password("123456789")
+                .build();
+
+        //when
+        User user = userService.createNewUser(userDto);
+        UserPageDto page = userService.listUsers(UserSortField.EMAIL, null, prefix, 10);
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, page.getItems().size()),
+                () -> Assertions.assertEquals(user.getId(), page.getItems().get(0).getId()),
+                () -> Assertions.assertEquals(prefix + "@test.com", page.getItems().get(0).getEmail())
+        );
+    }
+}
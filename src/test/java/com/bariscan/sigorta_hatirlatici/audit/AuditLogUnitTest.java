@@ -0,0 +1,75 @@
+package com.bariscan.sigorta_hatirlatici.audit;
+
+import com.bariscan.sigorta_hatirlatici.config.AuditProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+public class AuditLogUnitTest {
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void record_should_writeFormattedEventsInBackground() throws Exception {
+        //given
+        Path file = directory.resolve("audit.log");
+        AuditLog auditLog = new AuditLog(properties(file, DataSize.ofMegabytes(1)), CLOCK);
+
+        //when
+        auditLog.record("USER_CREATED", "User {} was created", "bariscan@test.com");
+        auditLog.record("ROLE_DELETED", "{} role deleted", "ADMIN");
+        auditLog.shutdown();
+
+        //then
+        List<String> lines = Files.readAllLines(file);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(2, auditLog.writtenCount()),
+                () -> Assertions.assertEquals(0, auditLog.droppedCount()),
+                () -> Assertions.assertEquals("2024-01-01T00:00:00Z\tUSER_CREATED\tOK\tUser bariscan@test.com was created", lines.get(0)),
+                () -> Assertions.assertEquals("2024-01-01T00:00:00Z\tROLE_DELETED\tOK\tADMIN role deleted", lines.get(1))
+        );
+    }
+
+    @Test
+    public void record_should_rollFile_when_sizeLimitExceeded() throws Exception {
+        //given
+        Path file = directory.resolve("audit.log");
+        AuditProperties properties = properties(file, DataSize.ofBytes(100));
+        properties.setBatchSize(1);
+        AuditLog auditLog = new AuditLog(properties, CLOCK);
+
+        //when
+        for (int i = 0; i < 5; i++) {
+            auditLog.record("USER_CREATED", "User {} was created", "user" + i + "@test.com");
+        }
+        auditLog.shutdown();
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(5, auditLog.writtenCount()),
+                () -> Assertions.assertTrue(Files.exists(directory.resolve("audit.log.1"))),
+                () -> Assertions.assertTrue(Files.exists(directory.resolve("audit.log.2"))),
+                () -> Assertions.assertFalse(Files.exists(directory.resolve("audit.log.3"))),
+                () -> Assertions.assertTrue(Files.readString(file).contains("user4@test.com"))
+        );
+    }
+
+    private AuditProperties properties(Path file, DataSize maxFileSize) {
+        AuditProperties properties = new AuditProperties();
+        properties.setFile(file.toString());
+        properties.setMaxFileSize(maxFileSize);
+        properties.setMaxHistory(2);
+        properties.setDurable(true);
+        return properties;
+    }
+}
@@ -0,0 +1,81 @@
+package com.bariscan.sigorta_hatirlatici.audit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class AuditRingBufferUnitTest {
+
+    @Test
+    public void offer_should_rejectElements_when_bufferIsFull() {
+        //given
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+
+        //when
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(buffer.offer(i));
+        }
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(buffer.offer(4)),
+                () -> Assertions.assertEquals(0, buffer.poll()),
+                () -> Assertions.assertTrue(buffer.offer(4)),
+                () -> Assertions.assertEquals(4, buffer.size())
+        );
+    }
+
+    @Test
+    public void poll_should_returnEveryElementOnce_when_producersRunConcurrently() throws Exception {
+        //given
+        int producers = 4;
+        int perProducer = 10_000;
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(1_024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        //when
+        for (int p = 0; p < producers; p++) {
+            int offset = p * perProducer;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(offset + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        List<Integer> received = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (received.size() < producers * perProducer && System.nanoTime() < deadline) {
+            Integer element = buffer.poll();
+            if (element != null) {
+                received.add(element);
+            }
+        }
+        executor.shutdown();
+
+        //then
+        Set<Integer> unique = new HashSet<>(received);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(producers * perProducer, received.size()),
+                () -> Assertions.assertEquals(received.size(), unique.size()),
+                () -> Assertions.assertTrue(buffer.isEmpty())
+        );
+    }
+}
@@ -0,0 +1,132 @@
+package com.bariscan.sigorta_hatirlatici.changefeed;
+
+import com.bariscan.sigorta_hatirlatici.config.ChangeFeedProperties;
+import com.bariscan.sigorta_hatirlatici.dto.changeDtos.ChangeEventDto;
+import com.bariscan.sigorta_hatirlatici.entity.ChangeEvent;
+import com.bariscan.sigorta_hatirlatici.repository.ChangeEventRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@ExtendWith(MockitoExtension.class)
+public class ChangeFeedUnitTest {
+    @Mock
+    private ChangeEventRepository changeEventRepository;
+    @Mock
+    private Clock clock;
+
+    private final List<Long> received = new ArrayList<>();
+    private final List<ChangeEvent> outbox = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        Mockito.when(changeEventRepository.findMaxId()).thenReturn(0L);
+        Mockito.when(changeEventRepository.findAfter(Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenAnswer(invocation -> outboxRange(invocation.getArgument(0), Long.MAX_VALUE));
+        Mockito.when(changeEventRepository.findRange(Mockito.anyLong(), Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenAnswer(invocation -> outboxRange(invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    @Test
+    public void relay_should_deliverLiveEvents_and_replayFromRequestedOffset() {
+        //given
+        ChangeFeed changeFeed = new ChangeFeed(changeEventRepository, new ChangeFeedProperties(), clock, Runnable::run);
+        changeFeed.subscribe(null, this::receive);
+        write(1, 2);
+
+        //when
+        changeFeed.relay();
+        List<Long> resumed = new ArrayList<>();
+        changeFeed.subscribe(1L, event -> resumed.add(event.getOffset()));
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of(1L, 2L), received),
+                () -> Assertions.assertEquals(List.of(2L), resumed),
+                () -> Assertions.assertEquals(2, changeFeed.position()),
+                () -> Assertions.assertEquals(2, changeFeed.subscriberCount())
+        );
+    }
+
+    @Test
+    public void relay_should_waitAtGap_until_gapTimeoutPassed() {
+        //given
+        ChangeFeed changeFeed = new ChangeFeed(changeEventRepository, new ChangeFeedProperties(), clock, Runnable::run);
+        Mockito.when(clock.millis()).thenReturn(1_000L, 5_000L, 12_000L);
+        changeFeed.subscribe(null, this::receive);
+        write(1, 3);
+
+        //when
+        changeFeed.relay();
+        changeFeed.relay();
+        List<Long> beforeTimeout = new ArrayList<>(received);
+        changeFeed.relay();
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of(1L), beforeTimeout),
+                () -> Assertions.assertEquals(List.of(1L, 3L), received)
+        );
+    }
+
+    @Test
+    public void offer_should_fallBackToOutbox_when_subscriberBufferOverflows() {
+        //given
+        ChangeFeedProperties properties = new ChangeFeedProperties();
+        properties.setSubscriberBufferSize(2);
+        List<Runnable> drains = new ArrayList<>();
+        ChangeFeed changeFeed = new ChangeFeed(changeEventRepository, properties, clock, drains::add);
+        changeFeed.subscribe(null, this::receive);
+        drains.remove(0).run();
+        write(1, 2, 3, 4, 5);
+
+        //when
+        changeFeed.relay();
+        while (!drains.isEmpty()) {
+            drains.remove(0).run();
+        }
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of(1L, 2L, 3L, 4L, 5L), received),
+                () -> Assertions.assertEquals(1, changeFeed.overflowCount())
+        );
+    }
+
+    private void receive(ChangeEventDto event) {
+        received.add(event.getOffset());
+    }
+
+    private void write(long... ids) {
+        LongStream.of(ids).mapToObj(ChangeFeedUnitTest::event).forEach(outbox::add);
+    }
+
+    private List<ChangeEvent> outboxRange(long after, long upTo) {
+        return outbox.stream()
+                .filter(event -> event.getId() > after && event.getId() <= upTo)
+                .collect(Collectors.toList());
+    }
+
+    private static ChangeEvent event(long id) {
+        return ChangeEvent.builder()
+                .id(id)
+                .aggregateType("user")
+                .aggregateId(String.valueOf(id))
+                .eventType("USER_CREATED")
+                .payload("{}")
+                .createdAt(Instant.EPOCH)
+                .build();
+    }
+}
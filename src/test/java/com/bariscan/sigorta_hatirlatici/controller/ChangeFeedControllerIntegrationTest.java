@@ -0,0 +1,50 @@
+package com.bariscan.sigorta_hatirlatici.controller;
+
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeFeed;
+import com.bariscan.sigorta_hatirlatici.config.SecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:changes;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+public class ChangeFeedControllerIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ChangeFeed changeFeed;
+
+    @Test
+    @WithMockUser(authorities = {"READ_PRIVILEGE", "WRITE_PRIVILEGE"})
+    public void stream_should_beForbiddenWithoutReadChangesPrivilege() throws Exception {
+        //given
+        //when
+        //then
+        mockMvc.perform(get("/changes"))
+                .andExpect(status().isForbidden());
+        Mockito.verifyNoInteractions(changeFeed);
+    }
+
+    @Test
+    @WithMockUser(authorities = SecurityConfig.READ_CHANGES_PRIVILEGE)
+    public void stream_should_subscribeWithReadChangesPrivilege() throws Exception {
+        //given
+        //when
+        //then
+        mockMvc.perform(get("/changes").param("after", "42"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+        Mockito.verify(changeFeed).subscribe(Mockito.eq(42L), Mockito.any());
+    }
+}
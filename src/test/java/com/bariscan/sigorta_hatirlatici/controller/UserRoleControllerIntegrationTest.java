@@ -0,0 +1,90 @@
+package com.bariscan.sigorta_hatirlatici.controller;
+
+import com.bariscan.sigorta_hatirlatici.config.SecurityConfig;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.BulkRoleResultDto;
+import com.bariscan.sigorta_hatirlatici.service.UserImportService;
+import com.bariscan.sigorta_hatirlatici.service.UserRoleService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:controller;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+public class UserRoleControllerIntegrationTest {
+    private static final String GRANT_REQUEST = "{\"roleId\":1,\"userIds\":[2,3]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private UserRoleService userRoleService;
+    @MockBean
+    private UserImportService userImportService;
+
+    @Test
+    @WithMockUser(authorities = "READ_PRIVILEGE")
+    public void grantRole_should_beForbiddenWithoutManageRolesPrivilege() throws Exception {
+        //given
+        //when
+        //then
+        mockMvc.perform(post("/users/roles/grant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(GRANT_REQUEST))
+                .andExpect(status().isForbidden());
+        Mockito.verifyNoInteractions(userRoleService);
+    }
+
+    @Test
+    @WithMockUser(authorities = SecurityConfig.MANAGE_ROLES_PRIVILEGE)
+    public void grantRole_should_succeedWithManageRolesPrivilegeAndNoCsrfToken() throws Exception {
+        //given
+        Mockito.when(userRoleService.grantRole(1L, List.of(2L, 3L)))
+                .thenReturn(new BulkRoleResultDto(1L, 2L));
+
+        //when
+        //then
+        mockMvc.perform(post("/users/roles/grant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(GRANT_REQUEST))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed").value(2));
+    }
+
+    @Test
+    @WithMockUser(authorities = "READ_PRIVILEGE")
+    public void importUsers_should_beForbiddenWithoutManageUsersPrivilege() throws Exception {
+        //given
+        //when
+        //then
+        mockMvc.perform(post("/users/import")
+                        .contentType("application/x-ndjson")
+                        .content(""))
+                .andExpect(status().isForbidden());
+        Mockito.verifyNoInteractions(userImportService);
+    }
+
+    @Test
+    @WithMockUser(authorities = SecurityConfig.MANAGE_USERS_PRIVILEGE)
+    public void importUsers_should_acceptBasicAuthClientsWithoutCsrfToken() throws Exception {
+        //given
+        //when
+        //then
+        mockMvc.perform(post("/users/import")
+                        .contentType("application/x-ndjson")
+                        .content(""))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,38 @@
+package com.bariscan.sigorta_hatirlatici.metrics;
+
+import org.junit.jupiter.api.Assertions;
+
+import java.util.function.Supplier;
+
+/**
+ * Assertions on the number of SQL statements Hibernate issues on the calling thread, for
+ * integration tests that guard against N+1 selects and hidden lazy loads.
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static <T> T assertQueryCount(long expected, Supplier<T> work) {
+        long before = QueryCountingStatementInspector.currentCount();
+        T result = work.get();
+        Assertions.assertEquals(expected, QueryCountingStatementInspector.currentCount() - before,
+                "Unexpected number of SQL statements");
+        return result;
+    }
+
+    public static void assertQueryCount(long expected, Runnable work) {
+        assertQueryCount(expected, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static <T> T assertMaxQueryCount(long max, Supplier<T> work) {
+        long before = QueryCountingStatementInspector.currentCount();
+        T result = work.get();
+        long issued = QueryCountingStatementInspector.currentCount() - before;
+        Assertions.assertTrue(issued <= max, "Expected at most " + max + " SQL statements but " + issued + " were issued");
+        return result;
+    }
+}
@@ -0,0 +1,40 @@
+package com.bariscan.sigorta_hatirlatici.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class QueryCountingStatementInspectorUnitTest {
+    private final QueryCountingStatementInspector inspector = new QueryCountingStatementInspector();
+
+    @Test
+    public void endBudget_should_returnTraceOfFirstStatementOverBudget() {
+        //given
+        QueryCountingStatementInspector.startBudget(2);
+
+        //when
+        inspector.inspect("select 1");
+        inspector.inspect("select 2");
+        inspector.inspect("select 3");
+        inspector.inspect("select 4");
+        Throwable trace = QueryCountingStatementInspector.endBudget();
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertNotNull(trace),
+                () -> Assertions.assertTrue(trace.getMessage().endsWith("select 3"))
+        );
+    }
+
+    @Test
+    public void endBudget_should_returnNull_when_budgetIsKept() {
+        //given
+        QueryCountingStatementInspector.startBudget(2);
+
+        //when
+        inspector.inspect("select 1");
+        inspector.inspect("select 2");
+
+        //then
+        Assertions.assertNull(QueryCountingStatementInspector.endBudget());
+    }
+}
@@ -0,0 +1,51 @@
+package com.bariscan.sigorta_hatirlatici.metrics;
+
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserDto;
+import com.bariscan.sigorta_hatirlatici.service.UserService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("it")
+public class ServiceQueryMetricsAspectIntegrationTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void timedServiceMethod_should_recordQueriesThroughTheProxy() {
+        //given
+        UserDto userDto = UserDto.builder()
+                .firstName("Aspect")
+                .lastName("Proxy")
+                .email("aspect-" + UUID.randomUUID().toString().substring(0, 8) + "@test.com")
+                .password("123456789")
+                .build();
+        DistributionSummary summary = meterRegistry.find("app.service.queries")
+                .tag("class", "UserService")
+                .tag("method", "createNewUser")
+                .summary();
+        long before = summary == null ? 0 : summary.count();
+
+        //when
+        userService.createNewUser(userDto);
+
+        //then
+        DistributionSummary recorded = meterRegistry.get("app.service.queries")
+                .tag("class", "UserService")
+                .tag("method", "createNewUser")
+                .summary();
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(before + 1, recorded.count()),
+                () -> Assertions.assertTrue(recorded.totalAmount() > 0)
+        );
+    }
+}
@@ -0,0 +1,62 @@
+package com.bariscan.sigorta_hatirlatici.metrics;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Method;
+
+@ExtendWith(MockitoExtension.class)
+public class ServiceQueryMetricsAspectUnitTest {
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+    @Mock
+    private MethodSignature signature;
+
+    @Test
+    public void countQueries_should_recordStatementsIssuedByCall() throws Throwable {
+        //given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ServiceQueryMetricsAspect aspect = new ServiceQueryMetricsAspect(registry);
+        QueryCountingStatementInspector inspector = new QueryCountingStatementInspector();
+        Method method = SampleService.class.getMethod("save");
+
+        //when
+        Mockito.when(joinPoint.getSignature()).thenReturn(signature);
+        Mockito.when(signature.getMethod()).thenReturn(method);
+        Mockito.when(joinPoint.proceed()).thenAnswer(invocation -> {
+            inspector.inspect("select 1");
+            inspector.inspect("insert into user values (1)");
+            return "saved";
+        });
+        inspector.inspect("select before call");
+        Object result = aspect.countQueries(joinPoint, method.getAnnotation(Timed.class));
+
+        //then
+        DistributionSummary summary = registry.get("app.service.queries")
+                .tag("class", "SampleService")
+                .tag("method", "save")
+                .summary();
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("saved", result),
+                () -> Assertions.assertEquals(1, summary.count()),
+                () -> Assertions.assertEquals(2.0, summary.totalAmount())
+        );
+    }
+
+    static class SampleService {
+        @Timed("app.service")
+        public String save() {
+            return "saved";
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.bariscan.sigorta_hatirlatici.ratelimit;
+
+import com.bariscan.sigorta_hatirlatici.config.RateLimitProperties;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserDto;
+import com.bariscan.sigorta_hatirlatici.entity.User;
+import com.bariscan.sigorta_hatirlatici.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:throttle;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+public class LoginThrottleIntegrationTest {
+    private static final String PASSWORD = "123456789";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        user = userService.createNewUser(UserDto.builder()
+                .firstName("Rate")
+                .lastName("Limit")
+                .email("rl-" + UUID.randomUUID().toString().substring(0, 8) + "@test.com")
+                .password(PASSWORD)
+                .build());
+    }
+
+    @Test
+    public void successfulLogins_should_notBeThrottled() throws Exception {
+        //given
+        int permits = rateLimitProperties.getAccount().getPermits();
+
+        //when
+        //then
+        for (int i = 0; i <= permits; i++) {
+            mockMvc.perform(get("/users/" + user.getId()).with(httpBasic(user.getEmail(), PASSWORD)))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    public void failedLogins_should_beThrottledPerAccount() throws Exception {
+        //given
+        int permits = rateLimitProperties.getAccount().getPermits();
+        for (int i = 0; i < permits; i++) {
+            mockMvc.perform(get("/users/" + user.getId()).with(httpBasic(user.getEmail(), "wrong-password")))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        //when
+        //then
+        mockMvc.perform(get("/users/" + user.getId()).with(httpBasic(user.getEmail(), PASSWORD)))
+                .andExpect(status().isTooManyRequests());
+    }
+}
@@ -0,0 +1,150 @@
+package com.bariscan.sigorta_hatirlatici.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenBucketLimiterUnitTest {
+
+    @Test
+    public void tryAcquire_should_allowBurstThenRefillOnePermitPerInterval() {
+        //given
+        AtomicLong now = new AtomicLong(1_000_000);
+        TokenBucketLimiter<String> limiter = new TokenBucketLimiter<>(3, Duration.ofSeconds(3), 100, now::get);
+
+        //when
+        boolean first = limiter.tryAcquire("a");
+        boolean second = limiter.tryAcquire("a");
+        boolean third = limiter.tryAcquire("a");
+        boolean fourth = limiter.tryAcquire("a");
+        boolean otherKey = limiter.tryAcquire("b");
+        now.addAndGet(999);
+        boolean beforeRefill = limiter.tryAcquire("a");
+        now.addAndGet(1);
+        boolean afterRefill = limiter.tryAcquire("a");
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(first),
+                () -> Assertions.assertTrue(second),
+                () -> Assertions.assertTrue(third),
+                () -> Assertions.assertFalse(fourth),
+                () -> Assertions.assertTrue(otherKey),
+                () -> Assertions.assertFalse(beforeRefill),
+                () -> Assertions.assertTrue(afterRefill),
+                () -> Assertions.assertEquals(2, limiter.rejectedCount())
+        );
+    }
+
+    @Test
+    public void isLimited_should_notTakePermits() {
+        //given
+        AtomicLong now = new AtomicLong(1_000_000);
+        TokenBucketLimiter<String> limiter = new TokenBucketLimiter<>(2, Duration.ofSeconds(2), 100, now::get);
+
+        //when
+        boolean unknownKey = limiter.isLimited("a");
+        for (int i = 0; i < 10; i++) {
+            limiter.isLimited("a");
+        }
+        limiter.tryAcquire("a");
+        boolean oneLeft = limiter.isLimited("a");
+        limiter.tryAcquire("a");
+        boolean empty = limiter.isLimited("a");
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(unknownKey),
+                () -> Assertions.assertFalse(oneLeft),
+                () -> Assertions.assertTrue(empty),
+                () -> Assertions.assertEquals(1, limiter.size())
+        );
+    }
+
+    @Test
+    public void sweep_should_dropOnlyRefilledBuckets() {
+        //given
+        AtomicLong now = new AtomicLong(1_000_000);
+        TokenBucketLimiter<String> limiter = new TokenBucketLimiter<>(2, Duration.ofSeconds(2), 100, now::get);
+        limiter.tryAcquire("idle");
+        now.addAndGet(1_000);
+        limiter.tryAcquire("busy");
+        limiter.tryAcquire("busy");
+
+        //when
+        now.addAndGet(500);
+        limiter.sweep();
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, limiter.size()),
+                () -> Assertions.assertFalse(limiter.tryAcquire("busy")),
+                () -> Assertions.assertTrue(limiter.tryAcquire("idle"))
+        );
+    }
+
+    @Test
+    public void tryAcquire_should_keepSizeBounded_when_keysFlood() {
+        //given
+        AtomicLong now = new AtomicLong(1_000_000);
+        TokenBucketLimiter<Integer> limiter = new TokenBucketLimiter<>(1, Duration.ofMinutes(1), 100, now::get);
+
+        //when
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire(i);
+        }
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(limiter.size() <= 100),
+                () -> Assertions.assertTrue(limiter.evictionCount() >= 9_900)
+        );
+    }
+
+    @Test
+    public void tryAcquire_should_grantExactlyCapacity_when_threadsContend() throws Exception {
+        //given
+        int threads = 8;
+        int permits = 1_000;
+        TokenBucketLimiter<String> limiter = new TokenBucketLimiter<>(permits, Duration.ofDays(1000), 100, () -> 1_000_000L);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        //when
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int granted = 0;
+                for (int i = 0; i < permits; i++) {
+                    if (limiter.tryAcquire("hot")) {
+                        granted++;
+                    }
+                }
+                return granted;
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        int granted = total;
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(permits, granted),
+                () -> Assertions.assertEquals((long) permits * (threads - 1), limiter.rejectedCount())
+        );
+    }
+}
@@ -0,0 +1,110 @@
+package com.bariscan.sigorta_hatirlatici.repository;
+
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserDto;
+import com.bariscan.sigorta_hatirlatici.entity.Payment;
+import com.bariscan.sigorta_hatirlatici.entity.PaymentStatus;
+import com.bariscan.sigorta_hatirlatici.entity.Policy;
+import com.bariscan.sigorta_hatirlatici.entity.ReminderStatus;
+import com.bariscan.sigorta_hatirlatici.entity.User;
+import com.bariscan.sigorta_hatirlatici.service.PaymentService;
+import com.bariscan.sigorta_hatirlatici.service.UserService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("it")
+@Transactional
+public class PaymentRepositoryIntegrationTest {
+    private static final LocalDate FROM = LocalDate.of(2031, 3, 10);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+    @Autowired
+    private PolicyRepository policyRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private PaymentService paymentService;
+
+    private Policy policy;
+
+    @BeforeEach
+    public void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = userService.createNewUser(UserDto.builder()
+                .firstName("Payment")
+                .lastName("Repository")
+                .email("pr-" + suffix + "@test.com")
+                .password("123456789")
+                .build());
+        policy = policyRepository.save(Policy.builder()
+                .policyNumber("PR-" + suffix)
+                .plateNumber("34 PR " + suffix.substring(0, 4))
+                .insurer("Test Sigorta")
+                .premium(BigDecimal.TEN)
+                .startDate(FROM.minusYears(1))
+                .endDate(FROM.plusYears(1))
+                .user(user)
+                .build());
+    }
+
+    @Test
+    public void findClaimableRemindersByIds_should_skipReleasedReminders_until_retryIsDue() {
+        //given
+        Instant now = Instant.parse("2031-03-01T09:00:00Z");
+        Payment waiting = payment(FROM, now.plusSeconds(300));
+        Payment due = payment(FROM.plusDays(1), now.minusSeconds(1));
+        Payment fresh = payment(FROM.plusDays(2), null);
+
+        //when
+        List<Payment> claimable = paymentRepository.findClaimableRemindersByIds(
+                List.of(waiting.getId(), due.getId(), fresh.getId()), PaymentStatus.PENDING,
+                ReminderStatus.PENDING, ReminderStatus.CLAIMED, now, now.minusSeconds(600));
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(2, claimable.size()),
+                () -> Assertions.assertTrue(claimable.stream().noneMatch(payment -> payment.getId().equals(waiting.getId())))
+        );
+    }
+
+    @Test
+    public void forEachPaymentDueBetween_should_notIncludePaymentsDueTheDayBeforeFrom() {
+        //given
+        payment(FROM.minusDays(1), null);
+        Payment onFrom = payment(FROM, null);
+        Payment onUntil = payment(FROM.plusDays(2), null);
+        payment(FROM.plusDays(3), null);
+        List<Long> seen = new ArrayList<>();
+
+        //when
+        paymentService.forEachPaymentDueBetween(FROM, FROM.plusDays(2), page -> page.stream()
+                .filter(payment -> payment.getPolicyId().equals(policy.getId()))
+                .forEach(payment -> seen.add(payment.getPaymentId())));
+
+        //then
+        Assertions.assertEquals(List.of(onFrom.getId(), onUntil.getId()), seen);
+    }
+
+    private Payment payment(LocalDate dueDate, Instant retryAt) {
+        return paymentRepository.saveAndFlush(Payment.builder()
+                .policy(policy)
+                .dueDate(dueDate)
+                .amount(BigDecimal.TEN)
+                .status(PaymentStatus.PENDING)
+                .reminderRetryAt(retryAt)
+                .build());
+    }
+}
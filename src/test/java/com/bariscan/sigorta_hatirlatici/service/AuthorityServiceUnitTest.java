@@ -0,0 +1,78 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.config.CacheProperties;
+import com.bariscan.sigorta_hatirlatici.repository.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthorityServiceUnitTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private AuthorityService authorityService;
+
+    @BeforeEach
+    public void setUp() {
+        authorityService = new AuthorityService(userRepository, new CacheProperties());
+    }
+
+    @Test
+    public void findPrivilegesOfUser_should_loadOnceAndReturnCachedSet() {
+        //given
+        Long userId = 1L;
+
+        //when
+        Mockito.when(userRepository.findPrivilegeIdsByUserId(userId)).thenReturn(List.of(1L, 3L));
+        PrivilegeSet first = authorityService.findPrivilegesOfUser(userId);
+        PrivilegeSet second = authorityService.findPrivilegesOfUser(userId);
+
+        //then
+        Mockito.verify(userRepository).findPrivilegeIdsByUserId(userId);
+        Mockito.verifyNoMoreInteractions(userRepository);
+
+        Assertions.assertAll(
+                () -> Assertions.assertSame(first, second),
+                () -> Assertions.assertTrue(first.contains(1L)),
+                () -> Assertions.assertFalse(first.contains(2L)),
+                () -> Assertions.assertTrue(first.contains(3L)),
+                () -> Assertions.assertEquals(2, first.size())
+        );
+    }
+
+    @Test
+    public void evictUser_should_reloadPrivilegesOnNextLookup() {
+        //given
+        Long userId = 1L;
+
+        //when
+        Mockito.when(userRepository.findPrivilegeIdsByUserId(userId)).thenReturn(List.of(1L), List.of(1L, 2L));
+        authorityService.findPrivilegesOfUser(userId);
+        authorityService.evictUser(userId);
+        PrivilegeSet reloaded = authorityService.findPrivilegesOfUser(userId);
+
+        //then
+        Mockito.verify(userRepository, Mockito.times(2)).findPrivilegeIdsByUserId(userId);
+        Assertions.assertTrue(reloaded.contains(2L));
+    }
+
+    @Test
+    public void evictAll_should_clearEveryCachedUser() {
+        //when
+        Mockito.when(userRepository.findPrivilegeIdsByUserId(Mockito.any(Long.class))).thenReturn(List.of(1L));
+        authorityService.findPrivilegesOfUser(1L);
+        authorityService.findPrivilegesOfUser(2L);
+        authorityService.evictAll();
+
+        //then
+        Assertions.assertEquals(0, authorityService.cache().size());
+    }
+}
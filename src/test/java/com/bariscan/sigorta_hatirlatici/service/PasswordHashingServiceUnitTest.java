@@ -0,0 +1,76 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.config.PasswordHashingProperties;
+import com.bariscan.sigorta_hatirlatici.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+@ExtendWith(MockitoExtension.class)
+public class PasswordHashingServiceUnitTest {
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    public void setUp() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setThreads(1);
+        properties.setQueueCapacity(1);
+        passwordHashingService = new PasswordHashingService(passwordEncoder, properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    public void encode_should_returnHashAndRecordTiming() {
+        //when
+        Mockito.when(passwordEncoder.encode("123456789")).thenReturn("hashedPass");
+        String hash = passwordHashingService.encode("123456789").join();
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("hashedPass", hash),
+                () -> Assertions.assertEquals(1, passwordHashingService.hashCount()),
+                () -> Assertions.assertTrue(passwordHashingService.totalHashNanos() >= 0)
+        );
+    }
+
+    @Test
+    public void encode_should_reject_when_queueIsFull() throws InterruptedException {
+        //given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        //when
+        Mockito.when(passwordEncoder.encode(Mockito.any(CharSequence.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "hashedPass";
+        });
+        CompletableFuture<String> running = passwordHashingService.encode("first");
+        started.await();
+        CompletableFuture<String> queued = passwordHashingService.encode("second");
+
+        //then
+        Assertions.assertThrows(TooManyRequestsException.class, () -> passwordHashingService.encode("third"));
+        Assertions.assertEquals(1, passwordHashingService.queueDepth());
+        Assertions.assertEquals(1, passwordHashingService.rejectedCount());
+        release.countDown();
+        Assertions.assertEquals("hashedPass", running.join());
+        Assertions.assertEquals("hashedPass", queued.join());
+    }
+}
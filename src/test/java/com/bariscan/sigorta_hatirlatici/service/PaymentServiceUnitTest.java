@@ -0,0 +1,67 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.config.ReminderProperties;
+import com.bariscan.sigorta_hatirlatici.dto.policyDtos.DuePaymentDto;
+import com.bariscan.sigorta_hatirlatici.entity.PaymentStatus;
+import com.bariscan.sigorta_hatirlatici.repository.PaymentRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class PaymentServiceUnitTest {
+    private static final LocalDate TODAY = LocalDate.of(2023, 4, 1);
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    private PaymentService paymentService;
+
+    @BeforeEach
+    public void setUp() {
+        ReminderProperties properties = new ReminderProperties();
+        properties.setPageSize(2);
+        Clock clock = Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        paymentService = new PaymentService(paymentRepository, properties, clock);
+    }
+
+    @Test
+    public void forEachPaymentDueWithin_should_seekPastLastRowOfEveryPage() {
+        //given
+        LocalDate until = TODAY.plusDays(7);
+        DuePaymentDto first = DuePaymentDto.builder().paymentId(5L).dueDate(TODAY).build();
+        DuePaymentDto second = DuePaymentDto.builder().paymentId(9L).dueDate(TODAY.plusDays(2)).build();
+        DuePaymentDto third = DuePaymentDto.builder().paymentId(3L).dueDate(TODAY.plusDays(3)).build();
+        List<List<DuePaymentDto>> pages = new ArrayList<>();
+
+        //when
+        Mockito.when(paymentRepository.findFirstDuePage(Mockito.eq(PaymentStatus.PENDING), Mockito.eq(TODAY),
+                Mockito.eq(until), Mockito.any(Pageable.class))).thenReturn(List.of(first, second));
+        Mockito.when(paymentRepository.findDuePage(Mockito.eq(PaymentStatus.PENDING), Mockito.eq(second.getDueDate()),
+                Mockito.eq(9L), Mockito.eq(until), Mockito.any(Pageable.class))).thenReturn(List.of(third));
+        long total = paymentService.forEachPaymentDueWithin(7, pages::add);
+
+        //then
+        Mockito.verify(paymentRepository).findFirstDuePage(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(paymentRepository).findDuePage(Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verifyNoMoreInteractions(paymentRepository);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(3, total),
+                () -> Assertions.assertEquals(2, pages.size()),
+                () -> Assertions.assertEquals(3L, pages.get(1).get(0).getPaymentId())
+        );
+    }
+}
@@ -0,0 +1,123 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.audit.AuditLog;
+import com.bariscan.sigorta_hatirlatici.dto.policyDtos.PolicyDto;
+import com.bariscan.sigorta_hatirlatici.dto.reminderDtos.PaymentsScheduledEvent;
+import com.bariscan.sigorta_hatirlatici.entity.Payment;
+import com.bariscan.sigorta_hatirlatici.entity.PaymentStatus;
+import com.bariscan.sigorta_hatirlatici.entity.Policy;
+import com.bariscan.sigorta_hatirlatici.entity.User;
+import com.bariscan.sigorta_hatirlatici.exceptions.BadRequestException;
+import com.bariscan.sigorta_hatirlatici.exceptions.NotFoundException;
+import com.bariscan.sigorta_hatirlatici.repository.PolicyRepository;
+import com.bariscan.sigorta_hatirlatici.repository.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class PolicyServiceUnitTest {
+    @Mock
+    private PolicyRepository policyRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private AuditLog auditLog;
+    @InjectMocks
+    private PolicyService policyService;
+
+    @Test
+    public void createPolicy_should_createMonthlyInstallments() {
+        //given
+        PolicyDto policyDto = PolicyDto.builder()
+                .policyNumber("TR-0001")
+                .plateNumber("34ABC123")
+                .insurer("Test Sigorta")
+                .premium(new BigDecimal("1000.00"))
+                .startDate(LocalDate.of(2023, 1, 15))
+                .endDate(LocalDate.of(2024, 1, 15))
+                .installments(3)
+                .build();
+
+        //when
+        Mockito.when(userRepository.existsById(1L)).thenReturn(true);
+        Mockito.when(userRepository.getReferenceById(1L)).thenReturn(User.builder().id(1L).build());
+        Mockito.when(policyRepository.save(Mockito.any(Policy.class))).thenAnswer(invocation -> {
+            Policy saved = invocation.getArgument(0);
+            long id = 1;
+            for (Payment payment : saved.getPayments()) {
+                payment.setId(id++);
+            }
+            return saved;
+        });
+        Policy policy = policyService.createPolicy(1L, policyDto);
+
+        //then
+        Mockito.verify(eventPublisher).publishEvent(Mockito.any(PaymentsScheduledEvent.class));
+        List<Payment> payments = policy.getPayments();
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(3, payments.size()),
+                () -> Assertions.assertEquals(new BigDecimal("333.34"), payments.get(0).getAmount()),
+                () -> Assertions.assertEquals(new BigDecimal("333.33"), payments.get(2).getAmount()),
+                () -> Assertions.assertEquals(LocalDate.of(2023, 3, 15), payments.get(2).getDueDate()),
+                () -> Assertions.assertEquals(PaymentStatus.PENDING, payments.get(1).getStatus())
+        );
+    }
+
+    @Test
+    public void createPolicy_should_throwException_when_endDateIsNotAfterStartDate() {
+        //given
+        PolicyDto policyDto = PolicyDto.builder()
+                .premium(new BigDecimal("1000.00"))
+                .startDate(LocalDate.of(2023, 1, 15))
+                .endDate(LocalDate.of(2023, 1, 15))
+                .installments(1)
+                .build();
+
+        //when
+        Mockito.when(userRepository.existsById(1L)).thenReturn(true);
+
+        //then
+        Assertions.assertThrows(BadRequestException.class, () -> policyService.createPolicy(1L, policyDto));
+        Mockito.verifyNoInteractions(policyRepository, eventPublisher);
+    }
+
+    @Test
+    public void createPolicy_should_throwException_when_lastInstallmentIsDueAfterEndDate() {
+        //given
+        PolicyDto policyDto = PolicyDto.builder()
+                .premium(new BigDecimal("1000.00"))
+                .startDate(LocalDate.of(2023, 1, 15))
+                .endDate(LocalDate.of(2023, 4, 14))
+                .installments(4)
+                .build();
+
+        //when
+        Mockito.when(userRepository.existsById(1L)).thenReturn(true);
+
+        //then
+        Assertions.assertThrows(BadRequestException.class, () -> policyService.createPolicy(1L, policyDto));
+        Mockito.verifyNoInteractions(policyRepository, eventPublisher);
+    }
+
+    @Test
+    public void createPolicy_should_throwException_when_userNotFound() {
+        //when
+        Mockito.when(userRepository.existsById(Mockito.any(Long.class))).thenReturn(false);
+
+        //then
+        Assertions.assertThrows(NotFoundException.class, () -> policyService.createPolicy(1L, new PolicyDto()));
+        Mockito.verifyNoInteractions(policyRepository);
+    }
+}
@@ -1,17 +1,28 @@
 package com.bariscan.sigorta_hatirlatici.service;
 
+import com.bariscan.sigorta_hatirlatici.audit.AuditLog;
+import com.bariscan.sigorta_hatirlatici.cache.BoundedCache;
+import com.bariscan.sigorta_hatirlatici.cache.ReferenceDataCache;
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeOutbox;
+import com.bariscan.sigorta_hatirlatici.dto.roleDtos.DeleteResultDto;
 import com.bariscan.sigorta_hatirlatici.entity.Privilege;
 import com.bariscan.sigorta_hatirlatici.exceptions.NotFoundException;
 import com.bariscan.sigorta_hatirlatici.repository.PrivilegeRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.util.Assert;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.List;
 import java.util.Optional;
 
 @ExtendWith(MockitoExtension.class)
@@ -19,6 +30,20 @@ public class PrivilegeServiceUnitTest {
 
     @Mock
     private PrivilegeRepository privilegeRepository;
+    @Mock
+    private AuthorityService authorityService;
+    @Spy
+    private BoundedCache<String, Privilege> privilegeNameCache = new BoundedCache<>(16);
+    @Mock
+    private AuditLog auditLog;
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+    @Spy
+    private ReferenceDataInserter referenceDataInserter = new ReferenceDataInserter();
+    @Mock
+    private RoleService roleService;
+    @Mock
+    private ChangeOutbox changeOutbox;
     @InjectMocks
     private PrivilegeService privilegeService;
 
@@ -62,6 +87,29 @@ public class PrivilegeServiceUnitTest {
         );
     }
 
+    @Test
+    public void findByPrivilege_should_returnCachedPrivilege_when_calledTwice() {
+        //given
+        String name = "READ_PRIVILEGE";
+
+        //when
+        Mockito.when(privilegeRepository.findByName(Mockito.any(String.class))).thenReturn(
+                Optional.ofNullable(Privilege.builder()
+                        .id(2L)
+                        .name(name)
+                        .build()));
+        privilegeService.findPrivilegeByName(name);
+        Optional<Privilege> privilege = privilegeService.findPrivilegeByName(name);
+
+        //then
+        Mockito.verify(privilegeRepository).findByName(Mockito.any(String.class));
+        Mockito.verifyNoMoreInteractions(privilegeRepository);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(name, privilege.get().getName()),
+                () -> Assertions.assertEquals(1, privilegeNameCache.hitCount())
+        );
+    }
+
     @Test
     public void createPrivilegeIfNotFound_should_createNewPrivilege() {
         //given
@@ -111,47 +159,140 @@ public class PrivilegeServiceUnitTest {
     }
 
     @Test
-    void deletePrivilege_should_delete() {
+    void deletePrivilege_should_evictNameCacheAgain_when_transactionCompletes() {
         //given
         String name = "READ_PRIVILEGE";
+        Privilege reloaded = Privilege.builder()
+                .id(11L)
+                .name(name)
+                .build();
+        Mockito.when(privilegeRepository.findIdByName(name)).thenReturn(Optional.of(11L));
+        TransactionSynchronizationManager.initSynchronization();
 
         //when
-        Mockito.when(privilegeRepository.findByName(Mockito.any(String.class))).thenReturn(
-                Optional.ofNullable(Privilege.builder()
-                        .id(11L)
-                        .name(name)
-                        .build())
-        );
-        String result = privilegeService.deletePrivilege(name);
+        try {
+            privilegeService.deletePrivilege(name);
+            privilegeNameCache.put(name, reloaded);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
 
         //then
-        Mockito.verify(privilegeRepository).delete(Mockito.any(Privilege.class));
-        Mockito.verify(privilegeRepository).findByName(Mockito.any(String.class));
+        Assertions.assertTrue(privilegeNameCache.get(name).isEmpty());
+    }
+
+    @Test
+    void deletePrivilege_should_deleteJoinRowsInBulk_and_reportAffectedRoles() {
+        //given
+        String name = "READ_PRIVILEGE";
+
+        //when
+        Mockito.when(privilegeRepository.findIdByName(name)).thenReturn(Optional.of(11L));
+        Mockito.when(privilegeRepository.deleteRoleGrantsByPrivilegeId(11L)).thenReturn(2);
+        DeleteResultDto result = privilegeService.deletePrivilege(name);
+
+        //then
+        InOrder inOrder = Mockito.inOrder(privilegeRepository);
+        inOrder.verify(privilegeRepository).findIdByName(name);
+        inOrder.verify(privilegeRepository).incrementGrantingRoleVersions(11L);
+        inOrder.verify(privilegeRepository).deleteRoleGrantsByPrivilegeId(11L);
+        inOrder.verify(privilegeRepository).deleteRowById(11L);
         Mockito.verifyNoMoreInteractions(privilegeRepository);
+        Mockito.verify(referenceDataCache).evictPrivilege(11L);
+        Mockito.verify(roleService).clearNameCache();
 
         Assertions.assertAll(
-                () -> Assertions.assertNotNull(result),
-                () -> Assertions.assertEquals("Privilege deleted.", result)
+                () -> Assertions.assertEquals(name, result.getName()),
+                () -> Assertions.assertEquals(2L, result.getAffected())
         );
     }
 
+    @Test
+    void softDeletePrivilege_should_onlyMarkThePrivilege() {
+        //given
+        String name = "READ_PRIVILEGE";
+
+        //when
+        Mockito.when(privilegeRepository.findIdByName(name)).thenReturn(Optional.of(11L));
+        DeleteResultDto result = privilegeService.softDeletePrivilege(name);
+
+        //then
+        Mockito.verify(privilegeRepository).findIdByName(name);
+        Mockito.verify(privilegeRepository).incrementGrantingRoleVersions(11L);
+        Mockito.verify(privilegeRepository).softDeleteById(11L, RoleService.DELETED_NAME_SEPARATOR + 11L);
+        Mockito.verifyNoMoreInteractions(privilegeRepository);
+        Mockito.verify(authorityService).evictAll();
+        Assertions.assertTrue(result.isSoftDeleted());
+    }
+
     @Test
     public void deletePrivilege_throwException_when_privilegeNotFound() {
         //given
         String name = "READ_PRIVILEGE";
 
         //when
-        Mockito.when(privilegeRepository.findByName(Mockito.any(String.class))).thenReturn(
-                Optional.ofNullable(null)
-        );
+        Mockito.when(privilegeRepository.findIdByName(name)).thenReturn(Optional.empty());
 
         //then
         Throwable exception = Assertions.assertThrows(NotFoundException.class, () -> {
             privilegeService.deletePrivilege(name);
         });
         Assertions.assertEquals(exception.getMessage(), "Privilege is not found.");
-        Mockito.verify(privilegeRepository).findByName(Mockito.any(String.class));
+        Mockito.verify(privilegeRepository).findIdByName(name);
         Mockito.verifyNoMoreInteractions(privilegeRepository);
 
     }
+
+    @Test
+    public void createPrivilegeIfNotFound_should_returnCommittedPrivilege_when_insertConflicts() {
+        //given
+        String name = "READ_PRIVILEGE";
+        Privilege committed = Privilege.builder()
+                .id(7L)
+                .name(name)
+                .build();
+
+        //when
+        Mockito.when(privilegeRepository.findByName(name)).thenReturn(Optional.empty());
+        Mockito.when(privilegeRepository.save(Mockito.any())).thenThrow(new DataIntegrityViolationException("uk_privilege_name"));
+        Mockito.when(privilegeRepository.findUncachedByName(name)).thenReturn(Optional.of(committed));
+        Privilege privilege = privilegeService.createPrivilegeIfNotFound(name);
+
+        //then
+        Mockito.verifyNoInteractions(auditLog);
+        Assertions.assertAll(
+                () -> Assertions.assertSame(committed, privilege),
+                () -> Assertions.assertSame(committed, privilegeNameCache.get(name).get())
+        );
+    }
+
+    @Test
+    public void ensureAll_should_resolveExistingWithOneQuery_and_insertOnlyMissing() {
+        //given
+        Privilege read = Privilege.builder().id(1L).name("READ").build();
+        Privilege write = Privilege.builder().id(2L).name("WRITE").build();
+        privilegeNameCache.put("READ", read);
+
+        //when
+        Mockito.when(privilegeRepository.findByNameIn(List.of("WRITE", "DELETE"))).thenReturn(List.of(write));
+        Mockito.when(privilegeRepository.save(Mockito.any())).thenAnswer(invocation -> {
+            Privilege privilege = invocation.getArgument(0);
+            privilege.setId(3L);
+            return privilege;
+        });
+        List<Privilege> privileges = privilegeService.ensureAll(List.of("READ", "WRITE", "DELETE"));
+
+        //then
+        Mockito.verify(privilegeRepository).findByNameIn(List.of("WRITE", "DELETE"));
+        Mockito.verify(privilegeRepository).save(Mockito.any());
+        Mockito.verifyNoMoreInteractions(privilegeRepository);
+        Assertions.assertAll(
+                () -> Assertions.assertSame(read, privileges.get(0)),
+                () -> Assertions.assertSame(write, privileges.get(1)),
+                () -> Assertions.assertEquals("DELETE", privileges.get(2).getName()),
+                () -> Assertions.assertEquals(3L, privileges.get(2).getId())
+        );
+    }
 }
@@ -0,0 +1,149 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.config.ReminderProperties;
+import com.bariscan.sigorta_hatirlatici.dto.policyDtos.DuePaymentDto;
+import com.bariscan.sigorta_hatirlatici.dto.reminderDtos.ReminderMessage;
+import com.bariscan.sigorta_hatirlatici.service.reminder.ReminderCalendar;
+import com.bariscan.sigorta_hatirlatici.service.reminder.ReminderSender;
+import com.bariscan.sigorta_hatirlatici.service.reminder.ReminderTemplateRenderer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class ReminderDispatchServiceUnitTest {
+    private static final LocalDate TODAY = LocalDate.of(2023, 4, 1);
+
+    @Mock
+    private ReminderClaimService reminderClaimService;
+
+    private final List<ReminderMessage> delivered = new ArrayList<>();
+    private final List<String> bodies = new ArrayList<>();
+    private ReminderTemplateRenderer reminderTemplateRenderer;
+    private ReminderDispatchService reminderDispatchService;
+    private ReminderProperties properties;
+
+    @BeforeEach
+    public void setUp() {
+        ReminderSender stubSender = (message, body) -> {
+            if (message.getPaymentId() == 2L) {
+                throw new IllegalStateException("smtp unavailable");
+            }
+            delivered.add(message);
+            bodies.add(body.toString());
+        };
+        properties = new ReminderProperties();
+        properties.setBatchSize(3);
+        Clock clock = Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        reminderTemplateRenderer = new ReminderTemplateRenderer(properties);
+        reminderDispatchService = new ReminderDispatchService(reminderClaimService, stubSender,
+                reminderTemplateRenderer, properties, new ReminderCalendar(properties, clock), clock);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        reminderTemplateRenderer.shutdown();
+    }
+
+    @Test
+    public void dispatchDueReminders_should_acknowledgeSentAndReleaseFailedReminders() {
+        //given
+        List<DuePaymentDto> batch = List.of(payment(1L), payment(2L));
+
+        //when
+        Mockito.when(reminderClaimService.claimBatch()).thenReturn(batch);
+        reminderDispatchService.dispatchDueReminders();
+
+        //then
+        Mockito.verify(reminderClaimService).claimBatch();
+        Mockito.verify(reminderClaimService).markSent(List.of(1L));
+        Mockito.verify(reminderClaimService).release(List.of(2L));
+        Mockito.verifyNoMoreInteractions(reminderClaimService);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, delivered.size()),
+                () -> Assertions.assertEquals("10:" + TODAY.plusDays(3), delivered.get(0).getIdempotencyKey()),
+                () -> Assertions.assertTrue(bodies.get(0).contains("PN-10")),
+                () -> Assertions.assertTrue(bodies.get(0).contains(TODAY.plusDays(3).toString())),
+                () -> Assertions.assertEquals(1, reminderDispatchService.sentCount()),
+                () -> Assertions.assertEquals(1, reminderDispatchService.failedCount()),
+                () -> Assertions.assertEquals(Duration.ofDays(4).minusHours(9).toMillis(), reminderDispatchService.lastLagMillis())
+        );
+    }
+
+    @Test
+    public void dispatchDueReminders_should_keepClaiming_while_batchesAreFull() {
+        //when
+        Mockito.when(reminderClaimService.claimBatch())
+                .thenReturn(List.of(payment(1L), payment(3L), payment(4L)))
+                .thenReturn(List.of());
+        reminderDispatchService.dispatchDueReminders();
+
+        //then
+        Mockito.verify(reminderClaimService, Mockito.times(2)).claimBatch();
+        Assertions.assertEquals(3, delivered.size());
+    }
+
+    @Test
+    public void dispatchDueReminders_should_stopClaiming_when_aFullBatchHadFailures() {
+        //when
+        Mockito.when(reminderClaimService.claimBatch())
+                .thenReturn(List.of(payment(1L), payment(2L), payment(3L)));
+        reminderDispatchService.dispatchDueReminders();
+
+        //then
+        Mockito.verify(reminderClaimService).claimBatch();
+        Mockito.verify(reminderClaimService).release(List.of(2L));
+        Assertions.assertEquals(2, delivered.size());
+    }
+
+    @Test
+    public void dispatchDueReminders_should_onlySweepOncePerCatchUpInterval_when_wheelIsEnabled() {
+        //when
+        Mockito.when(reminderClaimService.claimBatch()).thenReturn(List.of());
+        reminderDispatchService.dispatchDueReminders();
+        reminderDispatchService.dispatchDueReminders();
+
+        //then
+        Mockito.verify(reminderClaimService).claimBatch();
+    }
+
+    @Test
+    public void dispatchDueReminders_should_pollEveryTime_when_wheelIsDisabled() {
+        //given
+        properties.getWheel().setEnabled(false);
+
+        //when
+        Mockito.when(reminderClaimService.claimBatch()).thenReturn(List.of());
+        reminderDispatchService.dispatchDueReminders();
+        reminderDispatchService.dispatchDueReminders();
+
+        //then
+        Mockito.verify(reminderClaimService, Mockito.times(2)).claimBatch();
+    }
+
+    private DuePaymentDto payment(Long id) {
+        return DuePaymentDto.builder()
+                .paymentId(id)
+                .policyId(10L)
+                .policyNumber("PN-10")
+                .dueDate(TODAY.plusDays(3))
+                .amount(BigDecimal.TEN)
+                .userId(1L)
+                .email("testMail@test.com")
+                .build();
+    }
+}
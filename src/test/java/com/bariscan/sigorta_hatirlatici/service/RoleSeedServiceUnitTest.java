@@ -0,0 +1,171 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.audit.AuditLog;
+import com.bariscan.sigorta_hatirlatici.cache.BoundedCache;
+import com.bariscan.sigorta_hatirlatici.cache.ReferenceDataCache;
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeOutbox;
+import com.bariscan.sigorta_hatirlatici.config.SeedProperties;
+import com.bariscan.sigorta_hatirlatici.dto.roleDtos.PrivilegeDto;
+import com.bariscan.sigorta_hatirlatici.dto.roleDtos.RoleDto;
+import com.bariscan.sigorta_hatirlatici.dto.seedDtos.NameIdDto;
+import com.bariscan.sigorta_hatirlatici.dto.seedDtos.RolePrivilegeDto;
+import com.bariscan.sigorta_hatirlatici.dto.seedDtos.RolePrivilegeNameDto;
+import com.bariscan.sigorta_hatirlatici.dto.seedDtos.SeedResultDto;
+import com.bariscan.sigorta_hatirlatici.entity.Privilege;
+import com.bariscan.sigorta_hatirlatici.entity.SeedState;
+import com.bariscan.sigorta_hatirlatici.repository.PrivilegeRepository;
+import com.bariscan.sigorta_hatirlatici.repository.RoleRepository;
+import com.bariscan.sigorta_hatirlatici.repository.SeedStateRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import javax.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+public class RoleSeedServiceUnitTest {
+    private static final byte[] MANIFEST = ("{\"roles\": {\"ROLE_ADMIN\": [\"READ_PRIVILEGE\", \"WRITE_PRIVILEGE\"]}}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private RoleRepository roleRepository;
+    @Mock
+    private PrivilegeRepository privilegeRepository;
+    @Mock
+    private SeedStateRepository seedStateRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+    @Mock
+    private AuthorityService authorityService;
+    @Mock
+    private AuditLog auditLog;
+    @Mock
+    private ChangeOutbox changeOutbox;
+    @Captor
+    private ArgumentCaptor<Collection<RolePrivilegeDto>> grantsArgumentCaptor;
+
+    private RoleSeedService roleSeedService;
+    private SeedState seedState;
+
+    @BeforeEach
+    public void setUp() {
+        roleSeedService = new RoleSeedService(roleRepository, privilegeRepository, seedStateRepository, jdbcTemplate,
+                entityManager, new ReferenceDataInserter(), referenceDataCache, new BoundedCache<>(16),
+                new BoundedCache<>(16), authorityService, auditLog, changeOutbox, new ObjectMapper(), new DefaultResourceLoader(),
+                new SeedProperties(), Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC));
+        seedState = SeedState.builder().name(RoleSeedService.MANIFEST_STATE).build();
+        Mockito.when(seedStateRepository.existsById(RoleSeedService.MANIFEST_STATE)).thenReturn(true);
+        Mockito.when(seedStateRepository.findForUpdate(RoleSeedService.MANIFEST_STATE)).thenReturn(Optional.of(seedState));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void seed_should_writeOnlyMissingRows() throws Exception {
+        //given
+        Mockito.when(privilegeRepository.findIdsByNameIn(Mockito.anyCollection()))
+                .thenReturn(List.of(new NameIdDto(1L, "READ_PRIVILEGE")));
+        Mockito.when(privilegeRepository.saveAll(Mockito.anyIterable())).thenAnswer(invocation -> {
+            Iterable<Privilege> privileges = invocation.getArgument(0);
+            privileges.forEach(privilege -> privilege.setId(2L));
+            return privileges;
+        });
+        Mockito.when(roleRepository.findIdsByNameIn(Mockito.anyCollection()))
+                .thenReturn(List.of(new NameIdDto(10L, "ROLE_ADMIN")));
+        Mockito.when(roleRepository.findGrantsByRoleIdIn(Mockito.anyCollection()))
+                .thenReturn(List.of(new RolePrivilegeDto(10L, 1L)));
+
+        //when
+        SeedResultDto result = roleSeedService.seed(MANIFEST);
+
+        //then
+        Mockito.verify(jdbcTemplate).batchUpdate(Mockito.startsWith("insert into roles_privileges"),
+                grantsArgumentCaptor.capture(), Mockito.eq(100), Mockito.any(ParameterizedPreparedStatementSetter.class));
+        Mockito.verify(referenceDataCache).evictAll();
+        Mockito.verify(authorityService).evictAll();
+        Mockito.verify(changeOutbox).record(Mockito.eq(ChangeOutbox.PRIVILEGE), Mockito.eq(2L),
+                Mockito.eq("PRIVILEGE_CREATED"), Mockito.any(PrivilegeDto.class));
+        Mockito.verify(changeOutbox).record(Mockito.eq(ChangeOutbox.ROLE), Mockito.eq(10L),
+                Mockito.eq("ROLE_PRIVILEGES_CHANGED"), Mockito.any(RoleDto.class));
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(result.isSkipped()),
+                () -> Assertions.assertEquals(1, result.getPrivilegesCreated()),
+                () -> Assertions.assertEquals(0, result.getRolesCreated()),
+                () -> Assertions.assertEquals(1, result.getGrantsAdded()),
+                () -> Assertions.assertEquals(0, result.getGrantsRemoved()),
+                () -> Assertions.assertEquals(List.of(new RolePrivilegeDto(10L, 2L)), List.copyOf(grantsArgumentCaptor.getValue())),
+                () -> Assertions.assertNotNull(seedState.getChecksum())
+        );
+    }
+
+    @Test
+    public void seed_should_skip_when_manifestIsAlreadyApplied() throws Exception {
+        //given
+        Mockito.when(roleRepository.findIdsByNameIn(Mockito.anyCollection()))
+                .thenReturn(List.of(new NameIdDto(10L, "ROLE_ADMIN")));
+        Mockito.when(privilegeRepository.findIdsByNameIn(Mockito.anyCollection()))
+                .thenReturn(List.of(new NameIdDto(1L, "READ_PRIVILEGE"), new NameIdDto(2L, "WRITE_PRIVILEGE")));
+        Mockito.when(roleRepository.findGrantsByRoleIdIn(Mockito.anyCollection()))
+                .thenReturn(List.of(new RolePrivilegeDto(10L, 1L), new RolePrivilegeDto(10L, 2L)));
+        Mockito.when(roleRepository.findGrantNamesByRoleNameIn(Mockito.anyCollection()))
+                .thenReturn(List.of(), List.of(new RolePrivilegeNameDto("ROLE_ADMIN", "READ_PRIVILEGE"),
+                        new RolePrivilegeNameDto("ROLE_ADMIN", "WRITE_PRIVILEGE")));
+        roleSeedService.seed(MANIFEST);
+
+        //when
+        SeedResultDto result = roleSeedService.seed(MANIFEST);
+
+        //then
+        Mockito.verify(roleRepository).findIdsByNameIn(Mockito.anyCollection());
+        Mockito.verify(seedStateRepository).findForUpdate(RoleSeedService.MANIFEST_STATE);
+        Mockito.verifyNoInteractions(jdbcTemplate);
+        Assertions.assertTrue(result.isSkipped());
+    }
+
+    @Test
+    public void seed_should_restoreDeletedGrant_when_sameManifestWasAppliedBefore() throws Exception {
+        //given
+        Mockito.when(roleRepository.findIdsByNameIn(Mockito.anyCollection()))
+                .thenReturn(List.of(new NameIdDto(10L, "ROLE_ADMIN")));
+        Mockito.when(privilegeRepository.findIdsByNameIn(Mockito.anyCollection()))
+                .thenReturn(List.of(new NameIdDto(1L, "READ_PRIVILEGE"), new NameIdDto(2L, "WRITE_PRIVILEGE")));
+        Mockito.when(roleRepository.findGrantsByRoleIdIn(Mockito.anyCollection()))
+                .thenReturn(List.of(new RolePrivilegeDto(10L, 1L), new RolePrivilegeDto(10L, 2L)),
+                        List.of(new RolePrivilegeDto(10L, 1L)));
+        Mockito.when(roleRepository.findGrantNamesByRoleNameIn(Mockito.anyCollection()))
+                .thenReturn(List.of(), List.of(new RolePrivilegeNameDto("ROLE_ADMIN", "READ_PRIVILEGE")));
+        roleSeedService.seed(MANIFEST);
+
+        //when
+        SeedResultDto result = roleSeedService.seed(MANIFEST);
+
+        //then
+        Mockito.verify(jdbcTemplate).batchUpdate(Mockito.startsWith("insert into roles_privileges"),
+                grantsArgumentCaptor.capture(), Mockito.eq(100), Mockito.any(ParameterizedPreparedStatementSetter.class));
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(result.isSkipped()),
+                () -> Assertions.assertEquals(1, result.getGrantsAdded()),
+                () -> Assertions.assertEquals(List.of(new RolePrivilegeDto(10L, 2L)), List.copyOf(grantsArgumentCaptor.getValue()))
+        );
+    }
+}
@@ -0,0 +1,79 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.cache.VersionStamp;
+import com.bariscan.sigorta_hatirlatici.dto.roleDtos.DeleteResultDto;
+import com.bariscan.sigorta_hatirlatici.dto.roleDtos.RoleDto;
+import com.bariscan.sigorta_hatirlatici.entity.Privilege;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.bariscan.sigorta_hatirlatici.metrics.QueryCountAssertions.assertQueryCount;
+
+@SpringBootTest
+@ActiveProfiles("it")
+public class RoleServiceIntegrationTest {
+    @Autowired
+    private RoleService roleService;
+    @Autowired
+    private PrivilegeService privilegeService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void findRoleByName_should_serveRepeatedLookupsFromCache() {
+        //given
+        roleService.findRoleByName("ROLE_USER");
+
+        //when
+        //then
+        assertQueryCount(0, () -> roleService.findRoleByName("ROLE_USER"));
+    }
+
+    @Test
+    public void getRole_should_loadPrivilegesWithoutNPlusOne() {
+        //given
+        entityManagerFactory.getCache().evictAll();
+        VersionStamp stamp = assertQueryCount(1, () -> roleService.findVersionStamp("ROLE_ADMIN"));
+
+        //when
+        RoleDto role = assertQueryCount(1, () -> roleService.getRole(stamp));
+
+        //then
+        assertQueryCount(0, () -> roleService.getRole(stamp));
+        Assertions.assertEquals(6, role.getPrivileges().size());
+    }
+
+    @Test
+    public void ensureAll_should_resolveKnownPrivilegesWithoutQueries() {
+        //given
+        privilegeService.ensureAll(List.of("READ_PRIVILEGE", "WRITE_PRIVILEGE"));
+
+        //when
+        List<Privilege> privileges = assertQueryCount(0,
+                () -> privilegeService.ensureAll(List.of("READ_PRIVILEGE", "WRITE_PRIVILEGE")));
+
+        //then
+        Assertions.assertEquals(2, privileges.size());
+    }
+
+    @Test
+    public void deleteRole_should_useFiveStatementsRegardlessOfGrants() {
+        //given
+        String name = "ROLE_QC_" + UUID.randomUUID().toString().substring(0, 8);
+        roleService.createRoleIfNotFound(name, privilegeService.ensureAll(List.of("READ_PRIVILEGE", "WRITE_PRIVILEGE")));
+
+        //when
+        DeleteResultDto result = assertQueryCount(5, () -> roleService.deleteRole(name));
+
+        //then
+        Assertions.assertEquals(0L, result.getAffected());
+    }
+}
@@ -1,5 +1,13 @@
 package com.bariscan.sigorta_hatirlatici.service;
 
+import com.bariscan.sigorta_hatirlatici.audit.AuditLog;
+import com.bariscan.sigorta_hatirlatici.cache.BoundedCache;
+import com.bariscan.sigorta_hatirlatici.cache.ReferenceDataCache;
+import com.bariscan.sigorta_hatirlatici.cache.VersionStamp;
+import com.bariscan.sigorta_hatirlatici.cache.VersionedCache;
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeOutbox;
+import com.bariscan.sigorta_hatirlatici.dto.roleDtos.DeleteResultDto;
+import com.bariscan.sigorta_hatirlatici.dto.roleDtos.RoleDto;
 import com.bariscan.sigorta_hatirlatici.entity.Privilege;
 import com.bariscan.sigorta_hatirlatici.entity.Role;
 import com.bariscan.sigorta_hatirlatici.exceptions.NotFoundException;
@@ -7,14 +15,19 @@ import com.bariscan.sigorta_hatirlatici.repository.RoleRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer;
 import org.springframework.data.crossstore.ChangeSetPersister;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +36,20 @@ public class RoleServiceUnitTest {
 
     @Mock
     private RoleRepository roleRepository;
+    @Mock
+    private AuthorityService authorityService;
+    @Spy
+    private BoundedCache<String, Role> roleNameCache = new BoundedCache<>(16);
+    @Mock
+    private AuditLog auditLog;
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+    @Spy
+    private ReferenceDataInserter referenceDataInserter = new ReferenceDataInserter();
+    @Spy
+    private VersionedCache<RoleDto> roleResponseCache = new VersionedCache<>(16);
+    @Mock
+    private ChangeOutbox changeOutbox;
     @InjectMocks
     private RoleService roleService;
 
@@ -162,36 +189,130 @@ public class RoleServiceUnitTest {
     }
 
     @Test
-    public void deleteRole_should_delete(){
+    public void deleteRole_should_deleteJoinRowsInBulk_and_reportAffectedUsers(){
         //given
         String roleName = "ROLE_USER";
-        String privilegeName = "READ_PRIVILEGE", privilegeName2 = "WRITE_PRIVILEGE";
 
-        List<Privilege> privileges = List.of(
-                Privilege.builder()
-                        .id(1L)
-                        .name(privilegeName)
-                        .roles(null)
-                        .build(),
-                Privilege.builder()
-                        .id(2L)
-                        .name(privilegeName2)
-                        .roles(null)
-                        .build()
+        //when
+        Mockito.when(roleRepository.findIdByName(roleName)).thenReturn(Optional.of(1L));
+        Mockito.when(roleRepository.deleteUserGrantsByRoleId(1L)).thenReturn(3);
+        DeleteResultDto result = roleService.deleteRole(roleName);
+
+        //then
+        InOrder inOrder = Mockito.inOrder(roleRepository);
+        inOrder.verify(roleRepository).findIdByName(roleName);
+        inOrder.verify(roleRepository).deleteUserGrantsByRoleId(1L);
+        inOrder.verify(roleRepository).deletePrivilegeGrantsByRoleId(1L);
+        inOrder.verify(roleRepository).deleteRowById(1L);
+        Mockito.verifyNoMoreInteractions(roleRepository);
+        Mockito.verify(changeOutbox).record(ChangeOutbox.ROLE, 1L, "ROLE_DELETED", result);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(roleName, result.getName()),
+                () -> Assertions.assertFalse(result.isSoftDeleted()),
+                () -> Assertions.assertEquals(3L, result.getAffected())
+        );
+    }
+
+    @Test
+    public void softDeleteRole_should_onlyMarkTheRole(){
+        //given
+        String roleName = "ROLE_USER";
+
+        //when
+        Mockito.when(roleRepository.findIdByName(roleName)).thenReturn(Optional.of(1L));
+        DeleteResultDto result = roleService.softDeleteRole(roleName);
+
+        //then
+        Mockito.verify(roleRepository).findIdByName(roleName);
+        Mockito.verify(roleRepository).softDeleteById(1L, RoleService.DELETED_NAME_SEPARATOR + 1L);
+        Mockito.verifyNoMoreInteractions(roleRepository);
+        Mockito.verify(referenceDataCache).evictRole(1L);
+        Mockito.verify(authorityService).evictAll();
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(result.isSoftDeleted()),
+                () -> Assertions.assertNull(result.getAffected())
         );
+    }
+
+    @Test
+    public void purgeSoftDeleted_should_deleteEverySoftDeletedRole(){
+        //given
+        //when
+        Mockito.when(roleRepository.findSoftDeletedIds()).thenReturn(List.of(1L, 2L));
+        roleService.purgeSoftDeleted();
+
+        //then
+        Mockito.verify(roleRepository).deleteRowById(1L);
+        Mockito.verify(roleRepository).deleteRowById(2L);
+    }
+
+    @Test
+    public void findByRole_should_returnCachedRole_when_calledTwice(){
+        //given
+        String roleName = "ROLE_USER";
 
         //when
         Mockito.when(roleRepository.findByName(Mockito.any(String.class))).thenReturn(Optional.ofNullable(Role.builder()
                 .id(1L)
                 .name(roleName)
-                .privileges(privileges)
                 .build()));
-        roleService.deleteRole(roleName);
+        roleService.findRoleByName(roleName);
+        Optional<Role> role = roleService.findRoleByName(roleName);
 
         //then
         Mockito.verify(roleRepository).findByName(Mockito.any(String.class));
-        Mockito.verify(roleRepository).delete(Mockito.any(Role.class));
         Mockito.verifyNoMoreInteractions(roleRepository);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(roleName, role.get().getName()),
+                () -> Assertions.assertEquals(1, roleNameCache.hitCount()),
+                () -> Assertions.assertEquals(1, roleNameCache.missCount())
+        );
+    }
+
+    @Test
+    public void deleteRole_should_evictRoleFromNameCache(){
+        //given
+        String roleName = "ROLE_USER";
+        Role cached = Role.builder()
+                .id(1L)
+                .name(roleName)
+                .build();
+        roleNameCache.put(roleName, cached);
+
+        //when
+        Mockito.when(roleRepository.findIdByName(roleName)).thenReturn(Optional.of(1L));
+        roleService.deleteRole(roleName);
+
+        //then
+        Mockito.verify(authorityService).evictAll();
+        Mockito.verify(referenceDataCache).evictRole(1L);
+        Assertions.assertTrue(roleNameCache.get(roleName).isEmpty());
+    }
+
+    @Test
+    public void deleteRole_should_evictNameCacheAgain_when_transactionCompletes(){
+        //given
+        String roleName = "ROLE_USER";
+        Role reloaded = Role.builder()
+                .id(1L)
+                .name(roleName)
+                .build();
+        Mockito.when(roleRepository.findIdByName(roleName)).thenReturn(Optional.of(1L));
+        TransactionSynchronizationManager.initSynchronization();
+
+        //when
+        try {
+            roleService.deleteRole(roleName);
+            roleNameCache.put(roleName, reloaded);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        //then
+        Assertions.assertTrue(roleNameCache.get(roleName).isEmpty());
     }
 
     @Test
@@ -200,8 +321,7 @@ public class RoleServiceUnitTest {
         String roleName = "ROLE_USER";
 
         //when
-        Mockito.when(roleRepository.findByName(Mockito.any(String.class))).thenReturn(
-                Optional.ofNullable(null));
+        Mockito.when(roleRepository.findIdByName(roleName)).thenReturn(Optional.empty());
 
 
         //then
@@ -209,9 +329,58 @@ public class RoleServiceUnitTest {
                 () -> roleService.deleteRole(roleName)
         );
         Assertions.assertEquals(exception.getMessage(), "Role is not found.");
-        Mockito.verify(roleRepository).findByName(Mockito.any(String.class));
+        Mockito.verify(roleRepository).findIdByName(roleName);
         Mockito.verifyNoMoreInteractions(roleRepository);
+        Mockito.verifyNoInteractions(changeOutbox);
+    }
+
+    @Test
+    public void getRole_should_serveCachedResponse_when_versionIsUnchanged(){
+        //given
+        Role role = Role.builder()
+                .id(1L)
+                .name("ROLE_USER")
+                .privileges(List.of(Privilege.builder().id(2L).name("READ_PRIVILEGE").build()))
+                .version(7L)
+                .build();
+        VersionStamp stamp = new VersionStamp(1L, 7L, Instant.parse("2024-01-01T00:00:00Z"));
+
+        //when
+        Mockito.when(roleRepository.findWithPrivilegesById(1L)).thenReturn(Optional.of(role));
+        roleService.getRole(stamp);
+        RoleDto dto = roleService.getRole(stamp);
+
+        //then
+        Mockito.verify(roleRepository).findWithPrivilegesById(1L);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("ROLE_USER", dto.getName()),
+                () -> Assertions.assertEquals(List.of("READ_PRIVILEGE"), dto.getPrivileges()),
+                () -> Assertions.assertEquals(7L, dto.getVersion())
+        );
     }
 
+    @Test
+    public void getRole_should_cacheUnderLoadedVersion_when_roleChangedAfterStamp(){
+        //given
+        Role role = Role.builder()
+                .id(1L)
+                .name("ROLE_USER")
+                .privileges(List.of())
+                .version(8L)
+                .build();
+        VersionStamp staleStamp = new VersionStamp(1L, 7L, Instant.parse("2024-01-01T00:00:00Z"));
+
+        //when
+        Mockito.when(roleRepository.findWithPrivilegesById(1L)).thenReturn(Optional.of(role));
+        roleService.getRole(staleStamp);
+        RoleDto dto = roleService.getRole(staleStamp);
 
+        //then
+        Mockito.verify(roleRepository, Mockito.times(2)).findWithPrivilegesById(1L);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(8L, dto.getVersion()),
+                () -> Assertions.assertTrue(roleResponseCache.get(1L, 7L).isEmpty()),
+                () -> Assertions.assertTrue(roleResponseCache.get(1L, 8L).isPresent())
+        );
+    }
 }
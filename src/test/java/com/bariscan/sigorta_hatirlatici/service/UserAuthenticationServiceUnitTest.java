@@ -0,0 +1,115 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.cache.BoundedCache;
+import com.bariscan.sigorta_hatirlatici.config.CacheProperties;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserCredentialsRow;
+import com.bariscan.sigorta_hatirlatici.exceptions.TooManyRequestsException;
+import com.bariscan.sigorta_hatirlatici.ratelimit.AttemptRateLimiter;
+import com.bariscan.sigorta_hatirlatici.repository.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@ExtendWith(MockitoExtension.class)
+public class UserAuthenticationServiceUnitTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private AttemptRateLimiter attemptRateLimiter;
+
+    private UserAuthenticationService userAuthenticationService;
+
+    @BeforeEach
+    public void setUp() {
+        userAuthenticationService = new UserAuthenticationService(userRepository, new BoundedCache<>(16),
+                new CacheProperties(), Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC),
+                attemptRateLimiter);
+    }
+
+    @Test
+    public void loadUserByUsername_should_normaliseEmailAndFlattenAuthorities() {
+        //given
+        List<UserCredentialsRow> rows = List.of(
+                new UserCredentialsRow(1L, "Bariscan@Test.com", "hash", true, "ROLE_ADMIN", "READ"),
+                new UserCredentialsRow(1L, "Bariscan@Test.com", "hash", true, "ROLE_ADMIN", "WRITE"));
+
+        //when
+        Mockito.when(userRepository.findCredentialsByEmailKey("bariscan@test.com")).thenReturn(rows);
+        UserDetails userDetails = userAuthenticationService.loadUserByUsername(" Bariscan@TEST.com ");
+
+        //then
+        Set<String> authorities = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("Bariscan@Test.com", userDetails.getUsername()),
+                () -> Assertions.assertEquals("hash", userDetails.getPassword()),
+                () -> Assertions.assertTrue(userDetails.isEnabled()),
+                () -> Assertions.assertEquals(Set.of("ROLE_ADMIN", "READ", "WRITE"), authorities)
+        );
+    }
+
+    @Test
+    public void loadUserByUsername_should_notQueryAgain_when_emailIsKnownMissing() {
+        //given
+        String email = "missing@test.com";
+
+        //when
+        Mockito.when(userRepository.findCredentialsByEmailKey(email)).thenReturn(List.of());
+
+        //then
+        Assertions.assertThrows(UsernameNotFoundException.class, () -> userAuthenticationService.loadUserByUsername(email));
+        Assertions.assertThrows(UsernameNotFoundException.class, () -> userAuthenticationService.loadUserByUsername(email));
+        Mockito.verify(userRepository).findCredentialsByEmailKey(email);
+        Mockito.verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    public void forgetMissingEmail_should_allowLookupOfNewlyCreatedUser() {
+        //given
+        String email = "new@test.com";
+
+        //when
+        Mockito.when(userRepository.findCredentialsByEmailKey(email))
+                .thenReturn(List.of())
+                .thenReturn(List.of(new UserCredentialsRow(2L, email, "hash", true, null, null)));
+        Assertions.assertThrows(UsernameNotFoundException.class, () -> userAuthenticationService.loadUserByUsername(email));
+        userAuthenticationService.forgetMissingEmail("NEW@test.com");
+        UserDetails userDetails = userAuthenticationService.loadUserByUsername(email);
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(email, userDetails.getUsername()),
+                () -> Assertions.assertTrue(userDetails.getAuthorities().isEmpty())
+        );
+    }
+
+    @Test
+    public void loadUserByUsername_should_notQueryDatabase_when_throttled() {
+        //given
+        String email = "bariscan@test.com";
+
+        //when
+        Mockito.doThrow(new TooManyRequestsException("Too many login attempts, try again later."))
+                .when(attemptRateLimiter).checkLogin(email);
+
+        //then
+        Assertions.assertThrows(TooManyRequestsException.class, () -> userAuthenticationService.loadUserByUsername(" Bariscan@test.com"));
+        Mockito.verifyNoInteractions(userRepository);
+    }
+}
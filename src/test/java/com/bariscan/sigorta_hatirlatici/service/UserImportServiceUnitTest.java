@@ -0,0 +1,173 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeOutbox;
+import com.bariscan.sigorta_hatirlatici.config.UserImportProperties;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserImportFormat;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserImportResultDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserImportSummaryDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserProfileDto;
+import com.bariscan.sigorta_hatirlatici.entity.User;
+import com.bariscan.sigorta_hatirlatici.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImportServiceUnitTest {
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private UserAuthenticationService userAuthenticationService;
+    @Mock
+    private ChangeOutbox changeOutbox;
+    @Captor
+    private ArgumentCaptor<Iterable<User>> usersArgumentCaptor;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    public void setUp() {
+        UserImportProperties properties = new UserImportProperties();
+        properties.setBatchSize(2);
+        properties.setHashingThreads(2);
+        userImportService = new UserImportService(userRepository, passwordEncoder,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                transactionTemplate, entityManager, userAuthenticationService, changeOutbox, properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userImportService.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void importUsers_should_persistValidRowsInBatchesAndReportInvalidOnes() throws Exception {
+        //given
+        String csv = "firstName,lastName,email,password\n"
+                + "Bariscan,Gungor,bariscan@test.com,123456789\n"
+                + "x,Gungor,short@test.com,123456789\n"
+                + "Test,User,existing@test.com,123456789\n"
+                + "Other,User,other@test.com,123456789\n";
+        List<UserImportResultDto> results = new ArrayList<>();
+
+        //when
+        Mockito.when(passwordEncoder.encode(Mockito.any(String.class))).thenAnswer(invocation -> "hashed:" + invocation.getArgument(0));
+        Mockito.when(userRepository.findExistingEmails(Mockito.anyCollection())).thenReturn(Set.of("existing@test.com"));
+        Mockito.when(transactionTemplate.execute(Mockito.any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        Mockito.when(userRepository.saveAll(Mockito.anyIterable())).thenAnswer(invocation -> {
+            Iterable<User> users = invocation.getArgument(0);
+            long id = 1;
+            for (User user : users) {
+                user.setId(id++);
+            }
+            return users;
+        });
+        UserImportSummaryDto summary = userImportService.importUsers(new StringReader(csv), UserImportFormat.CSV, results::add);
+
+        //then
+        Mockito.verify(userRepository, Mockito.times(2)).saveAll(usersArgumentCaptor.capture());
+        Mockito.verify(userRepository, Mockito.times(2)).flush();
+        Mockito.verify(entityManager, Mockito.times(2)).clear();
+        Mockito.verify(changeOutbox).record(Mockito.eq(ChangeOutbox.USER), Mockito.eq(1L), Mockito.eq("USER_CREATED"),
+                Mockito.argThat(profile -> "bariscan@test.com".equals(((UserProfileDto) profile).getEmail())));
+        Mockito.verify(changeOutbox).record(Mockito.eq(ChangeOutbox.USER), Mockito.eq(1L), Mockito.eq("USER_CREATED"),
+                Mockito.argThat(profile -> "other@test.com".equals(((UserProfileDto) profile).getEmail())));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(4, summary.getTotal()),
+                () -> Assertions.assertEquals(2, summary.getImported()),
+                () -> Assertions.assertEquals(2, summary.getRejected()),
+                () -> Assertions.assertEquals(UserImportResultDto.Status.IMPORTED, results.get(0).getStatus()),
+                () -> Assertions.assertEquals(UserImportResultDto.Status.INVALID, results.get(1).getStatus()),
+                () -> Assertions.assertEquals(UserImportResultDto.Status.DUPLICATE, results.get(2).getStatus()),
+                () -> Assertions.assertEquals(UserImportResultDto.Status.IMPORTED, results.get(3).getStatus()),
+                () -> Assertions.assertEquals(3L, results.get(1).getLine()),
+                () -> Assertions.assertEquals("hashed:123456789",
+                        usersArgumentCaptor.getValue().iterator().next().getPassword())
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void importUsers_should_retryRowByRow_when_emailIsInsertedConcurrently() throws Exception {
+        //given
+        String csv = "Bariscan,Gungor,bariscan@test.com,123456789\n"
+                + "Other,User,taken@test.com,123456789\n";
+        List<UserImportResultDto> results = new ArrayList<>();
+
+        //when
+        Mockito.when(passwordEncoder.encode(Mockito.any(String.class))).thenAnswer(invocation -> "hashed:" + invocation.getArgument(0));
+        Mockito.when(userRepository.findExistingEmails(Mockito.anyCollection())).thenReturn(Set.of());
+        Mockito.when(transactionTemplate.execute(Mockito.any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        Mockito.when(userRepository.saveAll(Mockito.anyIterable())).thenAnswer(invocation -> {
+            Iterable<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(user.getEmail().startsWith("bariscan") ? 1L : 2L));
+            return users;
+        });
+        Mockito.doThrow(new DataIntegrityViolationException("users_email_key"))
+                .doNothing()
+                .doThrow(new DataIntegrityViolationException("users_email_key"))
+                .when(userRepository).flush();
+        UserImportSummaryDto summary = userImportService.importUsers(new StringReader(csv), UserImportFormat.CSV, results::add);
+
+        //then
+        Mockito.verify(userRepository, Mockito.times(3)).saveAll(Mockito.anyIterable());
+        Mockito.verify(passwordEncoder, Mockito.times(2)).encode(Mockito.any(String.class));
+        Mockito.verify(userAuthenticationService).forgetMissingEmail("bariscan@test.com");
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, summary.getImported()),
+                () -> Assertions.assertEquals(1, summary.getRejected()),
+                () -> Assertions.assertEquals(UserImportResultDto.Status.IMPORTED, results.get(0).getStatus()),
+                () -> Assertions.assertEquals(1L, results.get(0).getUserId()),
+                () -> Assertions.assertEquals(UserImportResultDto.Status.DUPLICATE, results.get(1).getStatus()),
+                () -> Assertions.assertEquals(List.of("email already exists"), results.get(1).getErrors())
+        );
+    }
+
+    @Test
+    public void importUsers_should_rejectMalformedJsonLines() throws Exception {
+        //given
+        String jsonLines = "{\"firstName\":\"Bariscan\",\nnull\n";
+        List<UserImportResultDto> results = new ArrayList<>();
+
+        //when
+        UserImportSummaryDto summary = userImportService.importUsers(new StringReader(jsonLines), UserImportFormat.JSON_LINES, results::add);
+
+        //then
+        Mockito.verifyNoInteractions(userRepository, passwordEncoder, transactionTemplate, changeOutbox);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(2, summary.getRejected()),
+                () -> Assertions.assertEquals(UserImportResultDto.Status.INVALID, results.get(0).getStatus()),
+                () -> Assertions.assertEquals(UserImportResultDto.Status.INVALID, results.get(1).getStatus()),
+                () -> Assertions.assertEquals(List.of("malformed json: expected an object"), results.get(1).getErrors())
+        );
+    }
+}
@@ -0,0 +1,121 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.audit.AuditLog;
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeOutbox;
+import com.bariscan.sigorta_hatirlatici.config.UserRoleProperties;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.BulkRoleResultDto;
+import com.bariscan.sigorta_hatirlatici.exceptions.BadRequestException;
+import com.bariscan.sigorta_hatirlatici.exceptions.NotFoundException;
+import com.bariscan.sigorta_hatirlatici.repository.RoleRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class UserRoleServiceUnitTest {
+    @Mock
+    private RoleRepository roleRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private AuthorityService authorityService;
+    @Mock
+    private AuditLog auditLog;
+    @Mock
+    private ChangeOutbox changeOutbox;
+
+    private UserRoleService userRoleService;
+
+    @BeforeEach
+    public void setUp() {
+        UserRoleProperties properties = new UserRoleProperties();
+        properties.setChunkSize(2);
+        userRoleService = new UserRoleService(roleRepository, jdbcTemplate, entityManager, authorityService,
+                auditLog, changeOutbox, properties);
+    }
+
+    @Test
+    public void grantRole_should_insertInSortedChunks_and_evictUsers() {
+        //given
+        List<Long> userIds = List.of(3L, 1L, 2L, 1L);
+        Mockito.when(roleRepository.existsById(10L)).thenReturn(true);
+        Mockito.when(jdbcTemplate.update(Mockito.startsWith("insert into users_roles"), Mockito.<Object[]>any()))
+                .thenReturn(2, 1);
+
+        //when
+        BulkRoleResultDto result = userRoleService.grantRole(10L, userIds);
+
+        //then
+        Mockito.verify(entityManager).flush();
+        Mockito.verify(jdbcTemplate).update(Mockito.contains("in (?,?)"), Mockito.eq(10L), Mockito.eq(1L),
+                Mockito.eq(2L), Mockito.eq(10L));
+        Mockito.verify(jdbcTemplate).update(Mockito.contains("in (?)"), Mockito.eq(10L), Mockito.eq(3L),
+                Mockito.eq(10L));
+        Mockito.verify(authorityService).evictUsers(userIds);
+        Mockito.verify(changeOutbox).record(Mockito.eq(ChangeOutbox.ROLE), Mockito.eq(10L), Mockito.eq("ROLE_GRANTED"),
+                Mockito.same(result));
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(10L, result.getRoleId()),
+                () -> Assertions.assertEquals(3, result.getChanged())
+        );
+    }
+
+    @Test
+    public void revokeRoleByEmailPrefix_should_escapeLikeWildcards_and_evictAll() {
+        //given
+        Mockito.when(roleRepository.existsById(10L)).thenReturn(true);
+        Mockito.when(jdbcTemplate.update(Mockito.startsWith("delete from users_roles"), Mockito.eq(10L),
+                Mockito.eq("ops\\_team%"))).thenReturn(5);
+
+        //when
+        BulkRoleResultDto result = userRoleService.revokeRoleByEmailPrefix(10L, " Ops_Team");
+
+        //then
+        Mockito.verify(authorityService).evictAll();
+        Assertions.assertEquals(5, result.getChanged());
+    }
+
+    @Test
+    public void grantRole_should_notTouchCaches_when_nothingChanged() {
+        //given
+        Mockito.when(roleRepository.existsById(10L)).thenReturn(true);
+        Mockito.when(jdbcTemplate.update(Mockito.anyString(), Mockito.<Object[]>any())).thenReturn(0);
+
+        //when
+        BulkRoleResultDto result = userRoleService.grantRole(10L, List.of(1L));
+
+        //then
+        Mockito.verifyNoInteractions(authorityService, changeOutbox);
+        Assertions.assertEquals(0, result.getChanged());
+    }
+
+    @Test
+    public void grantRole_should_throwNotFoundException_when_roleIsMissing() {
+        //given
+        Mockito.when(roleRepository.existsById(10L)).thenReturn(false);
+
+        //when
+        //then
+        Assertions.assertThrows(NotFoundException.class, () -> userRoleService.grantRole(10L, List.of(1L)));
+        Mockito.verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void grantRoleByEmailPrefix_should_throwBadRequestException_when_prefixIsBlank() {
+        //given
+        //when
+        //then
+        Assertions.assertThrows(BadRequestException.class, () -> userRoleService.grantRoleByEmailPrefix(10L, "  "));
+        Mockito.verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,244 @@
+package com.bariscan.sigorta_hatirlatici.service;
+
+import com.bariscan.sigorta_hatirlatici.cache.VersionStamp;
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeFeed;
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeFeedSubscription;
+import com.bariscan.sigorta_hatirlatici.dto.changeDtos.ChangeEventDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.ChangePassDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserImportFormat;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserImportResultDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserPageDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserSortField;
+import com.bariscan.sigorta_hatirlatici.entity.User;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.bariscan.sigorta_hatirlatici.metrics.QueryCountAssertions.assertMaxQueryCount;
+import static com.bariscan.sigorta_hatirlatici.metrics.QueryCountAssertions.assertQueryCount;
+
+@SpringBootTest
+@ActiveProfiles("it")
+public class UserServiceIntegrationTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private RoleService roleService;
+    @Autowired
+    private AuthorityService authorityService;
+    @Autowired
+    private UserAuthenticationService userAuthenticationService;
+    @Autowired
+    private ChangeFeed changeFeed;
+    @Autowired
+    private UserImportService userImportService;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        user = userService.createNewUser(UserDto.builder()
+                .firstName("Query")
+                .lastName("Count")
+                .email("qc-" + UUID.randomUUID().toString().substring(0, 8) + "@test.com")
+                .password("123456789")
+                .build());
+    }
+
+    @Test
+    public void findUserById_should_issueExactlyOneQuery() {
+        //given
+        //when
+        User found = assertQueryCount(1, () -> userService.findUserById(user.getId()).orElseThrow());
+
+        //then
+        Assertions.assertEquals(user.getEmail(), found.getEmail());
+    }
+
+    @Test
+    public void hashCode_should_notInitializeLazyRoles() {
+        //given
+        User found = userService.findUserById(user.getId()).orElseThrow();
+
+        //when
+        //then
+        assertQueryCount(0, () -> found.hashCode());
+    }
+
+    @Test
+    public void getUserProfile_should_hitTheDatabaseOncePerVersion() {
+        //given
+        VersionStamp stamp = assertQueryCount(1, () -> userService.findVersionStamp(user.getId()));
+
+        //when
+        assertQueryCount(1, () -> userService.getUserProfile(stamp));
+
+        //then
+        assertQueryCount(0, () -> userService.getUserProfile(stamp));
+    }
+
+    @Test
+    public void loadUserByUsername_should_fetchRolesAndPrivilegesInOneQuery() {
+        //given
+        userService.assignRoles(user.getId(), List.of(
+                roleService.findRoleByName("ROLE_ADMIN").orElseThrow(),
+                roleService.findRoleByName("ROLE_USER").orElseThrow()));
+
+        //when
+        UserDetails details = assertQueryCount(1, () -> userAuthenticationService.loadUserByUsername(user.getEmail()));
+
+        //then
+        Assertions.assertTrue(details.getAuthorities().size() > 2);
+    }
+
+    @Test
+    public void findPrivilegesOfUser_should_queryOnce_and_thenServeFromCache() {
+        //given
+        userService.assignRoles(user.getId(), List.of(roleService.findRoleByName("ROLE_USER").orElseThrow()));
+
+        //when
+        assertQueryCount(1, () -> authorityService.findPrivilegesOfUser(user.getId()));
+
+        //then
+        assertQueryCount(0, () -> authorityService.findPrivilegesOfUser(user.getId()));
+    }
+
+    @Test
+    public void listUsers_should_issueExactlyOneQuery() {
+        //given
+        //when
+        UserPageDto page = assertQueryCount(1, () -> userService.listUsers(UserSortField.ID, null, null, 50));
+
+        //then
+        Assertions.assertFalse(page.getItems().isEmpty());
+    }
+
+    @Test
+    public void createNewUser_should_notIssueMoreThanSequenceUserAndOutboxInsert() {
+        //given
+        UserDto userDto = UserDto.builder()
+                .firstName("Query")
+                .lastName("Count")
+                .email("qc-" + UUID.randomUUID().toString().substring(0, 8) + "@test.com")
+                .password("123456789")
+                .build();
+
+        //when
+        //then
+        assertMaxQueryCount(3, () -> userService.createNewUser(userDto));
+    }
+
+    @Test
+    public void createNewUser_should_publishChangeEventThroughTheOutbox() throws Exception {
+        //given
+        BlockingQueue<ChangeEventDto> received = new LinkedBlockingQueue<>();
+        ChangeFeedSubscription subscription = changeFeed.subscribe(null, received::add);
+        UserDto userDto = UserDto.builder()
+                .firstName("Change")
+                .lastName("Feed")
+                .email("cf-" + UUID.randomUUID().toString().substring(0, 8) + "@test.com")
+                .password("123456789")
+                .build();
+
+        //when
+        User created = userService.createNewUser(userDto);
+        changeFeed.relay();
+
+        //then
+        try {
+            ChangeEventDto userCreated = awaitEvent(received, created.getId(), "USER_CREATED");
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals("user", userCreated.getAggregateType()),
+                    () -> Assertions.assertTrue(userCreated.getPayload().contains(created.getEmail())),
+                    () -> Assertions.assertFalse(userCreated.getPayload().contains("password"))
+            );
+        } finally {
+            changeFeed.unsubscribe(subscription);
+        }
+    }
+
+    @Test
+    public void asyncWrites_should_publishChangeEventsThroughTheOutbox() throws Exception {
+        //given
+        BlockingQueue<ChangeEventDto> received = new LinkedBlockingQueue<>();
+        ChangeFeedSubscription subscription = changeFeed.subscribe(null, received::add);
+        UserDto userDto = UserDto.builder()
+                .firstName("Change")
+                .lastName("Feed")
+                .email("cfa-" + UUID.randomUUID().toString().substring(0, 8) + "@test.com")
+                .password("123456789")
+                .build();
+        ChangePassDto changePassDto = ChangePassDto.builder()
+                .id(user.getId())
+                .password("123456789")
+                .newPass("987654321")
+                .newPassAgain("987654321")
+                .build();
+
+        //when
+        User created = userService.createNewUserAsync(userDto).get(10, TimeUnit.SECONDS);
+        String changed = userService.changePasswordAsync(changePassDto).get(10, TimeUnit.SECONDS);
+        changeFeed.relay();
+
+        //then
+        try {
+            ChangeEventDto userCreated = awaitEvent(received, created.getId(), "USER_CREATED");
+            ChangeEventDto passwordChanged = awaitEvent(received, user.getId(), "PASSWORD_CHANGED");
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals("Password changed.", changed),
+                    () -> Assertions.assertTrue(userCreated.getPayload().contains(created.getEmail())),
+                    () -> Assertions.assertTrue(passwordChanged.getPayload().contains("\"version\":" + (user.getVersion() + 1))),
+                    () -> Assertions.assertFalse(passwordChanged.getPayload().contains("password"))
+            );
+        } finally {
+            changeFeed.unsubscribe(subscription);
+        }
+    }
+
+    @Test
+    public void importUsers_should_publishChangeEventForEveryImportedUser() throws Exception {
+        //given
+        BlockingQueue<ChangeEventDto> received = new LinkedBlockingQueue<>();
+        ChangeFeedSubscription subscription = changeFeed.subscribe(null, received::add);
+        String email = "cfi-" + UUID.randomUUID().toString().substring(0, 8) + "@test.com";
+        List<UserImportResultDto> results = new ArrayList<>();
+
+        //when
+        userImportService.importUsers(new StringReader("Change,Feed," + email + ",123456789\n"),
+                UserImportFormat.CSV, results::add);
+        changeFeed.relay();
+
+        //then
+        try {
+            Long importedId = results.get(0).getUserId();
+            Assertions.assertNotNull(importedId);
+            ChangeEventDto userCreated = awaitEvent(received, importedId, "USER_CREATED");
+            Assertions.assertTrue(userCreated.getPayload().contains(email));
+        } finally {
+            changeFeed.unsubscribe(subscription);
+        }
+    }
+
+    private static ChangeEventDto awaitEvent(BlockingQueue<ChangeEventDto> received, Long aggregateId, String type)
+            throws InterruptedException {
+        ChangeEventDto event;
+        do {
+            event = received.poll(5, TimeUnit.SECONDS);
+            Assertions.assertNotNull(event);
+        } while (!String.valueOf(aggregateId).equals(event.getAggregateId()) || !type.equals(event.getType()));
+        return event;
+    }
+}
@@ -1,25 +1,44 @@
 package com.bariscan.sigorta_hatirlatici.service;
 
+import com.bariscan.sigorta_hatirlatici.audit.AuditLog;
+import com.bariscan.sigorta_hatirlatici.cache.VersionStamp;
+import com.bariscan.sigorta_hatirlatici.cache.VersionedCache;
+import com.bariscan.sigorta_hatirlatici.changefeed.ChangeOutbox;
 import com.bariscan.sigorta_hatirlatici.dto.userDtos.ChangePassDto;
 import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserPageDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserProfileDto;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserSortField;
+import com.bariscan.sigorta_hatirlatici.dto.userDtos.UserSummary;
 import com.bariscan.sigorta_hatirlatici.entity.User;
+import com.bariscan.sigorta_hatirlatici.exceptions.BadRequestException;
+import com.bariscan.sigorta_hatirlatici.exceptions.ConflictException;
 import com.bariscan.sigorta_hatirlatici.exceptions.NotFoundException;
+import com.bariscan.sigorta_hatirlatici.exceptions.TooManyRequestsException;
+import com.bariscan.sigorta_hatirlatici.ratelimit.AttemptRateLimiter;
 import com.bariscan.sigorta_hatirlatici.repository.UserRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.aggregator.ArgumentsAccessor;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
 import javax.validation.Validator;
 import javax.validation.ValidatorFactory;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.Set;
 
 
@@ -29,6 +48,22 @@ public class UserServiceUnitTest {
     private PasswordEncoder passwordEncoder;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private AuthorityService authorityService;
+    @Mock
+    private PasswordHashingService passwordHashingService;
+    @Mock
+    private UserAuthenticationService userAuthenticationService;
+    @Mock
+    private AuditLog auditLog;
+    @Spy
+    private VersionedCache<UserProfileDto> userProfileCache = new VersionedCache<>(16);
+    @Mock
+    private AttemptRateLimiter attemptRateLimiter;
+    @Mock
+    private ChangeOutbox changeOutbox;
+    @Mock
+    private TransactionTemplate transactionTemplate;
     @InjectMocks
     private UserService userService;
 
@@ -98,6 +133,7 @@ public class UserServiceUnitTest {
     @CsvSource({"123456789,987654321,987654321",
             "12a1sd3a1sda,a5s4d8asd89a4sd8,a5s4d8asd89a4sd8",
             "asdfgh,qwertyu,qwertyu"})
+    @SuppressWarnings("unchecked")
     public void changePassword_success(ArgumentsAccessor argumentsAccessor) {
         //given
         String oldPassword = argumentsAccessor.getString(0);
@@ -108,7 +144,7 @@ public class UserServiceUnitTest {
                 .firstName("testName")
                 .lastName("testLastName")
                 .email("testMail@test.com")
-                .password(oldPassword)
+                .password("hashedPass:" + oldPassword)
                 .build();
 
         ChangePassDto changePassDto = ChangePassDto.builder()
@@ -119,26 +155,52 @@ public class UserServiceUnitTest {
                 .build();
 
         //when
-        Mockito.when(passwordEncoder.encode(Mockito.any(String.class))).thenReturn("hashedPass:" + newPassword);
-        Mockito.when(passwordEncoder.matches(Mockito.any(String.class), Mockito.any(String.class))).thenReturn(true);
-        Mockito.when(userRepository.save(Mockito.any(User.class))).thenReturn(user);
-        Mockito.when(userRepository.findById(Mockito.any(Long.class))).thenReturn(Optional.ofNullable(user));
+        Mockito.when(userRepository.findById(Mockito.any(Long.class))).thenReturn(Optional.of(user));
+        Mockito.when(passwordHashingService.matches(oldPassword, user.getPassword()))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        Mockito.when(passwordHashingService.encode(newPassword))
+                .thenReturn(CompletableFuture.completedFuture("hashedPass:" + newPassword));
+        Mockito.when(userRepository.replacePassword(1L, user.getPassword(), "hashedPass:" + newPassword)).thenReturn(1);
+        Mockito.when(transactionTemplate.execute(Mockito.any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
 
         String returnMessage = userService.changePassword(changePassDto);
 
         //then
-        Mockito.verify(passwordEncoder).encode(charArgumentCaptor.capture());
-        Mockito.verify(userRepository).save(userArgumentCaptor.capture());
-        Mockito.verify(userRepository).findById(longArgumentCaptor.capture());
-        Mockito.verify(passwordEncoder).matches(stringArgumentCaptor.capture(), stringArgumentCaptor2.capture());
-        Mockito.verifyNoMoreInteractions(passwordEncoder, userRepository);
+        Mockito.verify(userRepository).replacePassword(1L, "hashedPass:" + oldPassword, "hashedPass:" + newPassword);
+        Mockito.verify(userRepository, Mockito.times(2)).findById(1L);
+        Mockito.verifyNoMoreInteractions(userRepository);
+        Mockito.verifyNoInteractions(passwordEncoder);
+        Assertions.assertEquals("Password changed.", returnMessage);
+    }
 
-        Assertions.assertAll(
-                () -> Assertions.assertEquals("Password changed.", returnMessage),
-                () -> Assertions.assertEquals("hashedPass:" + newPassword, userArgumentCaptor.getValue().getPassword()),
-                () -> Assertions.assertEquals(longArgumentCaptor.getValue(), changePassDto.getId()),
-                () -> Assertions.assertEquals(stringArgumentCaptor.getValue(), charArgumentCaptor.getValue())
-        );
+    @Test
+    public void changePassword_should_reject_when_currentPasswordIsWrong() {
+        //given
+        User user = User.builder()
+                .id(1L)
+                .email("testMail@test.com")
+                .password("hashedPass:123456789")
+                .build();
+        ChangePassDto changePassDto = ChangePassDto.builder()
+                .id(1L)
+                .password("wrongPassword")
+                .newPass("123456789")
+                .newPassAgain("123456789")
+                .build();
+
+        //when
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        Mockito.when(passwordHashingService.matches("wrongPassword", user.getPassword()))
+                .thenReturn(CompletableFuture.completedFuture(false));
+
+        String returnMessage = userService.changePassword(changePassDto);
+
+        //then
+        Mockito.verify(passwordHashingService, Mockito.never()).encode(Mockito.any());
+        Mockito.verify(userRepository, Mockito.never()).replacePassword(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verifyNoInteractions(passwordEncoder);
+        Assertions.assertEquals("Password is not correct.", returnMessage);
     }
 
     @ParameterizedTest
@@ -159,6 +221,134 @@ public class UserServiceUnitTest {
         Mockito.verifyNoMoreInteractions(userRepository);
     }
 
+    @Test
+    public void changePassword_should_notTouchRepositoryOrEncoder_when_throttled() {
+        //given
+        ChangePassDto changePassDto = ChangePassDto.builder()
+                .id(1L)
+                .password("123456789")
+                .newPass("987654321")
+                .newPassAgain("987654321")
+                .build();
+
+        //when
+        Mockito.doThrow(new TooManyRequestsException("Too many password attempts, try again later."))
+                .when(attemptRateLimiter).acquirePasswordAttempt(1L);
+
+        //then
+        Assertions.assertThrows(TooManyRequestsException.class, () -> userService.changePassword(changePassDto));
+        Assertions.assertThrows(TooManyRequestsException.class, () -> userService.changePasswordAsync(changePassDto));
+        Mockito.verifyNoInteractions(userRepository, passwordEncoder, passwordHashingService);
+    }
+
+    @Test
+    public void changePassword_should_throwConflictException_when_versionIsStale() {
+        //given
+        User user = User.builder()
+                .id(1L)
+                .email("testMail@test.com")
+                .password("123456789")
+                .version(3L)
+                .build();
+        ChangePassDto changePassDto = ChangePassDto.builder()
+                .id(1L)
+                .newPass("987654321")
+                .newPassAgain("987654321")
+                .version(2L)
+                .build();
+
+        //when
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        //then
+        Assertions.assertThrows(ConflictException.class, () -> userService.changePassword(changePassDto));
+        Mockito.verify(userRepository).findById(1L);
+        Mockito.verifyNoMoreInteractions(userRepository);
+        Mockito.verifyNoInteractions(passwordEncoder, passwordHashingService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void changePassword_should_throwConflictException_when_concurrentUpdateWins() {
+        //given
+        User user = User.builder()
+                .id(1L)
+                .email("testMail@test.com")
+                .password("hashedPass:123456789")
+                .build();
+        ChangePassDto changePassDto = ChangePassDto.builder()
+                .id(1L)
+                .password("123456789")
+                .newPass("987654321")
+                .newPassAgain("987654321")
+                .build();
+
+        //when
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        Mockito.when(passwordHashingService.matches("123456789", user.getPassword()))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        Mockito.when(passwordHashingService.encode("987654321")).thenReturn(CompletableFuture.completedFuture("hashed"));
+        Mockito.when(userRepository.replacePassword(1L, user.getPassword(), "hashed")).thenReturn(0);
+        Mockito.when(transactionTemplate.execute(Mockito.any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+        //then
+        Assertions.assertThrows(ConflictException.class, () -> userService.changePassword(changePassDto));
+        Mockito.verifyNoInteractions(auditLog);
+    }
+
+    @Test
+    public void getUserProfile_should_loadOncePerVersion() {
+        //given
+        User user = User.builder()
+                .id(1L)
+                .firstName("testName")
+                .lastName("testLastName")
+                .email("testMail@test.com")
+                .enabled(true)
+                .version(4L)
+                .build();
+        VersionStamp stamp = new VersionStamp(1L, 4L, Instant.parse("2024-01-01T00:00:00Z"));
+
+        //when
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userService.getUserProfile(stamp);
+        UserProfileDto profile = userService.getUserProfile(stamp);
+        userService.getUserProfile(new VersionStamp(1L, 5L, Instant.parse("2024-01-02T00:00:00Z")));
+
+        //then
+        Mockito.verify(userRepository, Mockito.times(2)).findById(1L);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("testMail@test.com", profile.getEmail()),
+                () -> Assertions.assertEquals(4L, profile.getVersion())
+        );
+    }
+
+    @Test
+    public void getUserProfile_should_cacheUnderLoadedVersion_when_userChangedAfterStamp() {
+        //given
+        User user = User.builder()
+                .id(1L)
+                .email("testMail@test.com")
+                .version(5L)
+                .build();
+        VersionStamp staleStamp = new VersionStamp(1L, 4L, Instant.parse("2024-01-01T00:00:00Z"));
+        VersionStamp currentStamp = new VersionStamp(1L, 5L, Instant.parse("2024-01-02T00:00:00Z"));
+
+        //when
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        UserProfileDto loaded = userService.getUserProfile(staleStamp);
+        UserProfileDto cached = userService.getUserProfile(currentStamp);
+
+        //then
+        Mockito.verify(userRepository).findById(1L);
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(userProfileCache.get(1L, 4L).isEmpty()),
+                () -> Assertions.assertEquals(5L, loaded.getVersion()),
+                () -> Assertions.assertSame(loaded, cached)
+        );
+    }
+
     //TODO : changePassword, new password is not same with old password
 
     @ParameterizedTest
@@ -198,4 +388,162 @@ public class UserServiceUnitTest {
                 () -> Assertions.assertEquals(longArgumentCaptor.getValue(), changePassDto.getId())
         );
     }
+
+    @ParameterizedTest
+    @CsvSource({"Bariscan,Gungor,barisan@test.com,123456789"})
+    @SuppressWarnings("unchecked")
+    public void createUserAsync_should_hashOffThreadAndSave(ArgumentsAccessor argumentsAccessor) {
+        //given
+        UserDto userDto = UserDto.builder()
+                .firstName(argumentsAccessor.getString(0))
+                .lastName(argumentsAccessor.getString(1))
+                .email(argumentsAccessor.getString(2))
+                .password(argumentsAccessor.getString(3))
+                .build();
+
+        //when
+        Mockito.when(passwordHashingService.encode(Mockito.any(String.class)))
+                .thenReturn(CompletableFuture.completedFuture("hashedPass:" + userDto.getPassword()));
+        Mockito.when(userRepository.save(Mockito.any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(transactionTemplate.execute(Mockito.any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+        User actual = userService.createNewUserAsync(userDto).join();
+
+        //then
+        Mockito.verify(userRepository).save(userArgumentCaptor.capture());
+        Mockito.verify(changeOutbox).record(Mockito.eq(ChangeOutbox.USER), Mockito.any(), Mockito.eq("USER_CREATED"),
+                Mockito.any(UserProfileDto.class));
+        Mockito.verifyNoInteractions(passwordEncoder);
+        Mockito.verifyNoMoreInteractions(userRepository);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("hashedPass:" + userDto.getPassword(), actual.getPassword()),
+                () -> Assertions.assertEquals(userDto.getEmail(), userArgumentCaptor.getValue().getEmail())
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource({"123456789,987654321,987654321"})
+    @SuppressWarnings("unchecked")
+    public void changePasswordAsync_should_replaceHashOfCurrentPassword(ArgumentsAccessor argumentsAccessor) {
+        //given
+        String oldPassword = argumentsAccessor.getString(0);
+        String newPassword = argumentsAccessor.getString(1);
+        User user = User.builder()
+                .id(1L)
+                .email("testMail@test.com")
+                .password("hashedPass:" + oldPassword)
+                .build();
+        ChangePassDto changePassDto = ChangePassDto.builder()
+                .id(1L)
+                .password(oldPassword)
+                .newPass(newPassword)
+                .newPassAgain(argumentsAccessor.getString(2))
+                .build();
+
+        //when
+        Mockito.when(userRepository.findById(Mockito.any(Long.class))).thenReturn(Optional.of(user));
+        Mockito.when(passwordHashingService.matches(oldPassword, user.getPassword()))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        Mockito.when(passwordHashingService.encode(newPassword))
+                .thenReturn(CompletableFuture.completedFuture("hashedPass:" + newPassword));
+        Mockito.when(userRepository.replacePassword(1L, user.getPassword(), "hashedPass:" + newPassword)).thenReturn(1);
+        Mockito.when(transactionTemplate.execute(Mockito.any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+        String returnMessage = userService.changePasswordAsync(changePassDto).join();
+
+        //then
+        Mockito.verify(userRepository).replacePassword(1L, "hashedPass:" + oldPassword, "hashedPass:" + newPassword);
+        Mockito.verify(changeOutbox).record(Mockito.eq(ChangeOutbox.USER), Mockito.eq(1L), Mockito.eq("PASSWORD_CHANGED"),
+                Mockito.any(UserProfileDto.class));
+        Assertions.assertEquals("Password changed.", returnMessage);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"123456789"})
+    @SuppressWarnings("unchecked")
+    public void verifyPasswordAsync_should_rehash_when_costFactorChanged(ArgumentsAccessor argumentsAccessor) {
+        //given
+        String password = argumentsAccessor.getString(0);
+        User user = User.builder()
+                .id(1L)
+                .email("testMail@test.com")
+                .password("oldCostHash")
+                .build();
+
+        //when
+        Mockito.when(userRepository.findById(Mockito.any(Long.class))).thenReturn(Optional.of(user));
+        Mockito.when(passwordHashingService.matches(password, "oldCostHash"))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        Mockito.when(passwordHashingService.needsRehash("oldCostHash")).thenReturn(true);
+        Mockito.when(passwordHashingService.encode(password)).thenReturn(CompletableFuture.completedFuture("newCostHash"));
+        Mockito.when(userRepository.replacePassword(1L, "oldCostHash", "newCostHash")).thenReturn(1);
+        Mockito.when(transactionTemplate.execute(Mockito.any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+        Boolean verified = userService.verifyPasswordAsync(1L, password).join();
+
+        //then
+        Mockito.verify(userRepository).replacePassword(1L, "oldCostHash", "newCostHash");
+        Mockito.verify(changeOutbox).record(Mockito.eq(ChangeOutbox.USER), Mockito.eq(1L), Mockito.eq("PASSWORD_REHASHED"),
+                Mockito.any(UserProfileDto.class));
+        Assertions.assertTrue(verified);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"2"})
+    public void listUsers_should_returnNextCursor_when_pageIsFull(ArgumentsAccessor argumentsAccessor) {
+        //given
+        int size = argumentsAccessor.getInteger(0);
+        UserSummary first = Mockito.mock(UserSummary.class);
+        UserSummary second = Mockito.mock(UserSummary.class);
+
+        //when
+        Mockito.when(second.getId()).thenReturn(42L);
+        Mockito.when(userRepository.findByIdGreaterThanOrderByIdAsc(10L, PageRequest.of(0, size)))
+                .thenReturn(List.of(first, second));
+
+        UserPageDto page = userService.listUsers(UserSortField.ID, "10", null, size);
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(2, page.getItems().size()),
+                () -> Assertions.assertEquals("42", page.getNextCursor())
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource({"test"})
+    public void listUsers_should_searchByEmailPrefix_and_endWithoutCursor_when_pageIsPartial(ArgumentsAccessor argumentsAccessor) {
+        //given
+        String prefix = argumentsAccessor.getString(0);
+        UserSummary user = Mockito.mock(UserSummary.class);
+
+        //when
+        Mockito.when(userRepository.findByEmailStartingWithAndEmailGreaterThanOrderByEmailAsc(prefix, "", PageRequest.of(0, 50)))
+                .thenReturn(List.of(user));
+
+        UserPageDto page = userService.listUsers(UserSortField.ID, null, prefix, 50);
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, page.getItems().size()),
+                () -> Assertions.assertNull(page.getNextCursor())
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource({"notANumber"})
+    public void listUsers_should_throwBadRequestException_when_idCursorIsInvalid(ArgumentsAccessor argumentsAccessor) {
+        //given
+        String cursor = argumentsAccessor.getString(0);
+
+        //when
+        //then
+        Assertions.assertThrows(BadRequestException.class,
+                () -> userService.listUsers(UserSortField.ID, cursor, null, 50));
+        Mockito.verifyNoInteractions(userRepository);
+    }
 }
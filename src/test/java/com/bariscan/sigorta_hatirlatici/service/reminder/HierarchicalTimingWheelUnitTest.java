@@ -0,0 +1,81 @@
+package com.bariscan.sigorta_hatirlatici.service.reminder;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class HierarchicalTimingWheelUnitTest {
+
+    @Test
+    public void advanceTo_should_fireEntriesAtTheirDeadline() {
+        //given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 2, 2, 0);
+        List<String> fired = new ArrayList<>();
+
+        //when
+        wheel.schedule(1, 25, "near");
+        wheel.schedule(2, 95, "cascaded");
+        wheel.schedule(3, 500, "beyondRange");
+
+        //then
+        Assertions.assertEquals(0, wheel.advanceTo(29, fired::add));
+        Assertions.assertEquals(1, wheel.advanceTo(30, fired::add));
+        Assertions.assertEquals(0, wheel.advanceTo(99, fired::add));
+        Assertions.assertEquals(1, wheel.advanceTo(100, fired::add));
+        Assertions.assertEquals(0, wheel.advanceTo(499, fired::add));
+        Assertions.assertEquals(1, wheel.advanceTo(500, fired::add));
+        Assertions.assertEquals(List.of("near", "cascaded", "beyondRange"), fired);
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void schedule_should_replaceExistingEntryWithSameKey() {
+        //given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 2, 0);
+        List<String> fired = new ArrayList<>();
+
+        //when
+        wheel.schedule(1, 50, "first");
+        wheel.schedule(1, 200, "moved");
+        wheel.advanceTo(100, fired::add);
+
+        //then
+        Assertions.assertTrue(fired.isEmpty());
+        Assertions.assertEquals(1, wheel.size());
+        wheel.advanceTo(200, fired::add);
+        Assertions.assertEquals(List.of("moved"), fired);
+    }
+
+    @Test
+    public void cancel_should_removePendingEntry() {
+        //given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 2, 0);
+        List<String> fired = new ArrayList<>();
+
+        //when
+        wheel.schedule(1, 50, "cancelled");
+        wheel.schedule(2, 50, "kept");
+
+        //then
+        Assertions.assertTrue(wheel.cancel(1));
+        Assertions.assertFalse(wheel.cancel(1));
+        wheel.advanceTo(50, fired::add);
+        Assertions.assertEquals(List.of("kept"), fired);
+    }
+
+    @Test
+    public void schedule_should_fireOnNextAdvance_when_deadlineAlreadyPassed() {
+        //given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 2, 1_000);
+        List<String> fired = new ArrayList<>();
+
+        //when
+        wheel.schedule(1, 500, "overdue");
+        wheel.advanceTo(1_000, fired::add);
+
+        //then
+        Assertions.assertEquals(List.of("overdue"), fired);
+    }
+}
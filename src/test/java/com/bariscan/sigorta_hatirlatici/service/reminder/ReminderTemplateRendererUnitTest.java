@@ -0,0 +1,92 @@
+package com.bariscan.sigorta_hatirlatici.service.reminder;
+
+import com.bariscan.sigorta_hatirlatici.config.ReminderProperties;
+import com.bariscan.sigorta_hatirlatici.dto.reminderDtos.ReminderMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ReminderTemplateRendererUnitTest {
+    private ReminderTemplateRenderer renderer;
+
+    @BeforeEach
+    public void setUp() {
+        ReminderProperties properties = new ReminderProperties();
+        properties.getRender().setThreads(4);
+        properties.getRender().setParallelThreshold(8);
+        renderer = new ReminderTemplateRenderer(properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        renderer.shutdown();
+    }
+
+    @Test
+    public void render_should_fillAndEscapePersonalFields() {
+        //given
+        ReminderMessage message = message(1L);
+        message.setFirstName("<Bariscan>");
+
+        //when
+        String body = renderer.render(message);
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(body.contains("&lt;Bariscan&gt;")),
+                () -> Assertions.assertTrue(body.contains("PN-1")),
+                () -> Assertions.assertTrue(body.contains("(34 ABC 1)")),
+                () -> Assertions.assertTrue(body.contains("2023-04-04")),
+                () -> Assertions.assertTrue(body.contains("1,250.50"))
+        );
+    }
+
+    @Test
+    public void renderBatch_should_renderEveryMessageOnceAndReportFailures() {
+        //given
+        List<ReminderMessage> messages = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            messages.add(message(id));
+        }
+        Map<Long, String> bodies = new ConcurrentHashMap<>();
+
+        //when
+        List<ReminderMessage> failed = renderer.renderBatch(messages, (message, body) -> {
+            if (message.getPaymentId() % 50 == 0) {
+                throw new IllegalStateException("smtp unavailable");
+            }
+            Assertions.assertNull(bodies.put(message.getPaymentId(), body.toString()));
+        });
+
+        //then
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(98, bodies.size()),
+                () -> Assertions.assertTrue(bodies.get(7L).contains("PN-7")),
+                () -> Assertions.assertFalse(bodies.get(7L).contains("PN-8")),
+                () -> Assertions.assertEquals(List.of(50L, 100L), List.of(failed.get(0).getPaymentId(), failed.get(1).getPaymentId())),
+                () -> Assertions.assertEquals(98, renderer.renderedCount()),
+                () -> Assertions.assertEquals(2, renderer.failedCount())
+        );
+    }
+
+    private ReminderMessage message(Long id) {
+        return ReminderMessage.builder()
+                .idempotencyKey(id + ":2023-04-04")
+                .paymentId(id)
+                .userId(id)
+                .firstName("Bariscan")
+                .policyNumber("PN-" + id)
+                .plateNumber("34 ABC " + id)
+                .dueDate(LocalDate.of(2023, 4, 4))
+                .amount(new BigDecimal("1250.50"))
+                .build();
+    }
+}